@@ -0,0 +1,139 @@
+package com.ontik.gantt_project_v1.calendar;
+
+import com.ontik.gantt_project_v1.config.CalendarProperties;
+import com.ontik.gantt_project_v1.model.UserAvailability;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Immutable availability of one person, one bitset per year like the working-day calendar.
+ * A set bit means the person can work that day if the calendar allows it; WorkingDayCalendar.and combines both.
+ *
+ * Explicit years run from the first to the last year touched by a leave or schedule entry.
+ * Before them the person is available every day; after them on the days of the default mask,
+ * which is the open-ended schedule if there is one and every day of the week otherwise.
+ */
+public final class Availability {
+
+    private static final int EVERY_DAY = 0b1111111;
+
+    /**
+     * No leave and no schedule: the calendar alone decides
+     */
+    public static final Availability ALWAYS = new Availability(EVERY_DAY, 0, new BitSet[0]);
+
+    private final int workWeekMask;
+    private final int firstYear;
+    private final BitSet[] years;
+
+    private Availability(int workWeekMask, int firstYear, BitSet[] years) {
+        this.workWeekMask = workWeekMask;
+        this.firstYear = firstYear;
+        this.years = years;
+    }
+
+    /**
+     * Build the availability described by a person's leave and schedule entries.
+     * Where schedules overlap, the one that started last applies; leave always wins over a schedule.
+     */
+    public static Availability of(Collection<UserAvailability> entries) {
+        if (entries.isEmpty()) {
+            return ALWAYS;
+        }
+
+        int defaultMask = EVERY_DAY;
+        LocalDate defaultSince = null;
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (UserAvailability entry : entries) {
+            first = Math.min(first, entry.getStartDate().getYear());
+            last = Math.max(last, (entry.getEndDate() != null ? entry.getEndDate() : entry.getStartDate()).getYear());
+            if (entry.isSchedule() && entry.getEndDate() == null
+                    && (defaultSince == null || entry.getStartDate().isAfter(defaultSince))) {
+                defaultMask = CalendarProperties.parseWorkWeek(entry.getWorkWeek());
+                defaultSince = entry.getStartDate();
+            }
+        }
+
+        BitSet[] years = new BitSet[last - first + 1];
+        for (int i = 0; i < years.length; i++) {
+            years[i] = yearOf(first + i, entries);
+        }
+        return new Availability(defaultMask, first, years);
+    }
+
+    /**
+     * Days of the week worked after the explicit years, bit 0 = Monday
+     */
+    public int getWorkWeekMask() {
+        return workWeekMask;
+    }
+
+    boolean isEmpty() {
+        return years.length == 0;
+    }
+
+    int firstYear() {
+        return firstYear;
+    }
+
+    int lastYear() {
+        return firstYear + years.length - 1;
+    }
+
+    /**
+     * Available days of a year indexed by day-of-year minus one, or null when the default mask applies
+     */
+    BitSet explicitYear(int year) {
+        int index = year - firstYear;
+        return index >= 0 && index < years.length ? years[index] : null;
+    }
+
+    private static BitSet yearOf(int year, Collection<UserAvailability> entries) {
+        LocalDate yearStart = LocalDate.of(year, 1, 1);
+        int length = yearStart.lengthOfYear();
+        long firstDay = yearStart.toEpochDay();
+
+        // Day mask of the schedule in force on each day, latest start wins
+        int[] masks = new int[length];
+        long[] since = new long[length];
+        Arrays.fill(masks, EVERY_DAY);
+        Arrays.fill(since, Long.MIN_VALUE);
+        BitSet leave = new BitSet(length);
+
+        for (UserAvailability entry : entries) {
+            long from = Math.max(entry.getStartDate().toEpochDay(), firstDay);
+            long to = entry.getEndDate() != null
+                    ? Math.min(entry.getEndDate().toEpochDay(), firstDay + length - 1)
+                    : firstDay + length - 1;
+            if (from > to) {
+                continue;
+            }
+            if (entry.isSchedule()) {
+                int mask = CalendarProperties.parseWorkWeek(entry.getWorkWeek());
+                long start = entry.getStartDate().toEpochDay();
+                for (long day = from; day <= to; day++) {
+                    int i = (int) (day - firstDay);
+                    if (start >= since[i]) {
+                        masks[i] = mask;
+                        since[i] = start;
+                    }
+                }
+            } else {
+                leave.set((int) (from - firstDay), (int) (to - firstDay) + 1);
+            }
+        }
+
+        BitSet available = new BitSet(length);
+        for (int i = 0; i < length; i++) {
+            // 1970-01-01 was a Thursday, so shifting by 3 makes Monday index 0
+            if (!leave.get(i) && (masks[i] & (1 << Math.floorMod(firstDay + i + 3, 7))) != 0) {
+                available.set(i);
+            }
+        }
+        return available;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ontik.gantt_project_v1.calendar;
+
+import java.util.UUID;
+
+/**
+ * Published after a user's availability entries are written, so the cached calendars of that user are rebuilt
+ */
+public record AvailabilityChangedEvent(UUID userId) {
+}
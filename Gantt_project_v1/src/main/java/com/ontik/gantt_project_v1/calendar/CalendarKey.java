@@ -0,0 +1,61 @@
+package com.ontik.gantt_project_v1.calendar;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Identifies a working-day calendar: a country's holidays and work week, optionally overridden for one project
+ * and narrowed to the availability of one assignee.
+ * A key without country, project and assignee is the default calendar, which applies every holiday regardless of country.
+ * Countries are ISO 3166 codes (two or three letters, any case), so the calendars a client can ask for stay a known set.
+ */
+public record CalendarKey(String countryCode, UUID projectId, UUID assigneeId) {
+
+    private static final Set<String> COUNTRY_CODES = countryCodes();
+
+    public static final CalendarKey DEFAULT = new CalendarKey(null, null, null);
+
+    /**
+     * @throws IllegalArgumentException if the country is not an ISO 3166 code
+     */
+    public CalendarKey {
+        countryCode = countryCode == null || countryCode.isBlank() ? null : countryCode.trim().toUpperCase(Locale.ROOT);
+        if (countryCode != null && !COUNTRY_CODES.contains(countryCode)) {
+            throw new IllegalArgumentException("Unknown country code: " + countryCode);
+        }
+    }
+
+    /**
+     * Build a key from optional request parameters, falling back to the default calendar
+     */
+    public static CalendarKey of(String countryCode, UUID projectId) {
+        return of(countryCode, projectId, null);
+    }
+
+    /**
+     * Build a key from optional request parameters, including the assignee whose availability applies
+     */
+    public static CalendarKey of(String countryCode, UUID projectId, UUID assigneeId) {
+        CalendarKey key = new CalendarKey(countryCode, projectId, assigneeId);
+        return key.equals(DEFAULT) ? DEFAULT : key;
+    }
+
+    /**
+     * The same calendar without the assignee's availability
+     */
+    public CalendarKey withoutAssignee() {
+        return assigneeId == null ? this : of(countryCode, projectId);
+    }
+
+    public boolean isDefault() {
+        return countryCode == null && projectId == null && assigneeId == null;
+    }
+
+    private static Set<String> countryCodes() {
+        Set<String> codes = new HashSet<>(Locale.getISOCountries(Locale.IsoCountryCode.PART1_ALPHA2));
+        codes.addAll(Locale.getISOCountries(Locale.IsoCountryCode.PART1_ALPHA3));
+        return Set.copyOf(codes);
+    }
+}
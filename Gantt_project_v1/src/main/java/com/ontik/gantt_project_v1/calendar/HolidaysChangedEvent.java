@@ -0,0 +1,10 @@
+package com.ontik.gantt_project_v1.calendar;
+
+import java.util.Set;
+
+/**
+ * Published after holidays are written, naming the countries and years whose calendar slices are stale.
+ * A null entry in countryCodes stands for holidays without a country.
+ */
+public record HolidaysChangedEvent(Set<String> countryCodes, Set<Integer> years) {
+}
@@ -0,0 +1,116 @@
+package com.ontik.gantt_project_v1.calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for iCalendar (.ics, RFC 5545) files.
+ * Reads one line at a time and hands every VEVENT to the consumer as soon as it ends,
+ * so files with many years of events never have to be held in memory.
+ */
+public final class ICalendarReader {
+
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private ICalendarReader() {
+    }
+
+    /**
+     * One calendar event; endDate is exclusive, as in DTEND
+     */
+    public record Event(LocalDate startDate, LocalDate endDate, String summary, String description) {
+    }
+
+    /**
+     * Read all VEVENT entries from the reader. Events without a DTSTART are skipped.
+     */
+    public static void read(Reader source, Consumer<Event> consumer) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+
+        boolean inEvent = false;
+        LocalDate start = null;
+        LocalDate end = null;
+        String summary = null;
+        String description = null;
+
+        String line = reader.readLine();
+        while (line != null) {
+            // Unfold continuation lines, which start with a space or a tab
+            StringBuilder logical = new StringBuilder(line);
+            String next = reader.readLine();
+            while (next != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+                logical.append(next, 1, next.length());
+                next = reader.readLine();
+            }
+            line = next;
+
+            String content = logical.toString();
+            int colon = content.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = content.substring(0, colon);
+            int semicolon = name.indexOf(';');
+            if (semicolon >= 0) {
+                name = name.substring(0, semicolon);
+            }
+            String value = content.substring(colon + 1);
+
+            switch (name.toUpperCase()) {
+                case "BEGIN" -> {
+                    if ("VEVENT".equalsIgnoreCase(value)) {
+                        inEvent = true;
+                        start = null;
+                        end = null;
+                        summary = null;
+                        description = null;
+                    }
+                }
+                case "END" -> {
+                    if (inEvent && "VEVENT".equalsIgnoreCase(value)) {
+                        inEvent = false;
+                        if (start != null) {
+                            LocalDate exclusiveEnd = end != null && end.isAfter(start) ? end : start.plusDays(1);
+                            consumer.accept(new Event(start, exclusiveEnd, summary, description));
+                        }
+                    }
+                }
+                case "DTSTART" -> start = inEvent ? parseDate(value) : start;
+                case "DTEND" -> end = inEvent ? parseDate(value) : end;
+                case "SUMMARY" -> summary = inEvent ? unescape(value) : summary;
+                case "DESCRIPTION" -> description = inEvent ? unescape(value) : description;
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Parse a DATE (20250101) or DATE-TIME (20250101T000000Z) value to its date
+     */
+    private static LocalDate parseDate(String value) {
+        String date = value.trim();
+        if (date.length() > 8) {
+            date = date.substring(0, 8);
+        }
+        return LocalDate.parse(date, BASIC_DATE);
+    }
+
+    private static String unescape(String value) {
+        StringBuilder text = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                text.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                text.append(c);
+            }
+        }
+        return text.toString().trim();
+    }
+}
@@ -0,0 +1,489 @@
+package com.ontik.gantt_project_v1.calendar;
+
+import com.ontik.gantt_project_v1.model.Holiday;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable working-day calendar backed by one bitset per year.
+ * A set bit in the working bitset marks a working day (a day of the work week that is not a non-working holiday).
+ * Dates outside the loaded years have no holidays, so they fall back to the work-week rule alone
+ * (the leading work week before the first loaded year, the work week after the last one).
+ *
+ * Every year also keeps a prefix sum of its working days, and the calendar keeps the running total
+ * at the start of each year. Together they give the rank of a day (working days before it, counted
+ * from the first loaded year) in constant time, and the day holding a given rank by binary search.
+ */
+public final class WorkingDayCalendar {
+
+    /**
+     * Monday to Friday, bit 0 = Monday ... bit 6 = Sunday
+     */
+    public static final int MONDAY_TO_FRIDAY = 0b0011111;
+
+    // Days of the week that are worked when no holiday applies, bit 0 = Monday
+    private final int workWeekMask;
+    // Work week before the first loaded year; differs from workWeekMask only once a schedule change is ANDed in
+    private final int leadingWorkWeekMask;
+    private final int firstYear;
+    private final YearSlice[] years;
+    private final long windowStart;
+    private final long windowEnd;
+    // yearBase[i] = working days from windowStart up to the first day of years[i]
+    private final long[] yearBase;
+
+    private WorkingDayCalendar(int leadingWorkWeekMask, int workWeekMask, int firstYear, YearSlice[] years) {
+        this.leadingWorkWeekMask = leadingWorkWeekMask;
+        this.workWeekMask = workWeekMask;
+        this.firstYear = firstYear;
+        this.years = years;
+        this.windowStart = LocalDate.of(firstYear, 1, 1).toEpochDay();
+        this.windowEnd = LocalDate.of(firstYear + years.length, 1, 1).toEpochDay();
+        this.yearBase = new long[years.length + 1];
+        for (int i = 0; i < years.length; i++) {
+            yearBase[i + 1] = yearBase[i] + years[i].workingDays();
+        }
+    }
+
+    /**
+     * Build a Monday-to-Friday calendar covering every year that has at least one holiday
+     */
+    public static WorkingDayCalendar build(Collection<Holiday> holidays) {
+        return build(holidays, MONDAY_TO_FRIDAY);
+    }
+
+    /**
+     * Build a calendar for the given work week covering every year that has at least one holiday
+     * @param workWeekMask days of the week that are worked, bit 0 = Monday ... bit 6 = Sunday
+     */
+    public static WorkingDayCalendar build(Collection<Holiday> holidays, int workWeekMask) {
+        if ((workWeekMask & 0b1111111) == 0 || (workWeekMask & ~0b1111111) != 0) {
+            throw new IllegalArgumentException("Work week must contain at least one day: " + workWeekMask);
+        }
+        Map<Integer, List<Holiday>> holidaysByYear = new HashMap<>();
+        for (Holiday holiday : holidays) {
+            holidaysByYear.computeIfAbsent(holiday.getHolidayDate().getYear(), year -> new ArrayList<>()).add(holiday);
+        }
+        return new WorkingDayCalendar(workWeekMask, workWeekMask, 1970, new YearSlice[0]).withYears(holidaysByYear);
+    }
+
+    /**
+     * Get a copy of this calendar in which only the given years are rebuilt from their holidays.
+     * Every other year slice is shared with this calendar; the window grows if a year lies outside it.
+     * @param holidaysByYear complete holiday list of each year to rebuild (an empty list clears the year)
+     */
+    public WorkingDayCalendar withYears(Map<Integer, ? extends Collection<Holiday>> holidaysByYear) {
+        if (holidaysByYear.isEmpty()) {
+            return this;
+        }
+
+        int newFirstYear = years.length == 0 ? Integer.MAX_VALUE : firstYear;
+        int newLastYear = years.length == 0 ? Integer.MIN_VALUE : firstYear + years.length - 1;
+        for (int year : holidaysByYear.keySet()) {
+            newFirstYear = Math.min(newFirstYear, year);
+            newLastYear = Math.max(newLastYear, year);
+        }
+
+        YearSlice[] slices = new YearSlice[newLastYear - newFirstYear + 1];
+        for (int i = 0; i < slices.length; i++) {
+            int year = newFirstYear + i;
+            Collection<Holiday> holidays = holidaysByYear.get(year);
+            int oldIndex = year - firstYear;
+            if (holidays != null) {
+                slices[i] = YearSlice.of(year, workWeekMask, holidays);
+            } else if (years.length > 0 && oldIndex >= 0 && oldIndex < years.length) {
+                slices[i] = years[oldIndex];
+            } else {
+                slices[i] = YearSlice.of(year, workWeekMaskOf(year), List.of());
+            }
+        }
+        return new WorkingDayCalendar(leadingWorkWeekMask, workWeekMask, newFirstYear, slices);
+    }
+
+    /**
+     * Get a copy of this calendar in which one date is (or is no longer) a non-working holiday.
+     * Meant for what-if analysis on shared calendars; only the year of the date is rebuilt.
+     * @param name holiday name used when the date becomes a holiday
+     */
+    public WorkingDayCalendar withNonWorkingHoliday(LocalDate date, String name, boolean nonWorking) {
+        if (isNonWorkingHoliday(date) == nonWorking) {
+            return this;
+        }
+        int year = date.getYear();
+        LocalDate yearStart = LocalDate.of(year, 1, 1);
+        List<Holiday> yearHolidays = new ArrayList<>();
+        YearSlice slice = sliceFor(year);
+        if (slice != null) {
+            for (int i = slice.holidays.nextSetBit(0); i >= 0; i = slice.holidays.nextSetBit(i + 1)) {
+                if (i != date.getDayOfYear() - 1) {
+                    yearHolidays.add(Holiday.builder()
+                            .holidayDate(yearStart.plusDays(i))
+                            .holidayName(slice.names.get(i))
+                            .isWorkingDay(!slice.closed.get(i))
+                            .build());
+                }
+            }
+        }
+        if (nonWorking) {
+            yearHolidays.add(Holiday.builder().holidayDate(date).holidayName(name).isWorkingDay(false).build());
+        }
+        return withYears(Map.of(year, yearHolidays));
+    }
+
+    /**
+     * Get the calendar of a person: a day is worked only if it is a working day here AND the person is available.
+     * Holidays are kept as they are; year slices the availability does not restrict are shared with this calendar.
+     * @throws IllegalArgumentException if the availability leaves no day of the work week to work on
+     */
+    public WorkingDayCalendar and(Availability availability) {
+        int mask = workWeekMask & availability.getWorkWeekMask();
+        if (mask == 0) {
+            throw new IllegalArgumentException("Availability has no day in common with the work week");
+        }
+        if (availability.isEmpty() && mask == workWeekMask) {
+            return this;
+        }
+
+        int newFirstYear = firstYear;
+        int newLastYear = firstYear + years.length - 1;
+        if (years.length == 0) {
+            newFirstYear = availability.firstYear();
+            newLastYear = availability.lastYear();
+        } else if (!availability.isEmpty()) {
+            newFirstYear = Math.min(newFirstYear, availability.firstYear());
+            newLastYear = Math.max(newLastYear, availability.lastYear());
+        }
+
+        YearSlice[] slices = new YearSlice[Math.max(0, newLastYear - newFirstYear + 1)];
+        for (int i = 0; i < slices.length; i++) {
+            int year = newFirstYear + i;
+            YearSlice slice = sliceFor(year);
+            if (slice == null) {
+                slice = YearSlice.of(year, workWeekMaskOf(year), List.of());
+            }
+            BitSet available = availability.explicitYear(year);
+            if (available != null) {
+                slices[i] = slice.and(available);
+            } else if (!availability.isEmpty() && year < availability.firstYear()) {
+                // Before the first leave or schedule entry the person is available every day
+                slices[i] = slice;
+            } else if (mask != workWeekMask) {
+                slices[i] = slice.and(YearSlice.of(year, mask, List.of()).working);
+            } else {
+                slices[i] = slice;
+            }
+        }
+        return new WorkingDayCalendar(leadingWorkWeekMask, mask, slices.length == 0 ? firstYear : newFirstYear, slices);
+    }
+
+    /**
+     * Days of the week that are worked when no holiday applies, bit 0 = Monday
+     */
+    public int getWorkWeekMask() {
+        return workWeekMask;
+    }
+
+    /**
+     * Check if a date is a working day (on the work week and not a non-working holiday)
+     */
+    public boolean isWorkingDay(LocalDate date) {
+        YearSlice slice = sliceFor(date);
+        if (slice == null) {
+            long epochDay = date.toEpochDay();
+            return isWorkWeekDay(epochDay < windowStart ? leadingWorkWeekMask : workWeekMask, epochDay);
+        }
+        return slice.working.get(date.getDayOfYear() - 1);
+    }
+
+    /**
+     * Check if a date has any holiday entry, working or not
+     */
+    public boolean isHoliday(LocalDate date) {
+        YearSlice slice = sliceFor(date);
+        return slice != null && slice.holidays.get(date.getDayOfYear() - 1);
+    }
+
+    /**
+     * Check if a date is a non-working holiday
+     */
+    public boolean isNonWorkingHoliday(LocalDate date) {
+        YearSlice slice = sliceFor(date);
+        return slice != null && slice.closed.get(date.getDayOfYear() - 1);
+    }
+
+    /**
+     * Working days of a date range as a bitmap, both ends inclusive.
+     * Bit i (byte i / 8, bit i % 8, least significant first) is set when start + i days is a working day.
+     */
+    public byte[] workingDayBitmap(LocalDate startDate, LocalDate endDate) {
+        int days = Math.toIntExact(endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        byte[] bitmap = new byte[Math.max(0, (days + 7) / 8)];
+        LocalDate date = startDate;
+        for (int i = 0; i < days; i++, date = date.plusDays(1)) {
+            if (isWorkingDay(date)) {
+                bitmap[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Holidays of a date range in date order, both ends inclusive
+     */
+    public List<HolidayEntry> holidaysBetween(LocalDate startDate, LocalDate endDate) {
+        List<HolidayEntry> entries = new ArrayList<>();
+        for (int year = Math.max(startDate.getYear(), firstYear);
+             year <= Math.min(endDate.getYear(), firstYear + years.length - 1); year++) {
+            YearSlice slice = years[year - firstYear];
+            LocalDate yearStart = LocalDate.of(year, 1, 1);
+            for (int i = slice.holidays.nextSetBit(0); i >= 0; i = slice.holidays.nextSetBit(i + 1)) {
+                LocalDate date = yearStart.plusDays(i);
+                if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
+                    entries.add(new HolidayEntry(date, slice.names.get(i), !slice.closed.get(i)));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Count the working days between two dates, both inclusive
+     */
+    public int workingDaysBetween(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return 0;
+        }
+        return Math.toIntExact(rank(endDate.toEpochDay() + 1) - rank(startDate.toEpochDay()));
+    }
+
+    /**
+     * Get the date of the N-th working day counted from the start date (the start date counts if it is a working day).
+     * Returns the start date itself when N is zero or negative.
+     */
+    public LocalDate plusWorkingDays(LocalDate startDate, int workingDays) {
+        if (workingDays <= 0) {
+            return startDate;
+        }
+        return LocalDate.ofEpochDay(select(rank(startDate.toEpochDay()) + workingDays - 1));
+    }
+
+    /**
+     * Move a date by N working days, later for positive N and earlier for negative N.
+     * A date that is not a working day moves from the next working day, so zero snaps it forward.
+     */
+    public LocalDate shiftWorkingDays(LocalDate date, int workingDays) {
+        return LocalDate.ofEpochDay(select(rank(date.toEpochDay()) + workingDays));
+    }
+
+    /**
+     * Get the first working day strictly after the given date
+     */
+    public LocalDate nextWorkingDay(LocalDate date) {
+        return LocalDate.ofEpochDay(select(rank(date.toEpochDay() + 1)));
+    }
+
+    /**
+     * Number of working days from the start of the window up to (excluding) the given epoch day.
+     * Negative for days before the window.
+     */
+    private long rank(long epochDay) {
+        if (epochDay < windowStart) {
+            return -workWeekDaysBetween(leadingWorkWeekMask, epochDay, windowStart);
+        }
+        if (epochDay >= windowEnd) {
+            return yearBase[years.length] + workWeekDaysBetween(workWeekMask, windowEnd, epochDay);
+        }
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        int index = date.getYear() - firstYear;
+        return yearBase[index] + years[index].prefix[date.getDayOfYear() - 1];
+    }
+
+    /**
+     * Epoch day of the working day whose rank is the given value
+     */
+    private long select(long rank) {
+        if (rank < 0) {
+            return nthWorkWeekDayBefore(leadingWorkWeekMask, windowStart, -rank);
+        }
+        if (rank >= yearBase[years.length]) {
+            return nthWorkWeekDayFrom(workWeekMask, windowEnd, rank - yearBase[years.length]);
+        }
+
+        // Last year whose base is <= rank; years without working days share a base with their successor
+        int index = Arrays.binarySearch(yearBase, 0, years.length, rank);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        while (index + 1 < years.length && yearBase[index + 1] <= rank) {
+            index++;
+        }
+        YearSlice slice = years[index];
+        int dayOfYear = slice.select((int) (rank - yearBase[index]));
+        return LocalDate.of(firstYear + index, 1, 1).toEpochDay() + dayOfYear;
+    }
+
+    private YearSlice sliceFor(LocalDate date) {
+        return sliceFor(date.getYear());
+    }
+
+    private YearSlice sliceFor(int year) {
+        int index = year - firstYear;
+        return index >= 0 && index < years.length ? years[index] : null;
+    }
+
+    /**
+     * Work week of a year outside the loaded window
+     */
+    private int workWeekMaskOf(int year) {
+        return years.length > 0 && year < firstYear ? leadingWorkWeekMask : workWeekMask;
+    }
+
+    private static boolean isWorkWeekDay(int workWeekMask, long epochDay) {
+        // 1970-01-01 was a Thursday, so shifting by 3 makes Monday index 0
+        return (workWeekMask & (1 << Math.floorMod(epochDay + 3, 7))) != 0;
+    }
+
+    /**
+     * Count work-week days in [from, to) without holidays, in constant time
+     */
+    private static long workWeekDaysBetween(int workWeekMask, long from, long to) {
+        long days = to - from;
+        long count = (days / 7) * Integer.bitCount(workWeekMask);
+        for (long day = from + (days / 7) * 7; day < to; day++) {
+            if (isWorkWeekDay(workWeekMask, day)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Work-week day on or after 'from' that has exactly n work-week days before it in [from, day)
+     */
+    private static long nthWorkWeekDayFrom(int workWeekMask, long from, long n) {
+        int workDaysPerWeek = Integer.bitCount(workWeekMask);
+        long day = from + (n / workDaysPerWeek) * 7;
+        long remaining = n % workDaysPerWeek;
+        while (true) {
+            if (isWorkWeekDay(workWeekMask, day)) {
+                if (remaining == 0) {
+                    return day;
+                }
+                remaining--;
+            }
+            day++;
+        }
+    }
+
+    /**
+     * The n-th work-week day (n >= 1) walking backwards from the day before 'to'
+     */
+    private static long nthWorkWeekDayBefore(int workWeekMask, long to, long n) {
+        int workDaysPerWeek = Integer.bitCount(workWeekMask);
+        long weeks = (n - 1) / workDaysPerWeek;
+        long remaining = n - weeks * workDaysPerWeek;
+        long day = to - weeks * 7 - 1;
+        while (true) {
+            if (isWorkWeekDay(workWeekMask, day) && --remaining == 0) {
+                return day;
+            }
+            day--;
+        }
+    }
+
+    /**
+     * A holiday as seen by the calendar: its date, name and whether work continues on that day
+     */
+    public record HolidayEntry(LocalDate date, String name, boolean workingDay) {
+    }
+
+    /**
+     * One year of the calendar, indexed by day-of-year minus one
+     */
+    private static final class YearSlice {
+        private final BitSet working;
+        private final BitSet holidays;
+        private final BitSet closed;
+        // Holiday names by day-of-year index; dates shared by several countries join their names
+        private final Map<Integer, String> names;
+        // prefix[i] = working days in [0, i) of this year
+        private final int[] prefix;
+
+        private YearSlice(BitSet working, BitSet holidays, BitSet closed, Map<Integer, String> names, int[] prefix) {
+            this.working = working;
+            this.holidays = holidays;
+            this.closed = closed;
+            this.names = names;
+            this.prefix = prefix;
+        }
+
+        private static YearSlice of(int year, int workWeekMask, Collection<Holiday> yearHolidays) {
+            BitSet holidays = new BitSet(366);
+            BitSet closed = new BitSet(366);
+            Map<Integer, String> names = new HashMap<>();
+            for (Holiday holiday : yearHolidays) {
+                int index = holiday.getHolidayDate().getDayOfYear() - 1;
+                holidays.set(index);
+                names.merge(index, holiday.getHolidayName(), (first, second) -> first + " / " + second);
+                if (!Boolean.TRUE.equals(holiday.getIsWorkingDay())) {
+                    closed.set(index);
+                }
+            }
+
+            LocalDate day = LocalDate.of(year, 1, 1);
+            int length = day.lengthOfYear();
+            long firstDay = day.toEpochDay();
+            BitSet working = new BitSet(length);
+            int[] prefix = new int[length + 1];
+            for (int i = 0; i < length; i++) {
+                if (isWorkWeekDay(workWeekMask, firstDay + i) && !closed.get(i)) {
+                    working.set(i);
+                }
+                prefix[i + 1] = prefix[i] + (working.get(i) ? 1 : 0);
+            }
+            return new YearSlice(working, holidays, closed, Map.copyOf(names), prefix);
+        }
+
+        /**
+         * Copy of this slice whose working days are also set in the given bitset; holidays are shared
+         */
+        private YearSlice and(BitSet available) {
+            BitSet working = (BitSet) this.working.clone();
+            working.and(available);
+            int[] prefix = new int[this.prefix.length];
+            for (int i = 0; i < prefix.length - 1; i++) {
+                prefix[i + 1] = prefix[i] + (working.get(i) ? 1 : 0);
+            }
+            return new YearSlice(working, holidays, closed, names, prefix);
+        }
+
+        private int workingDays() {
+            return prefix[prefix.length - 1];
+        }
+
+        /**
+         * Day-of-year index (0-based) of the working day with the given rank inside this year
+         */
+        private int select(int rank) {
+            // Smallest i with prefix[i + 1] > rank
+            int low = 0;
+            int high = prefix.length - 2;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prefix[mid + 1] > rank) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
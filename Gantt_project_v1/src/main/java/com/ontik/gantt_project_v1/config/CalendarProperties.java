@@ -0,0 +1,85 @@
+package com.ontik.gantt_project_v1.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Work-week configuration for working-day calendars, bound from 'gantt.calendar.*' properties.
+ *
+ * gantt.calendar.default-work-week=MON,TUE,WED,THU,FRI
+ * gantt.calendar.work-weeks.BGD=SUN,MON,TUE,WED,THU
+ * gantt.calendar.projects.{projectId}.country=BGD
+ * gantt.calendar.projects.{projectId}.work-week=MON,TUE,WED,THU
+ */
+@Component
+@ConfigurationProperties(prefix = "gantt.calendar")
+@Getter
+@Setter
+public class CalendarProperties {
+
+    // Work week used when neither the project nor the country configures one
+    private String defaultWorkWeek = "MON,TUE,WED,THU,FRI";
+
+    // Work week per country code
+    private Map<String, String> workWeeks = new HashMap<>();
+
+    // Calendar overrides per project
+    private Map<UUID, ProjectCalendar> projects = new HashMap<>();
+
+    /**
+     * Calendar override for a single project
+     */
+    @Getter
+    @Setter
+    public static class ProjectCalendar {
+        // Country whose holidays apply when the request does not name one
+        private String country;
+        // Work week replacing the country's work week
+        private String workWeek;
+    }
+
+    /**
+     * Get the configured work week of a country, or null if the country has none
+     */
+    public String getWorkWeek(String countryCode) {
+        for (Map.Entry<String, String> entry : workWeeks.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(countryCode)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Convert a list of days such as "MON,TUE,WED" into a work-week bitmask (bit 0 = Monday)
+     */
+    public static int parseWorkWeek(String days) {
+        int mask = 0;
+        for (String day : days.split(",")) {
+            String name = day.trim().toUpperCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            DayOfWeek dayOfWeek = null;
+            for (DayOfWeek candidate : DayOfWeek.values()) {
+                if (candidate.name().startsWith(name) && name.length() >= 3) {
+                    dayOfWeek = candidate;
+                    break;
+                }
+            }
+            if (dayOfWeek == null) {
+                throw new IllegalArgumentException("Unknown day of week in work week: " + day);
+            }
+            mask |= 1 << (dayOfWeek.getValue() - 1);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ontik.gantt_project_v1.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Page sizes of the cursor-paginated collection endpoints, bound from 'gantt.pagination.*' properties.
+ *
+ * gantt.pagination.default-size=500
+ * gantt.pagination.max-size=2000
+ */
+@Component
+@ConfigurationProperties(prefix = "gantt.pagination")
+@Getter
+@Setter
+public class PaginationProperties {
+
+    // Page size used when the request does not ask for one
+    private int defaultSize = 500;
+
+    // Largest page a request may ask for; bigger requests are capped
+    private int maxSize = 2000;
+
+    /**
+     * Resolve the requested page size against the configured default and maximum
+     */
+    public int resolveSize(Integer requested) {
+        if (requested == null) {
+            return Math.min(defaultSize, maxSize);
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1: " + requested);
+        }
+        return Math.min(requested, maxSize);
+    }
+}
@@ -16,8 +16,11 @@ public class WebConfig implements WebMvcConfigurer {
         // Allow CORS for all endpoints and from localhost:3000 (React dev server)
         registry.addMapping("/**")
                 .allowedOrigins("http://localhost:3000")
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                // Let the browser read the cursor of the next page on paginated collections,
+                // and the version of a task, epic or project to send back as If-Match
+                .exposedHeaders("Link", "X-Next-Cursor", "ETag")
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.ontik.gantt_project_v1.controller;
+
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Renders a cursor page as a plain JSON array, with the next page in the headers:
+ * X-Next-Cursor carries the cursor and Link (rel="next") the URL of the following page.
+ * Both are absent on the last page.
+ */
+final class CursorPageResponse {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CursorPageResponse() {
+    }
+
+    static <T> ResponseEntity<List<T>> of(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            String nextUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNext())
+                    .build(true)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.getNext())
+                    .header(HttpHeaders.LINK, "<" + nextUrl + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+}
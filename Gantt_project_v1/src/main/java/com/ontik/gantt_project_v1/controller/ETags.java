@@ -0,0 +1,34 @@
+package com.ontik.gantt_project_v1.controller;
+
+/**
+ * Entity tags for versioned entities: the ETag of a task, epic or project is its quoted version number.
+ * A PUT or PATCH carrying If-Match is applied only if the entity is still at that version, otherwise 412.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The version an If-Match header asks for, or null for no precondition (absent header or "*")
+     * @throws IllegalArgumentException if the header is not a single strong ETag issued by this API
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single strong ETag: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown ETag: " + ifMatch);
+        }
+    }
+}
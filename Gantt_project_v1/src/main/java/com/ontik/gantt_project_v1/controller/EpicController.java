@@ -1,9 +1,19 @@
 package com.ontik.gantt_project_v1.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import com.ontik.gantt_project_v1.dto.EpicSummary;
+import com.ontik.gantt_project_v1.dto.EpicWithUserDTO;
 import com.ontik.gantt_project_v1.model.Epic;
 import com.ontik.gantt_project_v1.service.EpicService;
+import com.ontik.gantt_project_v1.service.UserEnrichmentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,15 +32,43 @@ public class EpicController {
     @Autowired
     private EpicService epicService;
 
+    @Autowired
+    private UserEnrichmentService userEnrichmentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Summaries get assignee names only when the response includes them
+    private List<EpicSummary> withNames(SparseFields selection, List<EpicSummary> epics) {
+        return selection.includes("assignedToName") ? userEnrichmentService.enrichEpicSummaries(epics) : epics;
+    }
+
     /**
-     * Get all epics
+     * Get one page of all epics, ordered by start date.
+     * The next page is requested with the cursor from the X-Next-Cursor (or Link) response header.
+     * ?fields=name,startDate,... returns only those properties, read from the lean EpicSummary when possible.
      */
     @GetMapping
-    public List<Epic> getAllEpics() {
-        System.out.println("GET /epics - Fetching all epics");
-        List<Epic> epics = epicService.getAllEpics();
-        System.out.println("Found " + epics.size() + " epics");
-        return epics;
+    public ResponseEntity<List<Object>> getAllEpics(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        System.out.println("GET /epics - Fetching epics" + (cursor != null ? " after cursor " + cursor : ""));
+        try {
+            SparseFields selection = SparseFields.parse(fields, objectMapper, EpicWithUserDTO.class);
+            if (selection.coveredBy(EpicSummary.class)) {
+                CursorPage<EpicSummary> summaries = epicService.getAllEpicSummaries(cursor, limit);
+                System.out.println("Found " + summaries.getItems().size() + " epic summaries");
+                withNames(selection, summaries.getItems());
+                return CursorPageResponse.of(selection.select(summaries));
+            }
+            CursorPage<Epic> page = epicService.getAllEpics(cursor, limit);
+            System.out.println("Found " + page.getItems().size() + " epics");
+            return CursorPageResponse.of(selection.select(userEnrichmentService.enrichEpics(page)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid page request: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -40,7 +78,7 @@ public class EpicController {
     public ResponseEntity<Epic> getEpicById(@PathVariable UUID id) {
         System.out.println("GET /epics/" + id + " - Fetching epic by ID");
         Optional<Epic> epic = epicService.getEpicById(id);
-        return epic.map(ResponseEntity::ok)
+        return epic.map(e -> ResponseEntity.ok().eTag(ETags.of(e.getVersion())).body(e))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -61,12 +99,54 @@ public class EpicController {
      * Update existing epic
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Epic> updateEpic(@PathVariable UUID id, @RequestBody Epic updatedEpic) {
+    public ResponseEntity<Epic> updateEpic(@PathVariable UUID id, @RequestBody Epic updatedEpic,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         System.out.println("PUT /epics/" + id + " - Updating epic: " + updatedEpic.getName());
         
-        Optional<Epic> updated = epicService.updateEpic(id, updatedEpic);
-        return updated.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            // With If-Match: one conditional UPDATE, answered with 204 and the new ETag
+            Long expectedVersion = ETags.parseIfMatch(ifMatch);
+            if (expectedVersion != null) {
+                Optional<Long> newVersion = epicService.updateEpicIfMatch(id, expectedVersion, updatedEpic);
+                return newVersion.map(v -> ResponseEntity.noContent().eTag(ETags.of(v)).<Epic>build())
+                        .orElse(ResponseEntity.notFound().build());
+            }
+            Optional<Epic> updated = epicService.updateEpic(id, updatedEpic);
+            return updated.map(e -> ResponseEntity.ok().eTag(ETags.of(e.getVersion())).body(e))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+            System.err.println("Invalid epic update: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            System.err.println("Conflicting epic update: " + e.getMessage());
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Patch epic with a JSON Merge Patch; only the fields present are changed
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Epic> patchEpic(@PathVariable UUID id, @RequestBody JsonNode patch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        System.out.println("PATCH /epics/" + id + " - Patching fields " + patch);
+        try {
+            Long expectedVersion = ETags.parseIfMatch(ifMatch);
+            if (expectedVersion != null) {
+                Optional<Long> newVersion = epicService.patchEpicIfMatch(id, expectedVersion, patch);
+                return newVersion.map(v -> ResponseEntity.noContent().eTag(ETags.of(v)).<Epic>build())
+                        .orElse(ResponseEntity.notFound().build());
+            }
+            Optional<Epic> patched = epicService.patchEpic(id, patch);
+            return patched.map(e -> ResponseEntity.ok().eTag(ETags.of(e.getVersion())).body(e))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+            System.err.println("Invalid epic patch: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            System.err.println("Conflicting epic patch: " + e.getMessage());
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
     }
 
     /**
@@ -81,36 +161,109 @@ public class EpicController {
     }
 
     /**
-     * Get epics by project ID
+     * Get epics by project ID, limited to ?fields= when given
      */
     @GetMapping("/project/{projectId}")
-    public List<Epic> getEpicsByProjectId(@PathVariable UUID projectId) {
+    public ResponseEntity<List<Object>> getEpicsByProjectId(@PathVariable UUID projectId,
+                                                            @RequestParam(required = false) String fields) {
         System.out.println("GET /epics/project/" + projectId + " - Fetching epics by project ID");
-        List<Epic> epics = epicService.getEpicsByProjectId(projectId);
-        System.out.println("Found " + epics.size() + " epics for project " + projectId);
-        return epics;
+        try {
+            SparseFields selection = SparseFields.parse(fields, objectMapper, EpicWithUserDTO.class);
+            if (selection.coveredBy(EpicSummary.class)) {
+                List<EpicSummary> summaries = epicService.getEpicSummariesByProjectId(projectId);
+                System.out.println("Found " + summaries.size() + " epic summaries for project " + projectId);
+                return ResponseEntity.ok(selection.select(withNames(selection, summaries)));
+            }
+            List<Epic> epics = epicService.getEpicsByProjectId(projectId);
+            System.out.println("Found " + epics.size() + " epics for project " + projectId);
+            return ResponseEntity.ok(selection.select(userEnrichmentService.enrichEpics(epics)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid fields: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
-     * Get top-level epics (no parent)
+     * Get top-level epics (no parent), limited to ?fields= when given
      */
     @GetMapping("/top-level")
-    public List<Epic> getTopLevelEpics() {
+    public ResponseEntity<List<Object>> getTopLevelEpics(@RequestParam(required = false) String fields) {
         System.out.println("GET /epics/top-level - Fetching top-level epics");
-        List<Epic> epics = epicService.getTopLevelEpics();
-        System.out.println("Found " + epics.size() + " top-level epics");
-        return epics;
+        try {
+            SparseFields selection = SparseFields.parse(fields, objectMapper, EpicWithUserDTO.class);
+            if (selection.coveredBy(EpicSummary.class)) {
+                List<EpicSummary> summaries = epicService.getTopLevelEpicSummaries();
+                System.out.println("Found " + summaries.size() + " top-level epic summaries");
+                return ResponseEntity.ok(selection.select(withNames(selection, summaries)));
+            }
+            List<Epic> epics = epicService.getTopLevelEpics();
+            System.out.println("Found " + epics.size() + " top-level epics");
+            return ResponseEntity.ok(selection.select(userEnrichmentService.enrichEpics(epics)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid fields: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
-     * Get child epics of a parent epic
+     * Get child epics of a parent epic, limited to ?fields= when given
      */
     @GetMapping("/{id}/children")
-    public List<Epic> getChildEpics(@PathVariable UUID id) {
+    public ResponseEntity<List<Object>> getChildEpics(@PathVariable UUID id,
+                                                      @RequestParam(required = false) String fields) {
         System.out.println("GET /epics/" + id + "/children - Fetching child epics");
-        List<Epic> childEpics = epicService.getChildEpics(id);
-        System.out.println("Found " + childEpics.size() + " child epics");
-        return childEpics;
+        try {
+            SparseFields selection = SparseFields.parse(fields, objectMapper, EpicWithUserDTO.class);
+            if (selection.coveredBy(EpicSummary.class)) {
+                List<EpicSummary> summaries = epicService.getChildEpicSummaries(id);
+                System.out.println("Found " + summaries.size() + " child epic summaries");
+                return ResponseEntity.ok(selection.select(withNames(selection, summaries)));
+            }
+            List<Epic> childEpics = epicService.getChildEpics(id);
+            System.out.println("Found " + childEpics.size() + " child epics");
+            return ResponseEntity.ok(selection.select(userEnrichmentService.enrichEpics(childEpics)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid fields: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the descendant epics of an epic at every level, or down to maxDepth levels
+     */
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<List<EpicWithUserDTO>> getSubtree(@PathVariable UUID id,
+                                                            @RequestParam(required = false) Integer maxDepth) {
+        System.out.println("GET /epics/" + id + "/subtree - Fetching descendant epics"
+                + (maxDepth != null ? " down to depth " + maxDepth : ""));
+        if (maxDepth != null && maxDepth < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Epic> descendants = epicService.getSubtree(id, maxDepth);
+        System.out.println("Found " + descendants.size() + " descendant epics");
+        return ResponseEntity.ok(userEnrichmentService.enrichEpics(descendants));
+    }
+
+    /**
+     * Get the parent chain of an epic, root first
+     */
+    @GetMapping("/{id}/ancestors")
+    public List<EpicWithUserDTO> getAncestors(@PathVariable UUID id) {
+        System.out.println("GET /epics/" + id + "/ancestors - Fetching ancestor epics");
+        List<Epic> ancestors = epicService.getAncestors(id);
+        System.out.println("Found " + ancestors.size() + " ancestor epics");
+        return userEnrichmentService.enrichEpics(ancestors);
+    }
+
+    /**
+     * Delete an epic with all of its descendant epics
+     */
+    @DeleteMapping("/{id}/subtree")
+    public ResponseEntity<Void> deleteSubtree(@PathVariable UUID id) {
+        System.out.println("DELETE /epics/" + id + "/subtree - Deleting epic and descendants");
+        int deleted = epicService.deleteSubtree(id);
+        System.out.println("Deleted " + deleted + " epics");
+        return deleted > 0 ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 
     /**
@@ -1,14 +1,35 @@
 package com.ontik.gantt_project_v1.controller;
 
+import com.ontik.gantt_project_v1.calendar.CalendarKey;
+import com.ontik.gantt_project_v1.calendar.WorkingDayCalendar;
+import com.ontik.gantt_project_v1.dto.HolidayImpactRequest;
+import com.ontik.gantt_project_v1.dto.HolidayImpactResult;
+import com.ontik.gantt_project_v1.dto.HolidayImportResult;
+import com.ontik.gantt_project_v1.dto.WorkingDayCalendarResponse;
 import com.ontik.gantt_project_v1.model.Holiday;
+import com.ontik.gantt_project_v1.service.HolidayImpactService;
 import com.ontik.gantt_project_v1.service.HolidayService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * REST Controller for Holiday operations
@@ -18,9 +39,15 @@ import java.util.List;
 @RequestMapping("/holidays")
 public class HolidayController {
 
+    // Longest window served by /holidays/calendar, about ten years
+    private static final int MAX_CALENDAR_DAYS = 3660;
+
     @Autowired
     private HolidayService holidayService;
 
+    @Autowired
+    private HolidayImpactService holidayImpactService;
+
     /**
      * Get all holidays
      */
@@ -32,6 +59,101 @@ public class HolidayController {
         return holidays;
     }
 
+    /**
+     * Create new holiday
+     */
+    @PostMapping
+    public ResponseEntity<Holiday> createHoliday(@RequestBody Holiday holiday) {
+        System.out.println("POST /holidays - Creating holiday " + holiday.getHolidayName() + " on " + holiday.getHolidayDate());
+        try {
+            Holiday savedHoliday = holidayService.createHoliday(holiday);
+            System.out.println("Holiday saved with ID: " + savedHoliday.getHolidayId());
+            return new ResponseEntity<>(savedHoliday, HttpStatus.CREATED);
+        } catch (DataIntegrityViolationException e) {
+            System.err.println("Error creating holiday: " + e.getMostSpecificCause().getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error creating holiday: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Update existing holiday
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<Holiday> updateHoliday(@PathVariable UUID id, @RequestBody Holiday updatedHoliday) {
+        System.out.println("PUT /holidays/" + id + " - Updating holiday: " + updatedHoliday.getHolidayName());
+        try {
+            Optional<Holiday> updated = holidayService.updateHoliday(id, updatedHoliday);
+            return updated.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (DataIntegrityViolationException e) {
+            System.err.println("Error updating holiday: " + e.getMostSpecificCause().getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error updating holiday: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Delete holiday
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteHoliday(@PathVariable UUID id) {
+        System.out.println("DELETE /holidays/" + id + " - Deleting holiday");
+        boolean deleted = holidayService.deleteHoliday(id);
+        System.out.println("Holiday deletion result: " + deleted);
+        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Import holidays from an iCalendar (.ics) file in one request and one transaction
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<HolidayImportResult> importHolidays(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "USA") String country,
+            @RequestParam(defaultValue = "PUBLIC") String holidayType,
+            @RequestParam(defaultValue = "false") boolean isWorkingDay) {
+
+        System.out.println("POST /holidays/import - Importing " + file.getOriginalFilename() + " for " + country);
+        try (InputStream source = file.getInputStream()) {
+            HolidayImportResult result = holidayService.importICalendar(source, country, holidayType, isWorkingDay);
+            System.out.println("Imported holidays: " + result.getCreated() + " created, "
+                    + result.getUpdated() + " updated, " + result.getSkipped() + " skipped");
+            return ResponseEntity.ok(result);
+        } catch (IOException | DateTimeParseException | DataIntegrityViolationException
+                 | IllegalArgumentException e) {
+            System.err.println("Error importing holidays: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Find the tasks whose due date moves if a date becomes (or stops being) a non-working holiday,
+     * and with apply=true write the new due dates
+     */
+    @PostMapping("/impact")
+    public ResponseEntity<HolidayImpactResult> analyzeImpact(@RequestBody HolidayImpactRequest request) {
+        System.out.println("POST /holidays/impact - " + (request.isNonWorking() ? "Adding" : "Removing")
+                + " non-working holiday on " + request.getDate() + (request.isApply() ? " (apply)" : ""));
+        if (request.getDate() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        HolidayImpactResult result;
+        try {
+            result = holidayImpactService.analyzeImpact(request);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error analyzing holiday impact: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        System.out.println("Holiday impact: " + result.getShifts().size() + " of " + result.getTasksScanned()
+                + " tasks shift");
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Get holidays within a date range
      */
@@ -47,28 +169,103 @@ public class HolidayController {
     }
 
     /**
-     * Check if a specific date is a holiday
+     * Check if a specific date is a holiday, optionally in a country or project calendar
      */
     @GetMapping("/check")
     public ResponseEntity<Boolean> isHoliday(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) UUID projectId) {
         
         System.out.println("GET /holidays/check - Checking if " + date + " is a holiday");
-        boolean isHoliday = holidayService.isHoliday(date);
+        boolean isHoliday;
+        try {
+            isHoliday = holidayService.isHoliday(date, CalendarKey.of(country, projectId));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error checking holiday: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
         System.out.println("Date " + date + " is holiday: " + isHoliday);
         return ResponseEntity.ok(isHoliday);
     }
 
     /**
-     * Check if a specific date is a working day
+     * Check if a specific date is a working day, optionally in a country or project calendar
      */
     @GetMapping("/working-day")
     public ResponseEntity<Boolean> isWorkingDay(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) UUID projectId) {
         
         System.out.println("GET /holidays/working-day - Checking if " + date + " is a working day");
-        boolean isWorkingDay = holidayService.isWorkingDay(date);
+        boolean isWorkingDay;
+        try {
+            isWorkingDay = holidayService.isWorkingDay(date, CalendarKey.of(country, projectId));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error checking working day: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
         System.out.println("Date " + date + " is working day: " + isWorkingDay);
         return ResponseEntity.ok(isWorkingDay);
     }
+
+    /**
+     * Get the working days of a date window as a bitmap plus the holidays in it.
+     * The ETag is derived from the content, so unchanged windows revalidate with 304 Not Modified.
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<WorkingDayCalendarResponse> getWorkingDayCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) UUID projectId,
+            @RequestParam(required = false) UUID assigneeId,
+            WebRequest webRequest) {
+
+        System.out.println("GET /holidays/calendar - Working-day bitmap from " + start + " to " + end);
+        if (end.isBefore(start) || end.toEpochDay() - start.toEpochDay() >= MAX_CALENDAR_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        CalendarKey calendarKey;
+        WorkingDayCalendar calendar;
+        try {
+            calendarKey = CalendarKey.of(country, projectId, assigneeId);
+            calendar = holidayService.getCalendar(calendarKey);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error building working-day calendar: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        String bitmap = Base64.getEncoder().encodeToString(calendar.workingDayBitmap(start, end));
+        List<WorkingDayCalendar.HolidayEntry> holidays = calendar.holidaysBetween(start, end);
+
+        StringBuilder content = new StringBuilder()
+                .append(start).append('|').append(end).append('|')
+                .append(calendar.getWorkWeekMask()).append('|').append(bitmap);
+        for (WorkingDayCalendar.HolidayEntry holiday : holidays) {
+            content.append('|').append(holiday.date()).append(holiday.workingDay() ? '+' : '-').append(holiday.name());
+        }
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        WorkingDayCalendarResponse response = new WorkingDayCalendarResponse(start, end,
+                holidayService.resolveCountry(calendarKey), calendar.getWorkWeekMask(), bitmap, holidays);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .body(response);
+    }
+
+    /**
+     * Reload the in-memory working-day calendar after holidays were changed directly in the database
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Void> refreshCalendar() {
+        System.out.println("POST /holidays/refresh - Rebuilding working-day calendar");
+        holidayService.refreshCalendar();
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,9 +1,17 @@
 package com.ontik.gantt_project_v1.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import com.ontik.gantt_project_v1.dto.ProjectTree;
 import com.ontik.gantt_project_v1.model.Project;
 import com.ontik.gantt_project_v1.service.ProjectService;
+import com.ontik.gantt_project_v1.service.ProjectTreeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,12 +27,19 @@ public class ProjectController {
     @Autowired
     private ProjectService projectService;
     
-    // Get all projects
+    @Autowired
+    private ProjectTreeService projectTreeService;
+    
+    // Get one page of all projects, ordered by name; the next page's cursor is in the X-Next-Cursor header
     @GetMapping
-    public ResponseEntity<List<Project>> getAllProjects() {
+    public ResponseEntity<List<Project>> getAllProjects(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Project> projects = projectService.getAllProjects();
-            return ResponseEntity.ok(projects);
+            CursorPage<Project> page = projectService.getAllProjects(cursor, limit);
+            return CursorPageResponse.of(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -46,13 +61,25 @@ public class ProjectController {
     public ResponseEntity<Project> getProjectById(@PathVariable UUID id) {
         try {
             Optional<Project> project = projectService.getProjectById(id);
-            return project.map(ResponseEntity::ok)
+            return project.map(p -> ResponseEntity.ok().eTag(ETags.of(p.getVersion())).body(p))
                          .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    // Get the whole hierarchy of a project (epics, tasks, subtasks) with child counts and working-day spans
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<ProjectTree> getProjectTree(@PathVariable UUID id) {
+        try {
+            Optional<ProjectTree> tree = projectTreeService.getProjectTree(id);
+            return tree.map(ResponseEntity::ok)
+                       .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     // Create a new project
     @PostMapping
     public ResponseEntity<Project> createProject(@RequestBody Project project) {
@@ -66,10 +93,22 @@ public class ProjectController {
     
     // Update an existing project
     @PutMapping("/{id}")
-    public ResponseEntity<Project> updateProject(@PathVariable UUID id, @RequestBody Project project) {
+    // With If-Match: one conditional UPDATE, answered with 204 and the new ETag, or 412 if the project changed
+    public ResponseEntity<Project> updateProject(@PathVariable UUID id, @RequestBody Project project,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
+            Long expectedVersion = ETags.parseIfMatch(ifMatch);
+            if (expectedVersion != null) {
+                return projectService.updateProjectIfMatch(id, expectedVersion, project)
+                        .map(v -> ResponseEntity.noContent().eTag(ETags.of(v)).<Project>build())
+                        .orElse(ResponseEntity.notFound().build());
+            }
             Project updatedProject = projectService.updateProject(id, project);
-            return ResponseEntity.ok(updatedProject);
+            return ResponseEntity.ok().eTag(ETags.of(updatedProject.getVersion())).body(updatedProject);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -77,6 +116,27 @@ public class ProjectController {
         }
     }
     
+    // Patch a project with a JSON Merge Patch; only the fields present are changed
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Project> patchProject(@PathVariable UUID id, @RequestBody JsonNode patch,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Long expectedVersion = ETags.parseIfMatch(ifMatch);
+            if (expectedVersion != null) {
+                return projectService.patchProjectIfMatch(id, expectedVersion, patch)
+                        .map(v -> ResponseEntity.noContent().eTag(ETags.of(v)).<Project>build())
+                        .orElse(ResponseEntity.notFound().build());
+            }
+            return projectService.patchProject(id, patch)
+                    .map(p -> ResponseEntity.ok().eTag(ETags.of(p.getVersion())).body(p))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+    
     // Delete a project
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProject(@PathVariable UUID id) {
@@ -88,12 +148,17 @@ public class ProjectController {
         }
     }
     
-    // Get projects by status
+    // Get one page of the projects with a status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Project>> getProjectsByStatus(@PathVariable String status) {
+    public ResponseEntity<List<Project>> getProjectsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Project> projects = projectService.getProjectsByStatus(status);
-            return ResponseEntity.ok(projects);
+            CursorPage<Project> page = projectService.getProjectsByStatus(status, cursor, limit);
+            return CursorPageResponse.of(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
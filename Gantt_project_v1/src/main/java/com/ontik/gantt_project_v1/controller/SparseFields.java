@@ -0,0 +1,92 @@
+package com.ontik.gantt_project_v1.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ontik.gantt_project_v1.dto.CursorPage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets: ?fields=title,startDate,dueDate limits every item of a list response to those
+ * JSON properties, plus id. Without the parameter items are returned whole.
+ * When the requested fields are all in a lean summary view, the endpoint reads that projection
+ * instead of whole entities, so the database, the heap and the response all carry less.
+ */
+final class SparseFields {
+
+    private static final String ID = "id";
+
+    private final ObjectMapper objectMapper;
+
+    // Requested JSON properties, or null for all of them
+    private final Set<String> names;
+
+    private SparseFields(ObjectMapper objectMapper, Set<String> names) {
+        this.objectMapper = objectMapper;
+        this.names = names;
+    }
+
+    /**
+     * Read a fields parameter against the properties of the full item view
+     * @throws IllegalArgumentException if a field is not a property of the view
+     */
+    static SparseFields parse(String fields, ObjectMapper objectMapper, Class<?> view) {
+        if (fields == null || fields.isBlank()) {
+            return new SparseFields(objectMapper, null);
+        }
+        Set<String> known = propertyNames(objectMapper, view);
+        Set<String> names = new LinkedHashSet<>();
+        names.add(ID);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            names.add(name);
+        }
+        return new SparseFields(objectMapper, names);
+    }
+
+    boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    /**
+     * Whether the requested fields can all be served from the given (lean) view
+     */
+    boolean coveredBy(Class<?> view) {
+        return names != null && propertyNames(objectMapper, view).containsAll(names);
+    }
+
+    /**
+     * The items limited to the requested fields, or as they are when no fields were requested
+     */
+    List<Object> select(List<?> items) {
+        if (names == null) {
+            return new ArrayList<>(items);
+        }
+        return items.stream()
+                .map(item -> (Object) objectMapper.<ObjectNode>valueToTree(item).retain(names))
+                .toList();
+    }
+
+    CursorPage<Object> select(CursorPage<?> page) {
+        return new CursorPage<>(select(page.getItems()), page.getNext());
+    }
+
+    private static Set<String> propertyNames(ObjectMapper objectMapper, Class<?> view) {
+        return objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(view))
+                .findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toSet());
+    }
+}
@@ -6,21 +6,50 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 // Import ResponseEntity for HTTP responses
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 // Import list and UUID
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.HashMap;
 
 // Import your Task and TaskService
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ontik.gantt_project_v1.calendar.CalendarKey;
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import com.ontik.gantt_project_v1.dto.EndDateCalculationRequest;
+import com.ontik.gantt_project_v1.dto.EndDateCalculationResult;
+import com.ontik.gantt_project_v1.dto.LabelCount;
+import com.ontik.gantt_project_v1.dto.TaskBulkChangeResult;
+import com.ontik.gantt_project_v1.dto.TaskBulkMove;
+import com.ontik.gantt_project_v1.dto.TaskBulkResult;
+import com.ontik.gantt_project_v1.dto.TaskRescheduleRequest;
+import com.ontik.gantt_project_v1.dto.TaskRescheduleResult;
+import com.ontik.gantt_project_v1.dto.TaskFacets;
+import com.ontik.gantt_project_v1.dto.TaskSummary;
+import com.ontik.gantt_project_v1.dto.TaskWithUserDTO;
 import com.ontik.gantt_project_v1.model.Task;
 import com.ontik.gantt_project_v1.service.TaskService;
+import com.ontik.gantt_project_v1.service.TaskBulkService;
 import com.ontik.gantt_project_v1.service.HolidayService;
+import com.ontik.gantt_project_v1.service.TaskExportService;
+import com.ontik.gantt_project_v1.service.UserEnrichmentService;
+import jakarta.servlet.http.HttpServletResponse;
 
 // Mark this class as a REST controller so it can handle HTTP requests
 @RestController
@@ -34,6 +63,22 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
     
+    // Inject the TaskExportService for streaming exports
+    @Autowired
+    private TaskExportService taskExportService;
+    
+    // Inject the TaskBulkService for batched creates and updates
+    @Autowired
+    private TaskBulkService taskBulkService;
+    
+    // Inject the UserEnrichmentService to add assignee names to task lists
+    @Autowired
+    private UserEnrichmentService userEnrichmentService;
+    
+    // Inject the ObjectMapper to trim list items to the requested fields
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     // Inject the HolidayService for date calculations
     @Autowired
     private HolidayService holidayService;
@@ -48,14 +93,36 @@ public class TaskController {
         // and Hibernate will handle the conversion
     }
 
-    // Handle GET requests to /api/tasks - return all tasks
+    // Summaries get assignee names only when the response includes them
+    private List<TaskSummary> withNames(SparseFields selection, List<TaskSummary> tasks) {
+        return selection.includes("assigneeName") ? userEnrichmentService.enrichTaskSummaries(tasks) : tasks;
+    }
+
+    // Handle GET requests to /api/tasks - return one page of all tasks, ordered by start date
+    // The next page is requested with the cursor from the X-Next-Cursor (or Link) response header
+    // ?fields=title,startDate,... returns only those properties, read from the lean TaskSummary when possible
     @GetMapping
-    public List<Task> getAllTasks() {
-        System.out.println("GET /tasks - Fetching all tasks");
-        // Call service to get all tasks and return as JSON
-        List<Task> tasks = taskService.getAllTasks();
-        System.out.println("Found " + tasks.size() + " tasks");
-        return tasks;
+    public ResponseEntity<List<Object>> getAllTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        System.out.println("GET /tasks - Fetching tasks" + (cursor != null ? " after cursor " + cursor : ""));
+        try {
+            SparseFields selection = SparseFields.parse(fields, objectMapper, TaskWithUserDTO.class);
+            if (selection.coveredBy(TaskSummary.class)) {
+                CursorPage<TaskSummary> summaries = taskService.getAllTaskSummaries(cursor, limit);
+                System.out.println("Found " + summaries.getItems().size() + " task summaries");
+                withNames(selection, summaries.getItems());
+                return CursorPageResponse.of(selection.select(summaries));
+            }
+            // Call service to get one page of tasks and return it as JSON
+            CursorPage<Task> page = taskService.getAllTasks(cursor, limit);
+            System.out.println("Found " + page.getItems().size() + " tasks");
+            return CursorPageResponse.of(selection.select(userEnrichmentService.enrichTasks(page)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid page request: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Handle GET requests to /api/tasks/{id} - get task by ID
@@ -63,8 +130,8 @@ public class TaskController {
     public ResponseEntity<Task> getTaskById(@PathVariable UUID id) {
         // Find task by ID
         Optional<Task> task = taskService.getTaskById(id);
-        // If found, return 200 OK with task, else 404 Not Found
-        return task.map(ResponseEntity::ok)
+        // If found, return 200 OK with task and its version as ETag, else 404 Not Found
+        return task.map(t -> ResponseEntity.ok().eTag(ETags.of(t.getVersion())).body(t))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -85,19 +152,167 @@ public class TaskController {
     }
 
     // Handle PUT requests to /api/tasks/{id} - update an existing task
+    // With If-Match: the ETag of the version being edited; the update is one conditional UPDATE statement,
+    // answered with 204 and the new ETag, or 412 if someone else changed the task in the meantime
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable UUID id, @RequestBody Task updatedTask) {
+    public ResponseEntity<Task> updateTask(@PathVariable UUID id, @RequestBody Task updatedTask,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         System.out.println("PUT /tasks/" + id + " - Updating task: " + updatedTask.getTitle());
         System.out.println("Original estimate received: " + updatedTask.getOriginalEstimate());
         
         // Process task estimate (already handled by Hibernate from P{days}D format)
         processTaskEstimate(updatedTask);
         
-        // Call service to update the task
-        Optional<Task> updated = taskService.updateTask(id, updatedTask);
-        // If found and updated, return 200 OK, else 404 Not Found
-        return updated.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            Long expectedVersion = ETags.parseIfMatch(ifMatch);
+            if (expectedVersion != null) {
+                Optional<Long> newVersion = taskService.updateTaskIfMatch(id, expectedVersion, updatedTask);
+                return newVersion.map(v -> ResponseEntity.noContent().eTag(ETags.of(v)).<Task>build())
+                        .orElse(ResponseEntity.notFound().build());
+            }
+            // Call service to update the task
+            Optional<Task> updated = taskService.updateTask(id, updatedTask);
+            // If found and updated, return 200 OK, else 404 Not Found
+            return updated.map(t -> ResponseEntity.ok().eTag(ETags.of(t.getVersion())).body(t))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+            // Bad If-Match, the new parent task is inside the task's own subtree, or a value the table rejects
+            System.err.println("Invalid task update: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            System.err.println("Conflicting task update: " + e.getMessage());
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // Handle PATCH requests to /tasks/{id} - apply a JSON Merge Patch, changing only the fields it contains
+    // e.g. {"startDate": "2025-03-03", "dueDate": "2025-03-07"} after a Gantt drag
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    // With If-Match the patch is a single conditional UPDATE of the patched columns (204 + ETag, or 412)
+    public ResponseEntity<Task> patchTask(@PathVariable UUID id, @RequestBody JsonNode patch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        System.out.println("PATCH /tasks/" + id + " - Patching fields " + patch);
+        try {
+            Long expectedVersion = ETags.parseIfMatch(ifMatch);
+            if (expectedVersion != null) {
+                Optional<Long> newVersion = taskService.patchTaskIfMatch(id, expectedVersion, patch);
+                return newVersion.map(v -> ResponseEntity.noContent().eTag(ETags.of(v)).<Task>build())
+                        .orElse(ResponseEntity.notFound().build());
+            }
+            Optional<Task> patched = taskService.patchTask(id, patch);
+            return patched.map(t -> ResponseEntity.ok().eTag(ETags.of(t.getVersion())).body(t))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+            // Malformed patch or If-Match, a cycle in the hierarchy, or a value the tasks table rejects
+            System.err.println("Invalid task patch: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            System.err.println("Conflicting task patch: " + e.getMessage());
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // Handle POST requests to /tasks/bulk - create many tasks in one transaction
+    // Returns 201 with the created tasks, or 400 with the errors of each invalid item (nothing is created)
+    @PostMapping("/bulk")
+    public ResponseEntity<TaskBulkResult> createTasks(@RequestBody List<Task> tasks) {
+        System.out.println("POST /tasks/bulk - Creating " + tasks.size() + " tasks");
+        return bulkResponse(taskBulkService::createTasks, tasks, HttpStatus.CREATED);
+    }
+
+    // Handle PUT requests to /tasks/bulk - update many tasks, identified by their ids, in one transaction
+    // Returns 200 with the updated tasks, or 400 with the errors of each invalid item (nothing is updated)
+    @PutMapping("/bulk")
+    public ResponseEntity<TaskBulkResult> updateTasks(@RequestBody List<Task> tasks) {
+        System.out.println("PUT /tasks/bulk - Updating " + tasks.size() + " tasks");
+        return bulkResponse(taskBulkService::updateTasks, tasks, HttpStatus.OK);
+    }
+
+    // Handle DELETE requests to /tasks/bulk - delete many tasks, given as a JSON array of ids, in one statement
+    // subtasks=detach (default) makes their subtasks top-level, subtasks=delete deletes them as well
+    // Returns 200 with the number of tasks deleted, or 400 with the errors (nothing is deleted)
+    @DeleteMapping("/bulk")
+    public ResponseEntity<TaskBulkChangeResult> deleteTasks(@RequestBody List<UUID> ids,
+                                                            @RequestParam(defaultValue = "detach") String subtasks) {
+        System.out.println("DELETE /tasks/bulk - Deleting " + ids.size() + " tasks, subtasks: " + subtasks);
+        if (!subtasks.equals("detach") && !subtasks.equals("delete")) {
+            System.err.println("Invalid subtasks mode: " + subtasks);
+            return ResponseEntity.badRequest().build();
+        }
+        return bulkChangeResponse(() -> taskBulkService.deleteTasks(ids, subtasks.equals("delete")));
+    }
+
+    // Handle POST requests to /tasks/bulk/move - set the epicId, parentTaskId and/or sprintId of many tasks
+    // in one statement; only the properties present in the body change. subtasks=follow (default) gives
+    // their subtasks the new epic and sprint too, subtasks=stay leaves them as they are
+    // Returns 200 with the number of tasks moved, or 400 with the errors (nothing is moved)
+    @PostMapping("/bulk/move")
+    public ResponseEntity<TaskBulkChangeResult> moveTasks(@RequestBody TaskBulkMove move,
+                                                          @RequestParam(defaultValue = "follow") String subtasks) {
+        System.out.println("POST /tasks/bulk/move - Moving "
+                + (move.getIds() != null ? move.getIds().size() : 0) + " tasks, changing "
+                + move.getFields() + ", subtasks: " + subtasks);
+        if (!subtasks.equals("follow") && !subtasks.equals("stay")) {
+            System.err.println("Invalid subtasks mode: " + subtasks);
+            return ResponseEntity.badRequest().build();
+        }
+        return bulkChangeResponse(() -> taskBulkService.moveTasks(move, subtasks.equals("follow")));
+    }
+
+    // Handle POST requests to /tasks/bulk/reschedule - shift the tasks of an epic, of a sprint or given by id
+    // by N working days of each assignee's calendar, keeping each task's number of working days
+    // Returns 200 with the changed dates (written unless preview is set), or 400 with the errors (nothing changes)
+    @PostMapping("/bulk/reschedule")
+    public ResponseEntity<TaskRescheduleResult> rescheduleTasks(@RequestBody TaskRescheduleRequest request) {
+        System.out.println("POST /tasks/bulk/reschedule - Shifting tasks by " + request.getWorkingDays()
+                + " working days" + (request.isPreview() ? " (preview)" : ""));
+        try {
+            TaskRescheduleResult result = taskBulkService.rescheduleTasks(request);
+            if (result.hasErrors()) {
+                System.err.println("Rejected reschedule: " + result.getErrors());
+                return ResponseEntity.badRequest().body(result);
+            }
+            System.out.println("Rescheduled " + result.getTasks().size() + " of " + result.getTasksScanned()
+                    + " tasks");
+            return ResponseEntity.ok(result);
+        } catch (DataAccessException e) {
+            // A task changed by another request while the reschedule was running
+            System.err.println("Reschedule failed: " + e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    private ResponseEntity<TaskBulkChangeResult> bulkChangeResponse(Supplier<TaskBulkChangeResult> change) {
+        try {
+            TaskBulkChangeResult result = change.get();
+            if (result.hasErrors()) {
+                System.err.println("Rejected bulk change: " + result.getErrors());
+                return ResponseEntity.badRequest().body(result);
+            }
+            System.out.println("Changed " + result.getTasks() + " tasks");
+            return ResponseEntity.ok(result);
+        } catch (DataAccessException e) {
+            // Tasks changed by another request since they were validated
+            System.err.println("Bulk change failed: " + e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    private ResponseEntity<TaskBulkResult> bulkResponse(Function<List<Task>, TaskBulkResult> write,
+                                                        List<Task> tasks, HttpStatus successStatus) {
+        try {
+            TaskBulkResult result = write.apply(tasks);
+            if (result.hasErrors()) {
+                System.err.println("Rejected bulk write: " + result.getErrors().size() + " invalid items");
+                return ResponseEntity.badRequest().body(result);
+            }
+            System.out.println("Saved " + result.getSaved() + " tasks");
+            return new ResponseEntity<>(result, successStatus);
+        } catch (DataAccessException e) {
+            // A constraint the up-front validation cannot see, e.g. two moves in the same request forming a cycle
+            System.err.println("Bulk write failed: " + e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     // Handle DELETE requests to /api/tasks/{id} - delete a task
@@ -111,30 +326,144 @@ public class TaskController {
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 
-    // Handle GET requests to /tasks/filter - return filtered tasks
+    // Handle GET requests to /tasks/filter - return one page of filtered tasks
+    // labels=a,b matches tasks with any of the labels, allLabels=a,b tasks with all of them
     @GetMapping("/filter")
-    public List<Task> getFilteredTasks(
+    public ResponseEntity<List<Object>> getFilteredTasks(
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String types,
             @RequestParam(required = false) String assignee,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String priority) {
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String labels,
+            @RequestParam(required = false) String allLabels,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
         
         // Log the start of the filter request and the parameters received
         System.out.println("GET /tasks/filter - Filtering tasks with parameters:");
         System.out.println("startDate: " + startDate + ", endDate: " + endDate);
         System.out.println("types: " + types + ", assignee: " + assignee);
         System.out.println("status: " + status + ", priority: " + priority);
+        System.out.println("labels: " + labels + ", allLabels: " + allLabels);
+
+        try {
+            SparseFields selection = SparseFields.parse(fields, objectMapper, TaskWithUserDTO.class);
+            if (selection.coveredBy(TaskSummary.class)) {
+                CursorPage<TaskSummary> summaries = taskService.getFilteredTaskSummaries(startDate, endDate, types,
+                        assignee, status, priority, labels, allLabels, cursor, limit);
+                System.out.println("Found " + summaries.getItems().size() + " filtered task summaries");
+                withNames(selection, summaries.getItems());
+                return CursorPageResponse.of(selection.select(summaries));
+            }
+
+            // Call the service layer to get a page of tasks that match the filter criteria
+            CursorPage<Task> page = taskService.getFilteredTasks(startDate, endDate, types, assignee, status, priority,
+                    labels, allLabels, cursor, limit);
+
+            // Log the number of tasks found after filtering
+            System.out.println("Found " + page.getItems().size() + " filtered tasks");
+
+            // Return the filtered page of tasks, with assignee names, as the HTTP response body
+            return CursorPageResponse.of(selection.select(userEnrichmentService.enrichTasks(page)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid page request: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Handle GET requests to /tasks/search - one page of the tasks whose title or description match q,
+    // best match first; words match as prefixes for type-ahead, and the /tasks/filter criteria and ?fields= apply
+    @GetMapping("/search")
+    public ResponseEntity<List<Object>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String types,
+            @RequestParam(required = false) String assignee,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String labels,
+            @RequestParam(required = false) String allLabels,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        System.out.println("GET /tasks/search - Searching tasks for: " + q);
+        try {
+            SparseFields selection = SparseFields.parse(fields, objectMapper, TaskWithUserDTO.class);
+            CursorPage<Task> page = taskService.searchTasks(q, startDate, endDate, types, assignee, status, priority,
+                    labels, allLabels, cursor, limit);
+            System.out.println("Found " + page.getItems().size() + " matching tasks");
+            return CursorPageResponse.of(selection.select(userEnrichmentService.enrichTasks(page)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid search request: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
-        // Call the service layer to get tasks that match the filter criteria
-        List<Task> filteredTasks = taskService.getFilteredTasks(startDate, endDate, types, assignee, status, priority);
+    // Handle GET requests to /tasks/labels - every label in use with the number of tasks carrying it,
+    // most used first
+    @GetMapping("/labels")
+    public List<LabelCount> getLabelCounts() {
+        System.out.println("GET /tasks/labels - Fetching label dictionary");
+        List<LabelCount> labels = taskService.getLabelCounts();
+        System.out.println("Found " + labels.size() + " labels");
+        return labels;
+    }
 
-        // Log the number of tasks found after filtering
-        System.out.println("Found " + filteredTasks.size() + " filtered tasks");
+    // Handle GET requests to /tasks/facets - for the /tasks/filter criteria, how many tasks each status,
+    // priority, type and assignee choice would match; each facet is counted without its own criterion
+    @GetMapping("/facets")
+    public TaskFacets getTaskFacets(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String types,
+            @RequestParam(required = false) String assignee,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String labels,
+            @RequestParam(required = false) String allLabels) {
+        System.out.println("GET /tasks/facets - Counting filter facets");
+        TaskFacets facets = taskService.getTaskFacets(startDate, endDate, types, assignee, status, priority,
+                labels, allLabels);
+        System.out.println("Found " + facets.getTotal() + " matching tasks");
+        return userEnrichmentService.enrichFacets(facets);
+    }
 
-        // Return the filtered list of tasks as the HTTP response body
-        return filteredTasks;
+    // Handle GET requests to /tasks/export - stream every task matching the /tasks/filter criteria
+    // as CSV (format=csv, the default) or newline-delimited JSON (format=ndjson)
+    @GetMapping("/export")
+    public void exportTasks(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String types,
+            @RequestParam(required = false) String assignee,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String labels,
+            @RequestParam(required = false) String allLabels,
+            HttpServletResponse response) throws IOException {
+
+        System.out.println("GET /tasks/export - Exporting tasks as " + format);
+        TaskExportService.Format exportFormat;
+        try {
+            exportFormat = TaskExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unsupported export format: " + format);
+            return;
+        }
+
+        // Rows are written as they are read, so the response is sent in chunks without a Content-Length
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("tasks." + exportFormat.getExtension()).build().toString());
+        long rows = taskExportService.exportTasks(exportFormat, startDate, endDate, types, assignee, status, priority,
+                labels, allLabels, response.getOutputStream());
+        System.out.println("Exported " + rows + " tasks");
     }
 
     // Handle POST requests to /tasks/calculate-end-date - calculate end date based on start date and estimate
@@ -149,7 +478,12 @@ public class TaskController {
             }
 
             LocalDate startDate = LocalDate.parse(startDateStr);
-            LocalDate calculatedEndDate = holidayService.calculateEndDate(startDate, estimateDays);
+            String projectId = (String) request.get("projectId");
+            String assigneeId = (String) request.get("assigneeId");
+            CalendarKey calendarKey = CalendarKey.of((String) request.get("country"),
+                    projectId != null ? UUID.fromString(projectId) : null,
+                    assigneeId != null ? UUID.fromString(assigneeId) : null);
+            LocalDate calculatedEndDate = holidayService.calculateEndDate(startDate, estimateDays, calendarKey);
 
             System.out.println("POST /tasks/calculate-end-date - Start: " + startDate + 
                              ", Estimate: " + estimateDays + " days, Calculated End: " + calculatedEndDate);
@@ -158,7 +492,7 @@ public class TaskController {
             response.put("startDate", startDate.toString());
             response.put("estimateDays", estimateDays);
             response.put("calculatedEndDate", calculatedEndDate.toString());
-            response.put("isWorkingDay", holidayService.isWorkingDay(calculatedEndDate));
+            response.put("isWorkingDay", holidayService.isWorkingDay(calculatedEndDate, calendarKey));
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -172,13 +506,25 @@ public class TaskController {
     public ResponseEntity<Map<String, Object>> validateEndDate(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam int estimateDays,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate selectedEndDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate selectedEndDate,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) UUID projectId,
+            @RequestParam(required = false) UUID assigneeId) {
 
         System.out.println("GET /tasks/validate-end-date - Start: " + startDate + 
                          ", Estimate: " + estimateDays + " days, Selected End: " + selectedEndDate);
 
-        LocalDate calculatedEndDate = holidayService.calculateEndDate(startDate, estimateDays);
-        boolean isValid = holidayService.validateEndDate(startDate, estimateDays, selectedEndDate);
+        CalendarKey calendarKey;
+        LocalDate calculatedEndDate;
+        boolean isValid;
+        try {
+            calendarKey = CalendarKey.of(country, projectId, assigneeId);
+            calculatedEndDate = holidayService.calculateEndDate(startDate, estimateDays, calendarKey);
+            isValid = holidayService.validateEndDate(startDate, estimateDays, selectedEndDate, calendarKey);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error validating end date: " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
 
         Map<String, Object> response = new HashMap<>();
         response.put("isValid", isValid);
@@ -191,49 +537,159 @@ public class TaskController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Calculate and optionally validate end dates for many task rows in one request.
+     * Rows with a selectedEndDate are validated as well; all rows use the same calendar snapshot.
+     */
+    @PostMapping("/calculate-end-date/batch")
+    public List<EndDateCalculationResult> calculateEndDates(@RequestBody List<EndDateCalculationRequest> requests) {
+        System.out.println("POST /tasks/calculate-end-date/batch - Calculating " + requests.size() + " end dates");
+        return holidayService.calculateEndDates(requests);
+    }
+
+    /**
+     * Get open tasks due within the next N working days (default calendar), nearest first
+     */
+    @GetMapping("/due-within")
+    public List<TaskWithUserDTO> getTasksDueWithinWorkingDays(@RequestParam(defaultValue = "5") int workingDays) {
+        System.out.println("GET /tasks/due-within - Fetching tasks due within " + workingDays + " working days");
+        List<Task> tasks = taskService.getTasksDueWithinWorkingDays(workingDays);
+        System.out.println("Found " + tasks.size() + " tasks due within " + workingDays + " working days");
+        return userEnrichmentService.enrichTasks(tasks);
+    }
+
+    /**
+     * Get tasks whose start-to-due span exceeds their estimate in working days
+     */
+    @GetMapping("/over-estimate")
+    public List<TaskWithUserDTO> getTasksOverEstimate() {
+        System.out.println("GET /tasks/over-estimate - Fetching tasks scheduled beyond their estimate");
+        List<Task> tasks = taskService.getTasksOverEstimate();
+        System.out.println("Found " + tasks.size() + " tasks over estimate");
+        return userEnrichmentService.enrichTasks(tasks);
+    }
+
     // ========== HIERARCHICAL TASK ENDPOINTS ==========
 
     /**
      * Get all epics (tasks with type 'epic')
      */
     @GetMapping("/epics")
-    public List<Task> getAllEpics() {
+    public List<TaskWithUserDTO> getAllEpics() {
         System.out.println("GET /tasks/epics - Fetching all epic tasks");
         List<Task> epics = taskService.getAllEpics();
         System.out.println("Found " + epics.size() + " epic tasks");
-        return epics;
+        return userEnrichmentService.enrichTasks(epics);
     }
 
     /**
-     * Get tasks under a specific epic
+     * Get tasks under a specific epic, limited to ?fields= when given
      */
     @GetMapping("/epic/{epicId}")
-    public List<Task> getTasksByEpicId(@PathVariable UUID epicId) {
+    public ResponseEntity<List<Object>> getTasksByEpicId(@PathVariable UUID epicId,
+                                                         @RequestParam(required = false) String fields) {
         System.out.println("GET /tasks/epic/" + epicId + " - Fetching tasks under epic");
-        List<Task> tasks = taskService.getTopLevelTasksByEpicId(epicId);
-        System.out.println("Found " + tasks.size() + " tasks under epic " + epicId);
-        return tasks;
+        try {
+            SparseFields selection = SparseFields.parse(fields, objectMapper, TaskWithUserDTO.class);
+            if (selection.coveredBy(TaskSummary.class)) {
+                List<TaskSummary> summaries = taskService.getTopLevelTaskSummariesByEpicId(epicId);
+                System.out.println("Found " + summaries.size() + " task summaries under epic " + epicId);
+                return ResponseEntity.ok(selection.select(withNames(selection, summaries)));
+            }
+            List<Task> tasks = taskService.getTopLevelTasksByEpicId(epicId);
+            System.out.println("Found " + tasks.size() + " tasks under epic " + epicId);
+            return ResponseEntity.ok(selection.select(userEnrichmentService.enrichTasks(tasks)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid fields: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
-     * Get subtasks under a specific parent task
+     * Get subtasks under a specific parent task, limited to ?fields= when given
      */
     @GetMapping("/{taskId}/subtasks")
-    public List<Task> getSubTasksByParentId(@PathVariable UUID taskId) {
+    public ResponseEntity<List<Object>> getSubTasksByParentId(@PathVariable UUID taskId,
+                                                              @RequestParam(required = false) String fields) {
         System.out.println("GET /tasks/" + taskId + "/subtasks - Fetching subtasks");
-        List<Task> subtasks = taskService.getSubTasksByParentId(taskId);
-        System.out.println("Found " + subtasks.size() + " subtasks under task " + taskId);
-        return subtasks;
+        try {
+            SparseFields selection = SparseFields.parse(fields, objectMapper, TaskWithUserDTO.class);
+            if (selection.coveredBy(TaskSummary.class)) {
+                List<TaskSummary> summaries = taskService.getSubTaskSummariesByParentId(taskId);
+                System.out.println("Found " + summaries.size() + " subtask summaries under task " + taskId);
+                return ResponseEntity.ok(selection.select(withNames(selection, summaries)));
+            }
+            List<Task> subtasks = taskService.getSubTasksByParentId(taskId);
+            System.out.println("Found " + subtasks.size() + " subtasks under task " + taskId);
+            return ResponseEntity.ok(selection.select(userEnrichmentService.enrichTasks(subtasks)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid fields: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
-     * Get tasks by type
+     * Get the subtasks of a task at every level, or down to maxDepth levels
+     */
+    @GetMapping("/{taskId}/subtree")
+    public ResponseEntity<List<TaskWithUserDTO>> getSubtree(@PathVariable UUID taskId,
+                                                            @RequestParam(required = false) Integer maxDepth) {
+        System.out.println("GET /tasks/" + taskId + "/subtree - Fetching subtree"
+                + (maxDepth != null ? " down to depth " + maxDepth : ""));
+        if (maxDepth != null && maxDepth < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Task> descendants = taskService.getSubtree(taskId, maxDepth);
+        System.out.println("Found " + descendants.size() + " tasks under task " + taskId);
+        return ResponseEntity.ok(userEnrichmentService.enrichTasks(descendants));
+    }
+
+    /**
+     * Get the parent chain of a task, root first
+     */
+    @GetMapping("/{taskId}/ancestors")
+    public List<TaskWithUserDTO> getAncestors(@PathVariable UUID taskId) {
+        System.out.println("GET /tasks/" + taskId + "/ancestors - Fetching ancestors");
+        List<Task> ancestors = taskService.getAncestors(taskId);
+        System.out.println("Found " + ancestors.size() + " ancestors of task " + taskId);
+        return userEnrichmentService.enrichTasks(ancestors);
+    }
+
+    /**
+     * Delete a task with all of its subtasks at every level
+     */
+    @DeleteMapping("/{taskId}/subtree")
+    public ResponseEntity<Void> deleteSubtree(@PathVariable UUID taskId) {
+        System.out.println("DELETE /tasks/" + taskId + "/subtree - Deleting task and subtree");
+        int deleted = taskService.deleteSubtree(taskId);
+        System.out.println("Deleted " + deleted + " tasks");
+        return deleted > 0 ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Get one page of the tasks of a type
      */
     @GetMapping("/type/{type}")
-    public List<Task> getTasksByType(@PathVariable String type) {
+    public ResponseEntity<List<Object>> getTasksByType(
+            @PathVariable String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
         System.out.println("GET /tasks/type/" + type + " - Fetching tasks by type");
-        List<Task> tasks = taskService.getTasksByType(type);
-        System.out.println("Found " + tasks.size() + " tasks of type " + type);
-        return tasks;
+        try {
+            SparseFields selection = SparseFields.parse(fields, objectMapper, TaskWithUserDTO.class);
+            if (selection.coveredBy(TaskSummary.class)) {
+                CursorPage<TaskSummary> summaries = taskService.getTaskSummariesByType(type, cursor, limit);
+                System.out.println("Found " + summaries.getItems().size() + " task summaries of type " + type);
+                withNames(selection, summaries.getItems());
+                return CursorPageResponse.of(selection.select(summaries));
+            }
+            CursorPage<Task> page = taskService.getTasksByType(type, cursor, limit);
+            System.out.println("Found " + page.getItems().size() + " tasks of type " + type);
+            return CursorPageResponse.of(selection.select(userEnrichmentService.enrichTasks(page)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid page request: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.ontik.gantt_project_v1.controller;
 
+import com.ontik.gantt_project_v1.dto.CursorPage;
 import com.ontik.gantt_project_v1.model.User;
+import com.ontik.gantt_project_v1.model.UserAvailability;
+import com.ontik.gantt_project_v1.service.UserAvailabilityService;
 import com.ontik.gantt_project_v1.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,15 +25,26 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
     /**
-     * Get all active users for dropdown selection
+     * Get one page of the active users for dropdown selection, ordered by username.
+     * The next page is requested with the cursor from the X-Next-Cursor (or Link) response header.
      */
     @GetMapping
-    public List<User> getAllActiveUsers() {
-        System.out.println("GET /users - Fetching all active users");
-        List<User> activeUsers = userService.getAllActiveUsers();
-        System.out.println("Found " + activeUsers.size() + " active users");
-        return activeUsers;
+    public ResponseEntity<List<User>> getAllActiveUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        System.out.println("GET /users - Fetching active users" + (cursor != null ? " after cursor " + cursor : ""));
+        try {
+            CursorPage<User> page = userService.getAllActiveUsers(cursor, limit);
+            System.out.println("Found " + page.getItems().size() + " active users");
+            return CursorPageResponse.of(page);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid page request: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -53,4 +68,58 @@ public class UserController {
         return user.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Get the leave and weekly schedules of a user
+     */
+    @GetMapping("/{id}/availability")
+    public List<UserAvailability> getAvailability(@PathVariable UUID id) {
+        System.out.println("GET /users/" + id + "/availability - Fetching availability");
+        return userAvailabilityService.getAvailability(id);
+    }
+
+    /**
+     * Add a leave range or weekly schedule to a user
+     */
+    @PostMapping("/{id}/availability")
+    public ResponseEntity<UserAvailability> createAvailability(@PathVariable UUID id,
+                                                               @RequestBody UserAvailability availability) {
+        System.out.println("POST /users/" + id + "/availability - Adding " + availability.getAvailabilityType());
+        try {
+            return userAvailabilityService.createAvailability(id, availability)
+                    .map(saved -> new ResponseEntity<>(saved, HttpStatus.CREATED))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error adding availability: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Update a leave range or weekly schedule of a user
+     */
+    @PutMapping("/{id}/availability/{availabilityId}")
+    public ResponseEntity<UserAvailability> updateAvailability(@PathVariable UUID id,
+                                                               @PathVariable UUID availabilityId,
+                                                               @RequestBody UserAvailability availability) {
+        System.out.println("PUT /users/" + id + "/availability/" + availabilityId + " - Updating availability");
+        try {
+            return userAvailabilityService.updateAvailability(id, availabilityId, availability)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error updating availability: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Delete a leave range or weekly schedule of a user
+     */
+    @DeleteMapping("/{id}/availability/{availabilityId}")
+    public ResponseEntity<Void> deleteAvailability(@PathVariable UUID id, @PathVariable UUID availabilityId) {
+        System.out.println("DELETE /users/" + id + "/availability/" + availabilityId + " - Deleting availability");
+        boolean deleted = userAvailabilityService.deleteAvailability(id, availabilityId);
+        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
 }
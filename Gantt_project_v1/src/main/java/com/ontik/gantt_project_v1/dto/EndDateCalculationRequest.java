@@ -0,0 +1,35 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * DTO for one row of a batch end-date calculation
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndDateCalculationRequest {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    private Integer estimateDays;
+
+    // Optional: when present the row is also validated against the calculated end date
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate selectedEndDate;
+
+    // Optional calendar selection; both empty means the default calendar
+    private String country;
+
+    private UUID projectId;
+
+    // Optional: the assignee whose leave and weekly schedule also apply
+    private UUID assigneeId;
+}
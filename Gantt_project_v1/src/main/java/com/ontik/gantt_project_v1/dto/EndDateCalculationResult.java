@@ -0,0 +1,36 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for the result of one row of a batch end-date calculation
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EndDateCalculationResult {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    private Integer estimateDays;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate calculatedEndDate;
+
+    private Boolean isWorkingDay;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate selectedEndDate;
+
+    private Boolean isValid;
+
+    private String message;
+
+    private String error;
+}
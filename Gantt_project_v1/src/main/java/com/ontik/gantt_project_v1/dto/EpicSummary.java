@@ -0,0 +1,42 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Lean projection of an epic for Gantt and table views.
+ * Only the columns those views draw are selected; description and tags are never read.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpicSummary {
+
+    // Property names and constructor order follow the Epic entity, so queries can project into this class
+    @JsonProperty("id")
+    private UUID epicId;
+    private String name;
+    private String status;
+    private String priority;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private UUID projectId;
+    private UUID assignedTo;
+    private Double progressPercentage;
+    private UUID parentEpicId;
+
+    // Enriched field
+    private String assignedToName;
+
+    public EpicSummary(UUID epicId, String name, String status, String priority,
+                       LocalDate startDate, LocalDate endDate, UUID projectId, UUID assignedTo,
+                       Double progressPercentage, UUID parentEpicId) {
+        this(epicId, name, status, priority, startDate, endDate, projectId, assignedTo,
+                progressPercentage, parentEpicId, null);
+    }
+}
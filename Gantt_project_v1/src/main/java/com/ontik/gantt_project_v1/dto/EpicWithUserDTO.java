@@ -0,0 +1,60 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.ontik.gantt_project_v1.model.Epic;
+import lombok.Data;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for Epic with enriched user information
+ */
+@Data
+@Builder
+public class EpicWithUserDTO {
+    private UUID id;
+    private String name;
+    private String description;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String status;
+    private String priority;
+    private UUID projectId;
+    private UUID assignedTo;
+    private String assignedToName; // Enriched field
+    private Double progressPercentage;
+    private UUID parentEpicId;
+    private UUID milestoneId;
+    private List<String> tags;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+    private Long version;
+
+    /**
+     * Convert Epic entity to EpicWithUserDTO
+     */
+    public static EpicWithUserDTO fromEpic(Epic epic, String assignedToName) {
+        return EpicWithUserDTO.builder()
+                .id(epic.getEpicId())
+                .name(epic.getName())
+                .description(epic.getDescription())
+                .startDate(epic.getStartDate())
+                .endDate(epic.getEndDate())
+                .status(epic.getStatus())
+                .priority(epic.getPriority())
+                .projectId(epic.getProjectId())
+                .assignedTo(epic.getAssignedTo())
+                .assignedToName(assignedToName)
+                .progressPercentage(epic.getProgressPercentage())
+                .parentEpicId(epic.getParentEpicId())
+                .milestoneId(epic.getMilestoneId())
+                .tags(epic.getTags())
+                .createdAt(epic.getCreatedAt())
+                .updatedAt(epic.getUpdatedAt())
+                .version(epic.getVersion())
+                .build();
+    }
+}
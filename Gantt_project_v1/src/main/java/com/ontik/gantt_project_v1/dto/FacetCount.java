@@ -0,0 +1,24 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one value of a task filter facet and the number of tasks it would match
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FacetCount {
+
+    // Column value; null for unassigned tasks in the assignee facet
+    private String value;
+
+    // Display name, set for assignees only
+    private String name;
+
+    private long count;
+}
@@ -0,0 +1,34 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * DTO describing a holiday change whose effect on task schedules should be analysed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HolidayImpactRequest {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+
+    // Optional name for a holiday being added
+    private String holidayName;
+
+    // Optional calendar selection; empty means the default calendar with every holiday
+    private String country;
+    private UUID projectId;
+
+    // true when the date becomes a non-working holiday, false when such a holiday is removed
+    private boolean nonWorking = true;
+
+    // true to also write the new due dates
+    private boolean apply;
+}
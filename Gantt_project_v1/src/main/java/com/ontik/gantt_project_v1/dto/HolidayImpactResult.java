@@ -0,0 +1,37 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO summarising which tasks a holiday change reschedules
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HolidayImpactResult {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+
+    private boolean nonWorking;
+
+    // Tasks whose schedule window covers the date
+    private int tasksScanned;
+
+    // Tasks skipped because their assignee's schedule has no working day
+    private int tasksSkipped;
+
+    // Tasks left alone because their due date is not the end of their estimate (set by hand or drifted)
+    private int tasksWithManualDueDate;
+
+    // Whether the new due dates were written
+    private boolean applied;
+
+    private List<TaskScheduleShift> shifts;
+}
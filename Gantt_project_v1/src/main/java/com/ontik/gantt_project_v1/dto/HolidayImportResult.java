@@ -0,0 +1,30 @@
+package com.ontik.gantt_project_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.SortedSet;
+
+/**
+ * DTO summarising a bulk holiday import
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HolidayImportResult {
+
+    private String countryCode;
+
+    // Holidays inserted for dates that had no entry yet
+    private int created;
+
+    // Existing holidays whose name, description, type and working-day flag were replaced
+    private int updated;
+
+    // Event days outside the supported holiday range
+    private int skipped;
+
+    // Years whose calendar slices were rebuilt
+    private SortedSet<Integer> years;
+}
@@ -0,0 +1,19 @@
+package com.ontik.gantt_project_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one entry of the task label dictionary
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LabelCount {
+
+    private String label;
+
+    // Number of tasks carrying the label
+    private long count;
+}
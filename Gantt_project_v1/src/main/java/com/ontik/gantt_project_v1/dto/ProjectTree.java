@@ -0,0 +1,80 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.ontik.gantt_project_v1.model.Epic;
+import com.ontik.gantt_project_v1.model.Project;
+import com.ontik.gantt_project_v1.model.Task;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for a whole project hierarchy: project, epics (with child epics), tasks and subtasks.
+ * Each node carries the fields of its entity plus its child count and its working-day span,
+ * the working days from its start to its end date inclusive (null when it has no end date).
+ */
+@Data
+@NoArgsConstructor
+public class ProjectTree {
+
+    @JsonUnwrapped
+    private Project project;
+
+    private Integer workingDays;
+
+    // Top-level epics of the project
+    private int childCount;
+
+    // Every task and subtask in the tree
+    private int taskCount;
+
+    private List<EpicNode> epics = new ArrayList<>();
+
+    public ProjectTree(Project project, Integer workingDays) {
+        this.project = project;
+        this.workingDays = workingDays;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class EpicNode {
+
+        @JsonUnwrapped
+        private Epic epic;
+
+        private Integer workingDays;
+
+        // Child epics plus top-level tasks
+        private int childCount;
+
+        private List<EpicNode> childEpics = new ArrayList<>();
+
+        private List<TaskNode> tasks = new ArrayList<>();
+
+        public EpicNode(Epic epic, Integer workingDays) {
+            this.epic = epic;
+            this.workingDays = workingDays;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class TaskNode {
+
+        @JsonUnwrapped
+        private Task task;
+
+        private Integer workingDays;
+
+        private int childCount;
+
+        private List<TaskNode> subtasks = new ArrayList<>();
+
+        public TaskNode(Task task, Integer workingDays) {
+            this.task = task;
+            this.workingDays = workingDays;
+        }
+    }
+}
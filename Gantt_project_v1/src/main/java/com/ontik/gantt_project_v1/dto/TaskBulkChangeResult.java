@@ -0,0 +1,27 @@
+package com.ontik.gantt_project_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk task delete or move.
+ * Like the bulk writes it is all or nothing: either every task is changed, or none is and errors says why.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBulkChangeResult {
+
+    // Number of tasks deleted or moved, subtasks included
+    private int tasks;
+
+    private List<String> errors = new ArrayList<>();
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
@@ -0,0 +1,44 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * DTO for moving many tasks at once: the tasks to move and their new epic, parent task and/or sprint.
+ * Only the properties present in the request are changed; a property sent as null clears it.
+ */
+@Data
+@NoArgsConstructor
+public class TaskBulkMove {
+
+    private List<UUID> ids = new ArrayList<>();
+    private UUID epicId;
+    private UUID parentTaskId;
+    private UUID sprintId;
+
+    // Names of the properties present in the request
+    @JsonIgnore
+    private final Set<String> fields = new LinkedHashSet<>();
+
+    public void setEpicId(UUID epicId) {
+        this.epicId = epicId;
+        fields.add("epicId");
+    }
+
+    public void setParentTaskId(UUID parentTaskId) {
+        this.parentTaskId = parentTaskId;
+        fields.add("parentTaskId");
+    }
+
+    public void setSprintId(UUID sprintId) {
+        this.sprintId = sprintId;
+        fields.add("sprintId");
+    }
+}
@@ -0,0 +1,45 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.ontik.gantt_project_v1.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for the outcome of a bulk task create or update.
+ * A bulk write is all or nothing: either every task is saved, or none is and errors lists each rejected item.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBulkResult {
+
+    // Number of tasks created or updated
+    private int saved;
+
+    // The saved tasks in request order, with their generated ids
+    private List<Task> tasks = new ArrayList<>();
+
+    private List<ItemError> errors = new ArrayList<>();
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+
+        // Position of the item in the request array
+        private int index;
+
+        private UUID id;
+
+        private List<String> messages;
+    }
+}
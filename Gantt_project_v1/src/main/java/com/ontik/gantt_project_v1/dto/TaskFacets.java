@@ -0,0 +1,25 @@
+package com.ontik.gantt_project_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the counts behind the task filter panel.
+ * Each facet is counted with every criterion except its own, so its counts show how many tasks
+ * choosing that value instead would match; total is the number matching the whole filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFacets {
+
+    private long total;
+    private List<FacetCount> status = new ArrayList<>();
+    private List<FacetCount> priority = new ArrayList<>();
+    private List<FacetCount> type = new ArrayList<>();
+    private List<FacetCount> assignee = new ArrayList<>();
+}
@@ -0,0 +1,36 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * DTO for the old and new dates of one rescheduled task
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskReschedule {
+
+    private UUID taskId;
+
+    private String title;
+
+    private UUID assigneeId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate previousStartDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate newStartDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate previousDueDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate newDueDate;
+}
@@ -0,0 +1,32 @@
+package com.ontik.gantt_project_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO selecting tasks to shift by a number of working days: the tasks of an epic, of a sprint, or a list of ids.
+ * Exactly one of ids, epicId and sprintId is given.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRescheduleRequest {
+
+    private List<UUID> ids;
+    private UUID epicId;
+    private UUID sprintId;
+
+    // Working days to move by; negative moves the tasks earlier
+    private int workingDays;
+
+    // Optional calendar selection; empty means the default calendar with every holiday
+    private String country;
+    private UUID projectId;
+
+    // true to only report the new dates without writing them
+    private boolean preview;
+}
@@ -0,0 +1,35 @@
+package com.ontik.gantt_project_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO summarising a working-day reschedule of many tasks.
+ * It is all or nothing: either every selected task is rescheduled, or none is and errors says why.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRescheduleResult {
+
+    private int workingDays;
+
+    // Tasks selected by the request
+    private int tasksScanned;
+
+    // Whether the new dates were written
+    private boolean applied;
+
+    // Tasks whose dates change, in start-date order
+    private List<TaskReschedule> tasks = new ArrayList<>();
+
+    private List<String> errors = new ArrayList<>();
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * DTO for a task whose due date moves under a calendar change
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskScheduleShift {
+
+    private UUID taskId;
+
+    private String title;
+
+    private UUID assigneeId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate previousDueDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate newDueDate;
+
+    // Calendar days the due date moves, negative when it moves earlier
+    private long shiftDays;
+}
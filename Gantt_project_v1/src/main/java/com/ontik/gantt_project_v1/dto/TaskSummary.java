@@ -0,0 +1,44 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Lean projection of a task for Gantt and table views.
+ * Only the columns those views draw are selected; description and labels are never read.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSummary {
+
+    // Property names and constructor order follow the Task entity, so queries can project into this class
+    @JsonProperty("id")
+    private UUID taskId;
+    private String type;
+    private String title;
+    private String status;
+    private String priority;
+    private LocalDate startDate;
+    private LocalDate dueDate;
+    private Duration originalEstimate;
+    private UUID assigneeId;
+    private UUID epicId;
+    private UUID parentTaskId;
+
+    // Enriched field
+    private String assigneeName;
+
+    public TaskSummary(UUID taskId, String type, String title, String status, String priority,
+                       LocalDate startDate, LocalDate dueDate, Duration originalEstimate,
+                       UUID assigneeId, UUID epicId, UUID parentTaskId) {
+        this(taskId, type, title, status, priority, startDate, dueDate, originalEstimate,
+                assigneeId, epicId, parentTaskId, null);
+    }
+}
@@ -1,7 +1,6 @@
 package com.ontik.gantt_project_v1.dto;
 
 import com.ontik.gantt_project_v1.model.Task;
-import com.ontik.gantt_project_v1.model.Epic;
 import lombok.Data;
 import lombok.Builder;
 
@@ -34,6 +33,7 @@ public class TaskWithUserDTO {
     private UUID parentTaskId;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
+    private Long version;
 
     /**
      * Convert Task entity to TaskWithUserDTO
@@ -57,54 +57,7 @@ public class TaskWithUserDTO {
                 .parentTaskId(task.getParentTaskId())
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
-                .build();
-    }
-}
-
-/**
- * DTO for Epic with enriched user information
- */
-@Data
-@Builder
-class EpicWithUserDTO {
-    private UUID id;
-    private String name;
-    private String description;
-    private LocalDate startDate;
-    private LocalDate endDate;
-    private String status;
-    private String priority;
-    private UUID projectId;
-    private UUID assignedTo;
-    private String assignedToName; // Enriched field
-    private Double progressPercentage;
-    private UUID parentEpicId;
-    private UUID milestoneId;
-    private List<String> tags;
-    private OffsetDateTime createdAt;
-    private OffsetDateTime updatedAt;
-
-    /**
-     * Convert Epic entity to EpicWithUserDTO
-     */
-    public static EpicWithUserDTO fromEpic(Epic epic, String assignedToName) {
-        return EpicWithUserDTO.builder()
-                .id(epic.getEpicId())
-                .name(epic.getName())
-                .description(epic.getDescription())
-                .startDate(epic.getStartDate())
-                .endDate(epic.getEndDate())
-                .status(epic.getStatus())
-                .priority(epic.getPriority())
-                .projectId(epic.getProjectId())
-                .assignedTo(epic.getAssignedTo())
-                .assignedToName(assignedToName)
-                .progressPercentage(epic.getProgressPercentage())
-                .parentEpicId(epic.getParentEpicId())
-                .milestoneId(epic.getMilestoneId())
-                .tags(epic.getTags())
-                .createdAt(epic.getCreatedAt())
-                .updatedAt(epic.getUpdatedAt())
+                .version(task.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,36 @@
+package com.ontik.gantt_project_v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.ontik.gantt_project_v1.calendar.WorkingDayCalendar;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for a window of the working-day calendar, compact enough for the client to answer date checks locally
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkingDayCalendarResponse {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate start;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate end;
+
+    // Country whose holidays apply, null for the default calendar
+    private String country;
+
+    // Days of the week that are worked, bit 0 = Monday ... bit 6 = Sunday
+    private int workWeekMask;
+
+    // Base64 bitmap: bit i (byte i / 8, bit i % 8, least significant first) set when start + i is a working day
+    private String bitmap;
+
+    private List<WorkingDayCalendar.HolidayEntry> holidays;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.Type;
 import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 
@@ -17,6 +18,8 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "epics")
+// UPDATE statements list only the columns that changed
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -91,7 +94,26 @@ public class Epic {
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
 
+    // Optimistic-lock version, incremented by every update and exposed as the ETag
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     // Transient field for assignee name (not persisted to database)
     @Transient
     private String assignedToName;
+
+    // Timestamps are maintained here rather than taken from request bodies
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+        updatedAt = OffsetDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = OffsetDateTime.now();
+    }
 }
@@ -12,7 +12,9 @@ import java.util.UUID;
  * Holiday entity representing holidays that affect working day calculations
  */
 @Entity
-@Table(name = "holidays")
+@Table(name = "holidays", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_holidays_date_country", columnNames = {"holiday_date", "country_code"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,7 +27,7 @@ public class Holiday {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID holidayId;
 
-    @Column(name = "holiday_date", nullable = false, unique = true)
+    @Column(name = "holiday_date", nullable = false)
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate holidayDate;
 
@@ -1,6 +1,7 @@
 package com.ontik.gantt_project_v1.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
@@ -9,6 +10,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "projects")
+// UPDATE statements list only the columns that changed
+@DynamicUpdate
 public class Project {
     
     @Id
@@ -58,6 +61,10 @@ public class Project {
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
     
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+    
     // Default constructor
     public Project() {}
     
@@ -190,6 +197,14 @@ public class Project {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = OffsetDateTime.now();
@@ -85,6 +85,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.Type;
 import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 
@@ -97,6 +98,8 @@ import java.util.UUID;
 // Mark this class as a JPA entity mapping to the 'tasks' table
 @Entity
 @Table(name = "tasks")
+// UPDATE statements list only the columns that changed, e.g. just the dates after a Gantt drag
+@DynamicUpdate
 // Lombok annotations to reduce boilerplate code for getters, setters, constructors, builder
 @Getter
 @Setter
@@ -176,7 +179,26 @@ public class Task {
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
 
+    // Optimistic-lock version, incremented by every update and exposed as the ETag
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     // Transient field for assignee name (not persisted to database)
     @Transient
     private String assigneeName;
+
+    // Timestamps are maintained here rather than taken from request bodies
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+        updatedAt = OffsetDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = OffsetDateTime.now();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.ontik.gantt_project_v1.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Availability entry of a user: a leave range, or a weekly schedule such as part-time work.
+ * Combined with the holiday calendar when calculating end dates for tasks assigned to the user.
+ */
+@Entity
+@Table(name = "user_availability")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserAvailability {
+
+    public static final String LEAVE = "LEAVE";
+    public static final String SCHEDULE = "SCHEDULE";
+
+    @Id
+    @Column(name = "availability_id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID availabilityId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    // LEAVE (not available on any day of the range) or SCHEDULE (works only the days of workWeek)
+    @Column(name = "availability_type", nullable = false, length = 20)
+    private String availabilityType;
+
+    @Column(name = "start_date", nullable = false)
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    // Inclusive; null means until further notice (schedules only)
+    @Column(name = "end_date")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+
+    // Days worked under a schedule, e.g. "MON,TUE,WED"
+    @Column(name = "work_week", length = 50)
+    private String workWeek;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    @JsonIgnore
+    public boolean isSchedule() {
+        return SCHEDULE.equals(availabilityType);
+    }
+}
@@ -1,19 +1,28 @@
 package com.ontik.gantt_project_v1.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.ontik.gantt_project_v1.dto.EpicSummary;
 import com.ontik.gantt_project_v1.model.Epic;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 /**
- * Repository interface for Epic entities
+ * Repository interface for Epic entities; JpaSpecificationExecutor serves the paginated collections
  */
 @Repository
-public interface EpicRepository extends JpaRepository<Epic, UUID> {
+public interface EpicRepository extends JpaRepository<Epic, UUID>, JpaSpecificationExecutor<Epic> {
+
+    // Selects the EpicSummary columns only, leaving description and tags unread
+    String SELECT_SUMMARY = "SELECT new com.ontik.gantt_project_v1.dto.EpicSummary(e.epicId, e.name, e.status, "
+            + "e.priority, e.startDate, e.endDate, e.projectId, e.assignedTo, e.progressPercentage, "
+            + "e.parentEpicId) FROM Epic e ";
 
     /**
      * Find epics by project ID
@@ -21,14 +30,9 @@ public interface EpicRepository extends JpaRepository<Epic, UUID> {
     List<Epic> findByProjectId(UUID projectId);
 
     /**
-     * Find epics by status
-     */
-    List<Epic> findByStatus(String status);
-
-    /**
-     * Find epics by priority
+     * Find epics by project ID in start-date order
      */
-    List<Epic> findByPriority(String priority);
+    List<Epic> findByProjectIdOrderByStartDate(UUID projectId);
 
     /**
      * Find epics assigned to a specific user
@@ -46,11 +50,69 @@ public interface EpicRepository extends JpaRepository<Epic, UUID> {
     @Query("SELECT e FROM Epic e WHERE e.parentEpicId IS NULL ORDER BY e.startDate")
     List<Epic> findTopLevelEpics();
 
+    /**
+     * Summaries of the epics of a project in start-date order
+     */
+    @Query(SELECT_SUMMARY + "WHERE e.projectId = :projectId ORDER BY e.startDate, e.epicId")
+    List<EpicSummary> findSummariesByProjectId(@Param("projectId") UUID projectId);
+
+    /**
+     * Summaries of the top-level epics, as findTopLevelEpics
+     */
+    @Query(SELECT_SUMMARY + "WHERE e.parentEpicId IS NULL ORDER BY e.startDate")
+    List<EpicSummary> findTopLevelEpicSummaries();
+
+    /**
+     * Summaries of the child epics of a parent epic in start-date order
+     */
+    @Query(SELECT_SUMMARY + "WHERE e.parentEpicId = :parentEpicId ORDER BY e.startDate, e.epicId")
+    List<EpicSummary> findChildEpicSummaries(@Param("parentEpicId") UUID parentEpicId);
+
+    /**
+     * Find the descendant epics of an epic down to maxDepth levels (1 for direct children), level by level
+     * and in start-date order within a level. Served by the primary key of the epic_closure table.
+     */
+    @Query(value = "SELECT e.* FROM epic_closure c JOIN epics e ON e.epic_id = c.descendant_id " +
+            "WHERE c.ancestor_id = :epicId AND c.depth BETWEEN 1 AND :maxDepth " +
+            "ORDER BY c.depth, e.start_date, e.epic_id", nativeQuery = true)
+    List<Epic> findSubtree(@Param("epicId") UUID epicId, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Find the ancestor epics of an epic, root first
+     */
+    @Query(value = "SELECT e.* FROM epic_closure c JOIN epics e ON e.epic_id = c.ancestor_id " +
+            "WHERE c.descendant_id = :epicId AND c.depth > 0 " +
+            "ORDER BY c.depth DESC", nativeQuery = true)
+    List<Epic> findAncestors(@Param("epicId") UUID epicId);
+
+    /**
+     * Check whether an epic is the given epic or one of its descendants
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM epic_closure " +
+            "WHERE ancestor_id = :ancestorId AND descendant_id = :epicId)", nativeQuery = true)
+    boolean isInSubtree(@Param("ancestorId") UUID ancestorId, @Param("epicId") UUID epicId);
+
+    /**
+     * Delete an epic together with all of its descendant epics in one statement.
+     * Their tasks are kept and lose their epic (ON DELETE SET NULL).
+     * @return the number of epics deleted, 0 if the epic does not exist
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM epics WHERE epic_id IN " +
+            "(SELECT descendant_id FROM epic_closure WHERE ancestor_id = :epicId)", nativeQuery = true)
+    int deleteSubtree(@Param("epicId") UUID epicId);
+
     /**
      * Find epics by project ID and status
      */
     List<Epic> findByProjectIdAndStatus(UUID projectId, String status);
 
+    /**
+     * Find which of the given epic IDs exist
+     */
+    @Query("SELECT e.epicId FROM Epic e WHERE e.epicId IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
     /**
      * Count tasks under an epic
      */
@@ -1,9 +1,12 @@
 package com.ontik.gantt_project_v1.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ontik.gantt_project_v1.model.Holiday;
 import java.time.LocalDate;
@@ -49,4 +52,18 @@ public interface HolidayRepository extends JpaRepository<Holiday, UUID> {
      * Find holidays by country
      */
     List<Holiday> findByCountryCode(String countryCode);
+
+    /**
+     * Find holidays of a country within a date range
+     */
+    List<Holiday> findByCountryCodeAndHolidayDateBetween(String countryCode, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Recompute the calendar_days dimension from the given date onwards, in its own transaction
+     * @param workWeekMask days of the week that are worked, bit 0 = Monday ... bit 6 = Sunday
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "CALL refresh_calendar_days(:fromDate, :workWeek)", nativeQuery = true)
+    void refreshCalendarDays(@Param("fromDate") LocalDate fromDate, @Param("workWeek") int workWeekMask);
 }
@@ -0,0 +1,25 @@
+package com.ontik.gantt_project_v1.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * PostgreSQL jsonb operators for criteria queries, registered with Hibernate through
+ * META-INF/services. They render as the operator itself rather than its function form,
+ * because only the operator can be served by a GIN index.
+ */
+public class JsonbFunctions implements FunctionContributor {
+
+    /**
+     * jsonb_contains(document, json) renders as document @> CAST(json AS jsonb)
+     */
+    public static final String CONTAINS = "jsonb_contains";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(CONTAINS, "(?1 @> cast(?2 as jsonb))",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
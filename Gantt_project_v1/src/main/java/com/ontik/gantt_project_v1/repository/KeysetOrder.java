@@ -0,0 +1,146 @@
+package com.ontik.gantt_project_v1.repository;
+
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset ordering of a collection: a sort property with the id as tie-breaker.
+ *
+ * A cursor is the (sort value, id) pair of the last row of a page, URL-safe base64 encoded.
+ * The next page continues with "WHERE (sort, id) > (value, id)" on the index instead of
+ * skipping OFFSET rows, so every page costs the same however deep it is.
+ */
+public final class KeysetOrder {
+
+    private final String sortProperty;
+    private final Function<String, ?> sortValueParser;
+    private final String idProperty;
+
+    private KeysetOrder(String sortProperty, Function<String, ?> sortValueParser, String idProperty) {
+        this.sortProperty = sortProperty;
+        this.sortValueParser = sortValueParser;
+        this.idProperty = idProperty;
+    }
+
+    /**
+     * Order by a non-null property, then by the (UUID) id.
+     * The parser turns the property's toString() back into its value when a cursor is read.
+     */
+    public static KeysetOrder of(String sortProperty, Function<String, ?> sortValueParser, String idProperty) {
+        return new KeysetOrder(sortProperty, sortValueParser, idProperty);
+    }
+
+    public Sort sort() {
+        return Sort.by(sortProperty, idProperty);
+    }
+
+    /**
+     * Scroll position after the row a cursor points at; a missing cursor starts at the first row.
+     * @throws IllegalArgumentException if the cursor was not issued by this ordering
+     */
+    public ScrollPosition position(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(keys(cursor));
+    }
+
+    /**
+     * Restriction to the rows after the one a cursor points at, or null for a missing cursor:
+     * sort > value OR (sort = value AND id > id), for queries that do not go through scrolling
+     * @throws IllegalArgumentException if the cursor was not issued by this ordering
+     */
+    public Predicate after(String cursor, Root<?> root, CriteriaBuilder cb) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        Map<String, Object> keys = keys(cursor);
+        Path<?> sort = root.get(sortProperty);
+        return cb.or(greaterThan(cb, sort, keys.get(sortProperty)),
+                cb.and(cb.equal(sort, keys.get(sortProperty)),
+                        greaterThan(cb, root.get(idProperty), keys.get(idProperty))));
+    }
+
+    /**
+     * Cursor pointing at a row, read from its sort and id properties; the row may be an entity or a
+     * projection that names them the same way
+     */
+    public String cursorAfter(Object row) {
+        BeanWrapper properties = new BeanWrapperImpl(row);
+        return cursorOf(properties.getPropertyValue(sortProperty), properties.getPropertyValue(idProperty));
+    }
+
+    /**
+     * Cursor pointing at the row with this sort value and id, for orderings over computed values
+     */
+    public String cursorOf(Object sortValue, Object id) {
+        String raw = sortValue + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read the page of matching rows that follows the cursor
+     * @param filter restriction on the rows, or null for all rows
+     * @throws IllegalArgumentException if the cursor was not issued by this ordering
+     */
+    public <T> CursorPage<T> page(JpaSpecificationExecutor<T> repository, Specification<T> filter,
+                                  String cursor, int size) {
+        ScrollPosition position = position(cursor);
+        // A specification without a predicate places no restriction
+        Specification<T> spec = filter != null ? filter : (root, query, cb) -> null;
+        return page(repository.findBy(spec, query -> query.sortBy(sort()).limit(size).scroll(position)));
+    }
+
+    /**
+     * Turn a scrolled window into a page whose next cursor points at its last row
+     */
+    private <T> CursorPage<T> page(Window<T> window) {
+        String next = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Map<String, Object> keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+            next = cursorOf(keys.get(sortProperty), keys.get(idProperty));
+        }
+        return new CursorPage<>(window.getContent(), next);
+    }
+
+    /**
+     * The sort value and id a cursor carries, keyed by property name
+     * @throws IllegalArgumentException if the cursor was not issued by this ordering
+     */
+    public Map<String, Object> keys(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int split = decoded.lastIndexOf('|');
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortProperty, sortValueParser.apply(decoded.substring(0, split)));
+            keys.put(idProperty, UUID.fromString(decoded.substring(split + 1)));
+            return keys;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate greaterThan(CriteriaBuilder cb, Path<?> path, Object value) {
+        return cb.greaterThan((Expression<Comparable>) path, (Comparable) value);
+    }
+}
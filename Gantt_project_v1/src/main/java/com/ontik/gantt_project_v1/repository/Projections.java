@@ -0,0 +1,80 @@
+package com.ontik.gantt_project_v1.repository;
+
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset pages of a DTO projection instead of whole entities.
+ * A projection selects the entity attributes named by its fields, in declaration order, through the
+ * constructor taking them in that order; columns it does not name are never read.
+ * Fields that are not entity attributes (enriched values) are left to the caller.
+ */
+@Repository
+public class Projections {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Read the page of matching rows that follows the cursor, projected
+     * @param filter restriction on the rows, or null for all rows
+     * @throws IllegalArgumentException if the cursor was not issued by this ordering
+     */
+    public <E, P> CursorPage<P> page(Class<E> entityClass, Class<P> projection, KeysetOrder order,
+                                     Specification<E> filter, String cursor, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = cb.createQuery(projection);
+        Root<E> root = query.from(entityClass);
+        query.select(cb.construct(projection, selections(root, entityClass, projection)));
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        Predicate after = order.after(cursor, root, cb);
+        if (after != null) {
+            predicates.add(after);
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(QueryUtils.toOrders(order.sort(), root, cb));
+
+        // One row beyond the page tells whether another page follows
+        List<P> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<P> items = new ArrayList<>(rows.subList(0, size));
+        return new CursorPage<>(items, order.cursorAfter(items.get(size - 1)));
+    }
+
+    private <E> Selection<?>[] selections(Root<E> root, Class<E> entityClass, Class<?> projection) {
+        Set<String> attributes = entityManager.getMetamodel().entity(entityClass).getAttributes().stream()
+                .map(Attribute::getName)
+                .collect(Collectors.toSet());
+        List<Selection<?>> selections = new ArrayList<>();
+        for (Field field : projection.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && attributes.contains(field.getName())) {
+                selections.add(root.get(field.getName()));
+            }
+        }
+        return selections.toArray(new Selection<?>[0]);
+    }
+}
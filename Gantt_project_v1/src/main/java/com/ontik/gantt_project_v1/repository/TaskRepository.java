@@ -3,45 +3,52 @@ package com.ontik.gantt_project_v1.repository;
 
 // Import the JpaRepository interface from Spring Data JPA
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 // Import the Task entity and UUID class
+import com.ontik.gantt_project_v1.dto.TaskSummary;
 import com.ontik.gantt_project_v1.model.Task;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 // Define the repository interface for Task entities
 // Extends JpaRepository, specifying Task as the entity type and UUID as the ID type
+// JpaSpecificationExecutor runs the dynamic filters built by TaskSpecifications
+// TaskRepositoryCustom adds the streaming query used by exports
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID> {
+public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
     // No code needed here! All common CRUD methods are inherited from JpaRepository
 
-    /**
-     * Find tasks by epic ID
-     */
-    List<Task> findByEpicId(UUID epicId);
+    // Selects the TaskSummary columns only, leaving description and labels unread
+    String SELECT_SUMMARY = "SELECT new com.ontik.gantt_project_v1.dto.TaskSummary(t.taskId, t.type, t.title, "
+            + "t.status, t.priority, t.startDate, t.dueDate, t.originalEstimate, t.assigneeId, t.epicId, "
+            + "t.parentTaskId) FROM Task t ";
 
-    /**
-     * Find tasks by parent task ID (subtasks)
-     */
-    List<Task> findByParentTaskId(UUID parentTaskId);
+    // The mapped columns of tasks t, for native queries; t.* would also read the search_vector document
+    String COLUMNS = "t.task_id, t.type, t.title, t.description, t.epic_id, t.sprint_id, t.start_date, t.due_date, "
+            + "t.original_estimate, t.status, t.assignee_id, t.priority, t.labels, t.parent_task_id, "
+            + "t.created_at, t.updated_at, t.version";
 
     /**
-     * Find tasks by type
+     * Find tasks by epic ID
      */
-    List<Task> findByType(String type);
+    List<Task> findByEpicId(UUID epicId);
 
     /**
-     * Find tasks by status
+     * Find tasks by sprint ID
      */
-    List<Task> findByStatus(String status);
+    List<Task> findBySprintId(UUID sprintId);
 
     /**
-     * Find tasks by priority
+     * Find tasks by parent task ID (subtasks)
      */
-    List<Task> findByPriority(String priority);
+    List<Task> findByParentTaskId(UUID parentTaskId);
 
     /**
      * Find top-level tasks in an epic (no parent task)
@@ -66,4 +73,155 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
      */
     @Query("SELECT t FROM Task t WHERE t.parentTaskId = :parentTaskId AND t.type = 'sub_task' ORDER BY t.startDate")
     List<Task> findSubTasksByParentId(@Param("parentTaskId") UUID parentTaskId);
-}
\ No newline at end of file
+
+    /**
+     * Summaries of the top-level tasks in an epic, as findTopLevelTasksByEpicId
+     */
+    @Query(SELECT_SUMMARY + "WHERE t.epicId = :epicId AND t.parentTaskId IS NULL ORDER BY t.startDate")
+    List<TaskSummary> findTopLevelTaskSummariesByEpicId(@Param("epicId") UUID epicId);
+
+    /**
+     * Summaries of the subtasks under a parent task, as findSubTasksByParentId
+     */
+    @Query(SELECT_SUMMARY + "WHERE t.parentTaskId = :parentTaskId AND t.type = 'sub_task' ORDER BY t.startDate")
+    List<TaskSummary> findSubTaskSummariesByParentId(@Param("parentTaskId") UUID parentTaskId);
+
+    /**
+     * Find every task of a project in one query: the tasks of its epics plus all of their subtasks at any depth,
+     * whatever epic those subtasks carry, in start-date order. The epic tasks are selected by epic_id,
+     * and only their descendants come from the task_closure table.
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM tasks t " +
+            "WHERE t.epic_id IN (SELECT e.epic_id FROM epics e WHERE e.project_id = :projectId) " +
+            "OR t.task_id IN (SELECT c.descendant_id FROM task_closure c " +
+            "JOIN tasks a ON a.task_id = c.ancestor_id " +
+            "JOIN epics e ON e.epic_id = a.epic_id " +
+            "WHERE e.project_id = :projectId AND c.depth > 0) " +
+            "ORDER BY t.start_date, t.task_id", nativeQuery = true)
+    List<Task> findProjectTasks(@Param("projectId") UUID projectId);
+
+    /**
+     * Find the descendants of a task down to maxDepth levels (1 for direct subtasks), level by level
+     * and in start-date order within a level. Served by the primary key of the task_closure table.
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM task_closure c JOIN tasks t ON t.task_id = c.descendant_id " +
+            "WHERE c.ancestor_id = :taskId AND c.depth BETWEEN 1 AND :maxDepth " +
+            "ORDER BY c.depth, t.start_date, t.task_id", nativeQuery = true)
+    List<Task> findSubtree(@Param("taskId") UUID taskId, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Find the ancestors of a task, root first
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM task_closure c JOIN tasks t ON t.task_id = c.ancestor_id " +
+            "WHERE c.descendant_id = :taskId AND c.depth > 0 " +
+            "ORDER BY c.depth DESC", nativeQuery = true)
+    List<Task> findAncestors(@Param("taskId") UUID taskId);
+
+    /**
+     * Check whether a task is the given task or one of its descendants
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM task_closure " +
+            "WHERE ancestor_id = :ancestorId AND descendant_id = :taskId)", nativeQuery = true)
+    boolean isInSubtree(@Param("ancestorId") UUID ancestorId, @Param("taskId") UUID taskId);
+
+    /**
+     * Delete a task together with all of its descendants in one statement
+     * @return the number of tasks deleted, 0 if the task does not exist
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM tasks WHERE task_id IN " +
+            "(SELECT descendant_id FROM task_closure WHERE ancestor_id = :taskId)", nativeQuery = true)
+    int deleteSubtree(@Param("taskId") UUID taskId);
+
+    /**
+     * Delete the given tasks in one statement; the ids are bound as a single array, however many there are
+     * @return the number of tasks deleted
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM tasks WHERE task_id = ANY(:ids)", nativeQuery = true)
+    int deleteAllByIds(@Param("ids") UUID[] ids);
+
+    /**
+     * Delete the given tasks together with all of their descendants in one statement.
+     * The given tasks are matched by id as well, in case one has no closure row.
+     * @return the number of tasks deleted
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM tasks WHERE task_id = ANY(:ids) OR task_id IN " +
+            "(SELECT descendant_id FROM task_closure WHERE ancestor_id = ANY(:ids))", nativeQuery = true)
+    int deleteSubtrees(@Param("ids") UUID[] ids);
+
+    /**
+     * Make the direct subtasks of the given tasks top-level tasks, except those that are among the given tasks
+     * @return the number of subtasks detached
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE tasks SET parent_task_id = NULL, updated_at = NOW(), version = version + 1 " +
+            "WHERE parent_task_id = ANY(:ids) AND NOT task_id = ANY(:ids)", nativeQuery = true)
+    int detachSubtasks(@Param("ids") UUID[] ids);
+
+    /**
+     * Find which of the given task IDs exist
+     */
+    @Query("SELECT t.taskId FROM Task t WHERE t.taskId IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Find which of the given sprint IDs exist; sprints have no entity, so this reads the table directly
+     */
+    @Query(value = "SELECT sprint_id FROM sprints WHERE sprint_id IN (:ids)", nativeQuery = true)
+    List<UUID> findExistingSprintIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Find the (task, new parent) pairs where the new parent lies below the task, i.e. moves that would make a cycle
+     * @return pairs of [task_id, parent_id]
+     */
+    @Query(value = "SELECT ancestor_id, descendant_id FROM task_closure " +
+            "WHERE ancestor_id IN (:taskIds) AND descendant_id IN (:parentIds) AND depth > 0", nativeQuery = true)
+    List<Object[]> findDescendantPairs(@Param("taskIds") Collection<UUID> taskIds,
+                                       @Param("parentIds") Collection<UUID> parentIds);
+
+    /**
+     * Count the tasks carrying each label, most used first
+     * @return pairs of [label, task count]
+     */
+    @Query(value = "SELECT label, COUNT(DISTINCT t.task_id) AS tasks " +
+            "FROM tasks t CROSS JOIN LATERAL jsonb_array_elements_text(t.labels) AS label " +
+            "WHERE jsonb_typeof(t.labels) = 'array' " +
+            "GROUP BY label ORDER BY tasks DESC, label", nativeQuery = true)
+    List<Object[]> countLabels();
+
+    /**
+     * Find estimated tasks whose [start date, due date] window covers a date.
+     * Served by the GiST index idx_tasks_schedule_range on the same daterange expression.
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM tasks t " +
+            "WHERE daterange(t.start_date, t.due_date, '[]') @> CAST(:date AS date) " +
+            "AND t.due_date IS NOT NULL AND t.original_estimate IS NOT NULL", nativeQuery = true)
+    List<Task> findTasksScheduledAcross(@Param("date") LocalDate date);
+
+    /**
+     * Find open tasks due between today and the given number of working days from today, nearest first.
+     * Working-day distance comes from the ordinals of the calendar_days table, so dates outside 2020-2050 never match.
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM tasks t " +
+            "JOIN calendar_days today ON today.calendar_date = :today " +
+            "JOIN calendar_days due ON due.calendar_date = t.due_date " +
+            "WHERE t.status <> 'Done' AND t.due_date >= :today " +
+            "AND due.working_day_ordinal - today.working_day_ordinal <= :workingDays " +
+            "ORDER BY due.working_day_ordinal, t.due_date", nativeQuery = true)
+    List<Task> findTasksDueWithinWorkingDays(@Param("today") LocalDate today, @Param("workingDays") int workingDays);
+
+    /**
+     * Find tasks whose start-to-due span has more working days than their original estimate, largest overrun first
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM tasks t " +
+            "JOIN calendar_days s ON s.calendar_date = t.start_date " +
+            "JOIN calendar_days d ON d.calendar_date = t.due_date " +
+            "WHERE t.original_estimate IS NOT NULL " +
+            "AND d.working_day_ordinal - s.working_day_ordinal + CASE WHEN s.is_working_day THEN 1 ELSE 0 END " +
+            "    > EXTRACT(EPOCH FROM t.original_estimate) / 86400 " +
+            "ORDER BY d.working_day_ordinal - s.working_day_ordinal + CASE WHEN s.is_working_day THEN 1 ELSE 0 END " +
+            "    - EXTRACT(EPOCH FROM t.original_estimate) / 86400 DESC", nativeQuery = true)
+    List<Task> findTasksOverEstimate();
+}
@@ -0,0 +1,59 @@
+package com.ontik.gantt_project_v1.repository;
+
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import com.ontik.gantt_project_v1.dto.TaskFacets;
+import com.ontik.gantt_project_v1.model.Task;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Task queries that Spring Data cannot derive, implemented in TaskRepositoryImpl
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Stream the tasks matching a filter (null for all tasks) in the given order.
+     * Rows are fetched from the database in batches and detached as they are read, so memory stays flat
+     * however many tasks match. Must be consumed inside a transaction and closed afterwards.
+     */
+    Stream<Task> streamAll(Specification<Task> filter, Sort sort);
+
+    /**
+     * Flush pending inserts and updates as JDBC batches and empty the persistence context.
+     * Called between chunks of a bulk write so memory and dirty checking stay bounded.
+     */
+    void flushAndClear();
+
+    /**
+     * One page of a full-text search of task titles and descriptions, best match first, then by id.
+     * The tsquery is matched against the generated search_vector column through its GIN index; the other
+     * criteria are those of TaskSpecifications.filter, with the same handling of empty values.
+     * @param cursor the next cursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor was not issued by this search
+     */
+    CursorPage<Task> search(String tsquery, String startDate, String endDate, String types,
+                            String assignee, String status, String priority, String labels, String allLabels,
+                            String cursor, int size);
+
+    /**
+     * Count, for a filter, the tasks each status, priority, type and assignee value would match, in one
+     * GROUPING SETS query. A facet's counts apply every criterion except the facet's own; assignee values
+     * are user ids (null for unassigned) without names. The criteria are those of TaskSpecifications.filter.
+     */
+    TaskFacets countFacets(String startDate, String endDate, String types, String assignee,
+                           String status, String priority, String labels, String allLabels);
+
+    /**
+     * Set the epic, parent task and/or sprint of many tasks in one UPDATE ... WHERE task_id = ANY(?) statement.
+     * The parent task is changed on the given tasks only, since their subtasks move with them; with
+     * subtasks, the epic and sprint are also set on every descendant of the given tasks.
+     * @param changes new values by attribute name (epicId, parentTaskId, sprintId); null values clear
+     * @return the number of tasks updated
+     */
+    int moveAll(Collection<UUID> ids, Map<String, UUID> changes, boolean subtasks);
+}
@@ -0,0 +1,293 @@
+package com.ontik.gantt_project_v1.repository;
+
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import com.ontik.gantt_project_v1.dto.FacetCount;
+import com.ontik.gantt_project_v1.dto.TaskFacets;
+import com.ontik.gantt_project_v1.model.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the custom task queries, picked up by Spring Data for TaskRepository
+ */
+class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    // Rows per round trip while streaming; PostgreSQL only honours it inside a transaction
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    // Search results are ordered by rank, best first, then by id
+    private static final KeysetOrder SEARCH_ORDER = KeysetOrder.of("rank", Float::valueOf, "taskId");
+
+    // Facet values are listed most matches first, then by value with unassigned last
+    private static final Comparator<FacetCount> FACET_ORDER = Comparator.comparingLong(FacetCount::getCount)
+            .reversed()
+            .thenComparing(FacetCount::getValue, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    // Columns a bulk move may change, by attribute name; sorted so the statement text is always the same
+    private static final Map<String, String> MOVE_COLUMNS = new TreeMap<>(Map.of(
+            "epicId", "epic_id", "parentTaskId", "parent_task_id", "sprintId", "sprint_id"));
+
+    private static final String RANK = "ts_rank(t.search_vector, q.query)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Task> streamAll(Specification<Task> filter, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+        Predicate predicate = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(task -> {
+                    // Keep the persistence context from growing with every row read
+                    entityManager.detach(task);
+                    return task;
+                });
+    }
+
+    @Override
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CursorPage<Task> search(String tsquery, String startDate, String endDate, String types,
+                                   String assignee, String status, String priority, String labels, String allLabels,
+                                   String cursor, int size) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(TaskRepository.COLUMNS)
+                .append(", ").append(RANK).append(" AS search_rank ")
+                .append("FROM tasks t, to_tsquery('english', :query) AS q(query) ")
+                .append("WHERE t.search_vector @@ q.query");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("query", tsquery);
+
+        // The same criteria as TaskSpecifications.filter, written out for the native query
+        List<String> conditions = commonConditions(parameters, startDate, endDate, labels, allLabels);
+        addIfPresent(conditions, lowerIn(parameters, "type", types));
+        addIfPresent(conditions, lowerIn(parameters, "status", status));
+        addIfPresent(conditions, lowerIn(parameters, "priority", priority));
+        addIfPresent(conditions, assigneeCondition(parameters, assignee));
+        conditions.forEach(condition -> sql.append(" AND ").append(condition));
+
+        if (cursor != null && !cursor.isBlank()) {
+            Map<String, Object> keys = SEARCH_ORDER.keys(cursor);
+            sql.append(" AND (").append(RANK).append(" < CAST(:afterRank AS real) OR (")
+                    .append(RANK).append(" = CAST(:afterRank AS real) AND t.task_id > :afterId))");
+            parameters.put("afterRank", keys.get("rank"));
+            parameters.put("afterId", keys.get("taskId"));
+        }
+        sql.append(" ORDER BY search_rank DESC, t.task_id");
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql.toString()).unwrap(NativeQuery.class);
+        query.addEntity("t", Task.class);
+        query.addScalar("search_rank", StandardBasicTypes.FLOAT);
+        parameters.forEach(query::setParameter);
+        // One row beyond the page tells whether another page follows
+        List<Object[]> rows = query.setMaxResults(size + 1).getResultList();
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < Math.min(rows.size(), size); i++) {
+            tasks.add((Task) rows.get(i)[0]);
+        }
+        String next = null;
+        if (rows.size() > size) {
+            Object[] last = rows.get(size - 1);
+            next = SEARCH_ORDER.cursorOf(last[1], ((Task) last[0]).getTaskId());
+        }
+        return new CursorPage<>(tasks, next);
+    }
+
+    @Override
+    public TaskFacets countFacets(String startDate, String endDate, String types, String assignee,
+                                  String status, String priority, String labels, String allLabels) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        List<String> conditions = commonConditions(parameters, startDate, endDate, labels, allLabels);
+        String statusCondition = lowerIn(parameters, "status", status);
+        String priorityCondition = lowerIn(parameters, "priority", priority);
+        String typeCondition = lowerIn(parameters, "type", types);
+        String assigneeCondition = assigneeCondition(parameters, assignee);
+
+        // Rows are narrowed by the criteria that are not facets; each facet's count then applies
+        // the other facets' criteria, and the empty grouping set counts the rows matching all of them
+        StringBuilder sql = new StringBuilder("SELECT t.status, t.priority, t.type, ")
+                .append("CAST(t.assignee_id AS varchar) AS assignee, ")
+                .append("GROUPING(t.status, t.priority, t.type, t.assignee_id) AS grouping_set, ")
+                .append(countWhere(priorityCondition, typeCondition, assigneeCondition)).append(" AS status_count, ")
+                .append(countWhere(statusCondition, typeCondition, assigneeCondition)).append(" AS priority_count, ")
+                .append(countWhere(statusCondition, priorityCondition, assigneeCondition)).append(" AS type_count, ")
+                .append(countWhere(statusCondition, priorityCondition, typeCondition)).append(" AS assignee_count, ")
+                .append(countWhere(statusCondition, priorityCondition, typeCondition, assigneeCondition))
+                .append(" AS total_count FROM tasks t");
+        for (int i = 0; i < conditions.size(); i++) {
+            sql.append(i == 0 ? " WHERE " : " AND ").append(conditions.get(i));
+        }
+        sql.append(" GROUP BY GROUPING SETS ((t.status), (t.priority), (t.type), (t.assignee_id), ())");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(query::setParameter);
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+
+        TaskFacets facets = new TaskFacets();
+        for (Object[] row : rows) {
+            // GROUPING sets a bit for every column left out of the row's grouping set, status first
+            switch (((Number) row[4]).intValue()) {
+                case 0b0111 -> addFacet(facets.getStatus(), row[0], row[5]);
+                case 0b1011 -> addFacet(facets.getPriority(), row[1], row[6]);
+                case 0b1101 -> addFacet(facets.getType(), row[2], row[7]);
+                case 0b1110 -> addFacet(facets.getAssignee(), row[3], row[8]);
+                default -> facets.setTotal(((Number) row[9]).longValue());
+            }
+        }
+        for (List<FacetCount> facet : List.of(facets.getStatus(), facets.getPriority(), facets.getType(),
+                facets.getAssignee())) {
+            facet.sort(FACET_ORDER);
+        }
+        return facets;
+    }
+
+    @Override
+    public int moveAll(Collection<UUID> ids, Map<String, UUID> changes, boolean subtasks) {
+        // Subtasks follow a parent change by themselves; only an epic or sprint change reaches them
+        boolean subtrees = subtasks && (changes.containsKey("epicId") || changes.containsKey("sprintId"));
+        StringBuilder sql = new StringBuilder("UPDATE tasks SET ");
+        for (Map.Entry<String, String> column : MOVE_COLUMNS.entrySet()) {
+            if (!changes.containsKey(column.getKey())) {
+                continue;
+            }
+            String name = column.getValue();
+            if (name.equals("parent_task_id") && subtrees) {
+                sql.append("parent_task_id = CASE WHEN task_id = ANY(:ids) THEN :parentTaskId ")
+                        .append("ELSE parent_task_id END, ");
+            } else {
+                sql.append(name).append(" = :").append(column.getKey()).append(", ");
+            }
+        }
+        // Subtrees match the moved tasks by id as well, in case one has no closure row
+        sql.append("updated_at = NOW(), version = version + 1 WHERE ")
+                .append(subtrees
+                        ? "task_id = ANY(:ids) OR task_id IN "
+                                + "(SELECT descendant_id FROM task_closure WHERE ancestor_id = ANY(:ids))"
+                        : "task_id = ANY(:ids)");
+
+        NativeQuery<?> query = entityManager.createNativeQuery(sql.toString()).unwrap(NativeQuery.class);
+        // Typed, so that a null (clearing a column) is bound as a uuid
+        changes.forEach((attribute, value) -> query.setParameter(attribute, value, UUID.class));
+        query.setParameter("ids", ids.toArray(new UUID[0]), UUID[].class);
+        int updated = query.executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    // Criteria of the filter that are not offered as facets
+    private static List<String> commonConditions(Map<String, Object> parameters, String startDate, String endDate,
+                                                 String labels, String allLabels) {
+        List<String> conditions = new ArrayList<>();
+        LocalDate from = TaskSpecifications.parseDate(startDate);
+        if (from != null) {
+            conditions.add("(t.updated_at IS NULL OR t.updated_at >= :updatedFrom)");
+            parameters.put("updatedFrom", TaskSpecifications.startOfDay(from));
+        }
+        LocalDate to = TaskSpecifications.parseDate(endDate);
+        if (to != null) {
+            conditions.add("(t.updated_at IS NULL OR t.updated_at < :updatedBefore)");
+            parameters.put("updatedBefore", TaskSpecifications.startOfDay(to.plusDays(1)));
+        }
+
+        List<String> anyLabels = TaskSpecifications.values(labels);
+        if (!anyLabels.isEmpty()) {
+            StringBuilder condition = new StringBuilder("(");
+            for (int i = 0; i < anyLabels.size(); i++) {
+                condition.append(i > 0 ? " OR " : "").append("t.labels @> CAST(:label").append(i).append(" AS jsonb)");
+                parameters.put("label" + i, TaskSpecifications.jsonArray(List.of(anyLabels.get(i))));
+            }
+            conditions.add(condition.append(")").toString());
+        }
+        List<String> everyLabel = TaskSpecifications.values(allLabels);
+        if (!everyLabel.isEmpty()) {
+            conditions.add("t.labels @> CAST(:allLabels AS jsonb)");
+            parameters.put("allLabels", TaskSpecifications.jsonArray(everyLabel));
+        }
+        return conditions;
+    }
+
+    private static String assigneeCondition(Map<String, Object> parameters, String assignee) {
+        if (assignee == null || assignee.isBlank()) {
+            return null;
+        }
+        UUID assigneeId = TaskSpecifications.parseId(assignee);
+        if (assigneeId != null) {
+            parameters.put("assigneeId", assigneeId);
+            return "t.assignee_id = :assigneeId";
+        }
+        parameters.put("assigneeName", TaskSpecifications.containsPattern(assignee));
+        return "t.assignee_id IN (SELECT u.user_id FROM users u "
+                + "WHERE lower(u.username) LIKE :assigneeName ESCAPE '\\' "
+                + "OR lower(u.first_name || ' ' || u.last_name) LIKE :assigneeName ESCAPE '\\')";
+    }
+
+    private static String lowerIn(Map<String, Object> parameters, String column, String csv) {
+        List<String> values = TaskSpecifications.lowerValues(csv);
+        if (values.isEmpty()) {
+            return null;
+        }
+        parameters.put(column, values);
+        return "lower(t." + column + ") IN (:" + column + ")";
+    }
+
+    // COUNT(*) of the rows meeting every given condition; absent (null) conditions are left out
+    private static String countWhere(String... conditions) {
+        String where = Arrays.stream(conditions).filter(Objects::nonNull).collect(Collectors.joining(" AND "));
+        return where.isEmpty() ? "COUNT(*)" : "COUNT(*) FILTER (WHERE " + where + ")";
+    }
+
+    // Values no task would match under the other criteria are left out
+    private static void addFacet(List<FacetCount> facet, Object value, Object count) {
+        long tasks = ((Number) count).longValue();
+        if (tasks > 0) {
+            facet.add(new FacetCount(value != null ? value.toString() : null, null, tasks));
+        }
+    }
+
+    private static void addIfPresent(List<String> conditions, String condition) {
+        if (condition != null) {
+            conditions.add(condition);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.ontik.gantt_project_v1.repository;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.ontik.gantt_project_v1.model.Task;
+import com.ontik.gantt_project_v1.model.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Query building blocks for the task filter. Each returns null when its input is empty,
+ * which Specification.allOf treats as "no restriction", so only the given filters reach the SQL.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    /**
+     * All criteria of /tasks/filter combined; empty criteria and unparseable dates are ignored.
+     * The date window is inclusive and compares update timestamps in the server's zone.
+     * labels matches tasks with any of its labels, allLabels tasks with every one of its labels.
+     */
+    public static Specification<Task> filter(String startDate, String endDate, String types,
+                                             String assignee, String status, String priority,
+                                             String labels, String allLabels) {
+        LocalDate from = parseDate(startDate);
+        LocalDate to = parseDate(endDate);
+        return Specification.allOf(
+                updatedFrom(from != null ? startOfDay(from) : null),
+                updatedBefore(to != null ? startOfDay(to.plusDays(1)) : null),
+                typeIn(types),
+                assignee(assignee),
+                statusIn(status),
+                priorityIn(priority),
+                hasAnyLabel(labels),
+                hasAllLabels(allLabels));
+    }
+
+    /**
+     * Tasks updated at or after the instant (tasks without an update timestamp always match)
+     */
+    public static Specification<Task> updatedFrom(OffsetDateTime from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.isNull(root.get("updatedAt")),
+                cb.greaterThanOrEqualTo(root.get("updatedAt"), from));
+    }
+
+    /**
+     * Tasks updated before the instant (tasks without an update timestamp always match)
+     */
+    public static Specification<Task> updatedBefore(OffsetDateTime before) {
+        if (before == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.isNull(root.get("updatedAt")),
+                cb.lessThan(root.get("updatedAt"), before));
+    }
+
+    /**
+     * Tasks whose type is any of the comma-separated values, case-insensitive
+     */
+    public static Specification<Task> typeIn(String types) {
+        return lowerIn("type", types);
+    }
+
+    /**
+     * Tasks whose status is any of the comma-separated values, case-insensitive
+     */
+    public static Specification<Task> statusIn(String statuses) {
+        return lowerIn("status", statuses);
+    }
+
+    /**
+     * Tasks whose priority is any of the comma-separated values, case-insensitive
+     */
+    public static Specification<Task> priorityIn(String priorities) {
+        return lowerIn("priority", priorities);
+    }
+
+    /**
+     * Tasks assigned to a user given by id, or by a fragment of their username or full name
+     */
+    public static Specification<Task> assignee(String assignee) {
+        if (assignee == null || assignee.isBlank()) {
+            return null;
+        }
+        UUID assigneeId = parseId(assignee);
+        if (assigneeId != null) {
+            return (root, query, cb) -> cb.equal(root.get("assigneeId"), assigneeId);
+        }
+
+        // Not an id: match by name, resolved against the (small) users table first
+        String pattern = containsPattern(assignee);
+        return (root, query, cb) -> {
+            Subquery<UUID> users = query.subquery(UUID.class);
+            Root<User> user = users.from(User.class);
+            users.select(user.get("userId")).where(cb.or(
+                    cb.like(cb.lower(user.get("username")), pattern, '\\'),
+                    cb.like(cb.lower(cb.concat(cb.concat(user.get("firstName"), " "), user.get("lastName"))),
+                            pattern, '\\')));
+            return root.get("assigneeId").in(users);
+        };
+    }
+
+    /**
+     * Tasks carrying at least one of the comma-separated labels (exact, case-sensitive match)
+     */
+    public static Specification<Task> hasAnyLabel(String labels) {
+        List<String> values = values(labels);
+        if (values.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(values.stream()
+                .map(label -> containsLabels(root, cb, List.of(label)))
+                .toArray(Predicate[]::new));
+    }
+
+    /**
+     * Tasks carrying every one of the comma-separated labels (exact, case-sensitive match)
+     */
+    public static Specification<Task> hasAllLabels(String labels) {
+        List<String> values = values(labels);
+        if (values.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> containsLabels(root, cb, values);
+    }
+
+    // labels @> '["a", "b"]', served by the GIN index on labels; the array is bound, not inlined
+    private static Predicate containsLabels(Root<Task> root, CriteriaBuilder cb, List<String> labels) {
+        return cb.isTrue(cb.function(JsonbFunctions.CONTAINS, Boolean.class,
+                root.get("labels"), ((HibernateCriteriaBuilder) cb).value(jsonArray(labels))));
+    }
+
+    // The helpers below are shared with the native full-text search in TaskRepositoryImpl
+
+    static UUID parseId(String value) {
+        try {
+            return UUID.fromString(value.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Lower-case LIKE pattern, escaped with backslashes, matching values that contain the text
+    static String containsPattern(String value) {
+        return "%" + value.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    static LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static OffsetDateTime startOfDay(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+
+    // The distinct values of a comma-separated list, empty for no values
+    static List<String> values(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    // The distinct lower-cased values of a comma-separated list, empty for no values
+    static List<String> lowerValues(String csv) {
+        return values(csv).stream()
+                .map(value -> value.toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+    }
+
+    // A JSON array of strings, as the right-hand side of a jsonb containment test
+    static String jsonArray(List<String> values) {
+        ArrayNode array = JsonNodeFactory.instance.arrayNode();
+        values.forEach(array::add);
+        return array.toString();
+    }
+
+    private static Specification<Task> lowerIn(String attribute, String csv) {
+        List<String> values = lowerValues(csv);
+        if (values.isEmpty()) {
+            return null;
+        }
+        // Matches the lower(...) expression indexes on tasks
+        return (root, query, cb) -> cb.lower(root.get(attribute)).in(values);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ontik.gantt_project_v1.repository;
+
+import com.ontik.gantt_project_v1.model.UserAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for UserAvailability entities
+ */
+@Repository
+public interface UserAvailabilityRepository extends JpaRepository<UserAvailability, UUID> {
+
+    /**
+     * Find the availability entries of a user ordered by start date
+     */
+    List<UserAvailability> findByUserIdOrderByStartDate(UUID userId);
+
+    /**
+     * Find the availability entries of many users in one query
+     */
+    List<UserAvailability> findByUserIdIn(Collection<UUID> userIds);
+}
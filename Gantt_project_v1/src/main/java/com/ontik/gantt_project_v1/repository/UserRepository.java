@@ -1,17 +1,22 @@
 package com.ontik.gantt_project_v1.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ontik.gantt_project_v1.model.User;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Repository interface for User entities
+ * Repository interface for User entities; JpaSpecificationExecutor serves the paginated collections
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
 
     /**
      * Find user by username
@@ -32,4 +37,10 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * Check if email exists
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Find which of the given user IDs exist
+     */
+    @Query("SELECT u.userId FROM User u WHERE u.userId IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,269 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.ontik.gantt_project_v1.calendar.Availability;
+import com.ontik.gantt_project_v1.calendar.AvailabilityChangedEvent;
+import com.ontik.gantt_project_v1.calendar.CalendarKey;
+import com.ontik.gantt_project_v1.calendar.HolidaysChangedEvent;
+import com.ontik.gantt_project_v1.calendar.WorkingDayCalendar;
+import com.ontik.gantt_project_v1.config.CalendarProperties;
+import com.ontik.gantt_project_v1.model.Holiday;
+import com.ontik.gantt_project_v1.model.UserAvailability;
+import com.ontik.gantt_project_v1.repository.HolidayRepository;
+import com.ontik.gantt_project_v1.repository.UserAvailabilityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of working-day calendars keyed by country and project.
+ * Calendars are built lazily on first use and cached; keys that resolve to the same country and work week
+ * share one calendar, so a lookup costs one hash probe however many projects and countries exist.
+ *
+ * Keys with an assignee get the shared calendar ANDed with that person's availability. Both the availability
+ * and the combined calendar are cached, so scheduling a whole team touches the database once per person at most.
+ *
+ * Keys carry request-supplied project and assignee ids, so the per-key caches are bounded: one that would
+ * outgrow its limit is emptied and refills from use. The calendars themselves are one per country and
+ * work week, and countries are validated by CalendarKey, so that map is bounded by construction.
+ */
+@Service
+public class CalendarRegistry {
+
+    // Entries kept per cache before it is emptied (keys, assignee availabilities, assignee calendars)
+    private static final int CACHE_SIZE = 10_000;
+
+    private final HolidayRepository holidayRepository;
+    private final UserAvailabilityRepository availabilityRepository;
+    private final CalendarProperties calendarProperties;
+
+    // Resolved country and work week per key, so lookups do not re-read the configuration
+    private final ConcurrentMap<CalendarKey, CalendarSpec> specs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<CalendarSpec, WorkingDayCalendar> calendars = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Availability> availabilities = new ConcurrentHashMap<>();
+    private final ConcurrentMap<AssigneeSpec, AssigneeCalendar> assigneeCalendars = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CalendarRegistry(HolidayRepository holidayRepository, UserAvailabilityRepository availabilityRepository,
+                            CalendarProperties calendarProperties) {
+        this.holidayRepository = holidayRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.calendarProperties = calendarProperties;
+    }
+
+    /**
+     * Get the calendar for a key, building and caching it on first use
+     * @throws IllegalArgumentException if the assignee's schedule has no day in common with the work week
+     */
+    public WorkingDayCalendar get(CalendarKey key) {
+        CalendarSpec spec = resolve(key);
+        WorkingDayCalendar calendar = calendars.get(spec);
+        if (calendar == null) {
+            calendar = calendars.computeIfAbsent(spec, this::build);
+        }
+        if (key.assigneeId() == null) {
+            return calendar;
+        }
+
+        // A cached combination is reused only while both of its inputs are still the current ones
+        Availability availability = getAvailability(key.assigneeId());
+        AssigneeSpec assigneeSpec = new AssigneeSpec(spec, key.assigneeId());
+        AssigneeCalendar cached = assigneeCalendars.get(assigneeSpec);
+        if (cached != null && cached.base() == calendar && cached.availability() == availability) {
+            return cached.calendar();
+        }
+        WorkingDayCalendar combined = calendar.and(availability);
+        makeRoom(assigneeCalendars, 1);
+        assigneeCalendars.put(assigneeSpec, new AssigneeCalendar(calendar, availability, combined));
+        return combined;
+    }
+
+    /**
+     * Get the calendar of a key as it would be if the given date were (or were no longer) a non-working holiday.
+     * Nothing is cached; the current calendars stay as they are.
+     */
+    public WorkingDayCalendar preview(CalendarKey key, LocalDate date, String name, boolean nonWorking) {
+        WorkingDayCalendar calendar = get(key.withoutAssignee()).withNonWorkingHoliday(date, name, nonWorking);
+        return key.assigneeId() == null ? calendar : calendar.and(getAvailability(key.assigneeId()));
+    }
+
+    /**
+     * Load the availability of many assignees with one query, skipping those already cached
+     */
+    public void preloadAvailability(Collection<UUID> userIds) {
+        Set<UUID> missing = new HashSet<>();
+        for (UUID userId : userIds) {
+            if (userId != null && !availabilities.containsKey(userId)) {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        makeRoom(availabilities, missing.size());
+        Map<UUID, List<UserAvailability>> entriesByUser = new HashMap<>();
+        for (UserAvailability entry : availabilityRepository.findByUserIdIn(missing)) {
+            entriesByUser.computeIfAbsent(entry.getUserId(), id -> new ArrayList<>()).add(entry);
+        }
+        for (UUID userId : missing) {
+            availabilities.putIfAbsent(userId, Availability.of(entriesByUser.getOrDefault(userId, List.of())));
+        }
+    }
+
+    /**
+     * Drop the cached availability of a user once a change to it has been committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        availabilities.remove(event.userId());
+        assigneeCalendars.keySet().removeIf(spec -> spec.assigneeId().equals(event.userId()));
+    }
+
+    /**
+     * Rebuild every cached calendar from the holidays table, replacing each one atomically.
+     * Readers keep using the previous calendar until its replacement is ready.
+     */
+    public void refreshAll() {
+        for (CalendarSpec spec : calendars.keySet()) {
+            calendars.put(spec, build(spec));
+        }
+        availabilities.clear();
+        assigneeCalendars.clear();
+    }
+
+    /**
+     * Rebuild only the stale year slices once a holiday change has been committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHolidaysChanged(HolidaysChangedEvent event) {
+        refreshYears(event.countryCodes(), event.years());
+    }
+
+    /**
+     * Rebuild the given years of every cached calendar that uses holidays of the given countries.
+     * The other year slices are reused, and each calendar is replaced atomically.
+     */
+    public void refreshYears(Set<String> countryCodes, Set<Integer> years) {
+        if (years.isEmpty()) {
+            return;
+        }
+        Set<String> countries = new HashSet<>();
+        for (String countryCode : countryCodes) {
+            countries.add(countryCode == null ? null : countryCode.toUpperCase(Locale.ROOT));
+        }
+        LocalDate from = LocalDate.of(Collections.min(years), 1, 1);
+        LocalDate to = LocalDate.of(Collections.max(years), 12, 31);
+
+        for (CalendarSpec spec : calendars.keySet()) {
+            // The default calendar (no country) contains every holiday, so it is always affected
+            if (spec.countryCode() != null && !countries.contains(spec.countryCode())) {
+                continue;
+            }
+            List<Holiday> holidays = spec.countryCode() == null
+                    ? holidayRepository.findHolidaysByDateRange(from, to)
+                    : holidayRepository.findByCountryCodeAndHolidayDateBetween(spec.countryCode(), from, to);
+
+            Map<Integer, List<Holiday>> holidaysByYear = new HashMap<>();
+            for (int year : years) {
+                holidaysByYear.put(year, new ArrayList<>());
+            }
+            for (Holiday holiday : holidays) {
+                List<Holiday> yearHolidays = holidaysByYear.get(holiday.getHolidayDate().getYear());
+                if (yearHolidays != null) {
+                    yearHolidays.add(holiday);
+                }
+            }
+            calendars.computeIfPresent(spec, (key, calendar) -> calendar.withYears(holidaysByYear));
+        }
+        // Combined assignee calendars are cheap to redo from the new base calendars
+        assigneeCalendars.clear();
+    }
+
+    /**
+     * Resolve the country whose holidays apply to a key (null means every holiday)
+     */
+    public String resolveCountry(CalendarKey key) {
+        if (key.countryCode() != null || key.projectId() == null) {
+            return key.countryCode();
+        }
+        CalendarProperties.ProjectCalendar project = calendarProperties.getProjects().get(key.projectId());
+        return project != null ? CalendarKey.of(project.getCountry(), null).countryCode() : null;
+    }
+
+    /**
+     * Resolve the work-week bitmask of a key: project override, then country, then the default work week
+     */
+    public int resolveWorkWeek(CalendarKey key) {
+        if (key.projectId() != null) {
+            CalendarProperties.ProjectCalendar project = calendarProperties.getProjects().get(key.projectId());
+            if (project != null && project.getWorkWeek() != null) {
+                return CalendarProperties.parseWorkWeek(project.getWorkWeek());
+            }
+        }
+        String country = resolveCountry(key);
+        String workWeek = country != null ? calendarProperties.getWorkWeek(country) : null;
+        return CalendarProperties.parseWorkWeek(workWeek != null ? workWeek : calendarProperties.getDefaultWorkWeek());
+    }
+
+    private CalendarSpec resolve(CalendarKey key) {
+        CalendarKey calendarKey = key.withoutAssignee();
+        CalendarSpec spec = specs.get(calendarKey);
+        if (spec != null) {
+            return spec;
+        }
+        makeRoom(specs, 1);
+        return specs.computeIfAbsent(calendarKey, k -> new CalendarSpec(resolveCountry(k), resolveWorkWeek(k)));
+    }
+
+    private Availability getAvailability(UUID userId) {
+        Availability availability = availabilities.get(userId);
+        if (availability != null) {
+            return availability;
+        }
+        makeRoom(availabilities, 1);
+        return availabilities.computeIfAbsent(userId,
+                id -> Availability.of(availabilityRepository.findByUserIdOrderByStartDate(id)));
+    }
+
+    // Empty a cache that would go over its limit with this many new entries
+    private static void makeRoom(Map<?, ?> cache, int adding) {
+        if (cache.size() + adding > CACHE_SIZE) {
+            cache.clear();
+        }
+    }
+
+    private WorkingDayCalendar build(CalendarSpec spec) {
+        List<Holiday> holidays = spec.countryCode() == null
+                ? holidayRepository.findAll()
+                : holidayRepository.findByCountryCode(spec.countryCode());
+        return WorkingDayCalendar.build(holidays, spec.workWeekMask());
+    }
+
+    /**
+     * What actually distinguishes two calendars: whose holidays apply and which days are worked
+     */
+    private record CalendarSpec(String countryCode, int workWeekMask) {
+    }
+
+    private record AssigneeSpec(CalendarSpec spec, UUID assigneeId) {
+    }
+
+    /**
+     * An assignee calendar together with the two inputs it was combined from
+     */
+    private record AssigneeCalendar(WorkingDayCalendar base, Availability availability, WorkingDayCalendar calendar) {
+    }
+}
@@ -1,10 +1,21 @@
 package com.ontik.gantt_project_v1.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ontik.gantt_project_v1.config.PaginationProperties;
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import com.ontik.gantt_project_v1.dto.EpicSummary;
 import com.ontik.gantt_project_v1.model.Epic;
 import com.ontik.gantt_project_v1.repository.EpicRepository;
+import com.ontik.gantt_project_v1.repository.KeysetOrder;
+import com.ontik.gantt_project_v1.repository.Projections;
+import com.ontik.gantt_project_v1.repository.VersionedUpdates;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,19 +26,41 @@ import java.util.UUID;
 @Service
 public class EpicService {
 
+    // Paginated epic collections are ordered by start date, then id
+    private static final KeysetOrder PAGE_ORDER = KeysetOrder.of("startDate", LocalDate::parse, "epicId");
+
+    // Epic fields replaced by a full update (PUT)
+    private static final List<String> UPDATE_FIELDS = List.of("name", "description", "startDate", "endDate",
+            "status", "priority", "projectId", "assignedTo", "progressPercentage", "parentEpicId", "milestoneId", "tags");
+
+    // JSON properties a merge patch cannot change
+    private static final String[] PATCH_READ_ONLY = {"id", "version", "createdAt", "updatedAt"};
+
     private final EpicRepository epicRepository;
+    private final PaginationProperties paginationProperties;
+    private final ObjectMapper objectMapper;
+    private final VersionedUpdates versionedUpdates;
+    private final Projections projections;
 
     @Autowired
-    public EpicService(EpicRepository epicRepository) {
+    public EpicService(EpicRepository epicRepository, PaginationProperties paginationProperties,
+                       ObjectMapper objectMapper, VersionedUpdates versionedUpdates, Projections projections) {
         this.epicRepository = epicRepository;
+        this.paginationProperties = paginationProperties;
+        this.objectMapper = objectMapper;
+        this.versionedUpdates = versionedUpdates;
+        this.projections = projections;
     }
 
     /**
-     * Fetches all Epic entities from the database.
-     * @return List<Epic> - a list containing all epics in the database.
+     * Fetches one page of all epics, ordered by start date.
+     * @param cursor String - the next cursor of the previous page, or null for the first page.
+     * @param limit Integer - page size, or null for the configured default.
+     * @return CursorPage<Epic> - the epics of the page and the cursor of the following page.
+     * @throws IllegalArgumentException if the cursor or page size is invalid.
      */
-    public List<Epic> getAllEpics() {
-        return epicRepository.findAll();
+    public CursorPage<Epic> getAllEpics(String cursor, Integer limit) {
+        return PAGE_ORDER.page(epicRepository, null, cursor, paginationProperties.resolveSize(limit));
     }
 
     /**
@@ -53,10 +86,13 @@ public class EpicService {
      * @param epicId UUID of the epic to update.
      * @param updatedEpic Epic object containing updated fields.
      * @return Optional<Epic> - contains the updated Epic if found and updated, or empty if not found.
+     * @throws IllegalArgumentException if the new parent epic is the epic itself or one of its descendants.
      */
     public Optional<Epic> updateEpic(UUID epicId, Epic updatedEpic) {
         return epicRepository.findById(epicId)
                 .map(existingEpic -> {
+                    checkParentMove(epicId, existingEpic.getParentEpicId(), updatedEpic.getParentEpicId());
+
                     // Update each field of the existing epic with values from updatedEpic
                     existingEpic.setName(updatedEpic.getName());
                     existingEpic.setDescription(updatedEpic.getDescription());
@@ -70,13 +106,75 @@ public class EpicService {
                     existingEpic.setParentEpicId(updatedEpic.getParentEpicId());
                     existingEpic.setMilestoneId(updatedEpic.getMilestoneId());
                     existingEpic.setTags(updatedEpic.getTags());
-                    existingEpic.setUpdatedAt(updatedEpic.getUpdatedAt());
                     
-                    // Save the updated epic back to the database and return it
+                    // Save the updated epic back to the database and return it; updatedAt is set by the entity
                     return epicRepository.save(existingEpic);
                 });
     }
 
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to an epic; only the fields present in the patch change.
+     * @param epicId UUID of the epic to patch.
+     * @param patch JsonNode - the merge patch document, a JSON object keyed like the epic JSON.
+     * @return Optional<Epic> - the patched Epic, or empty if not found.
+     * @throws IllegalArgumentException if the patch is malformed or moves the epic under its own subtree.
+     */
+    @Transactional
+    public Optional<Epic> patchEpic(UUID epicId, JsonNode patch) {
+        return epicRepository.findById(epicId)
+                .map(existingEpic -> {
+                    UUID currentParentId = existingEpic.getParentEpicId();
+                    MergePatch.apply(objectMapper, existingEpic, patch, PATCH_READ_ONLY);
+                    checkParentMove(epicId, currentParentId, existingEpic.getParentEpicId());
+                    return existingEpic;
+                });
+    }
+
+    /**
+     * Updates an epic only if it is still at the given version, in a single UPDATE ... WHERE version = ? statement
+     * @return Optional<Long> - the new version, or empty if the epic does not exist.
+     * @throws OptimisticLockingFailureException if the epic was changed since that version.
+     * @throws IllegalArgumentException if the new parent epic is the epic itself or one of its descendants.
+     */
+    @Transactional
+    public Optional<Long> updateEpicIfMatch(UUID epicId, long version, Epic updatedEpic) {
+        checkParentMove(epicId, null, updatedEpic.getParentEpicId());
+        return conditionalUpdate(epicId, version, updatedEpic, UPDATE_FIELDS);
+    }
+
+    /**
+     * Applies a JSON Merge Patch to an epic only if it is still at the given version, in a single statement
+     * @return Optional<Long> - the new version, or empty if the epic does not exist.
+     * @throws OptimisticLockingFailureException if the epic was changed since that version.
+     */
+    @Transactional
+    public Optional<Long> patchEpicIfMatch(UUID epicId, long version, JsonNode patch) {
+        Epic values = MergePatch.apply(objectMapper, new Epic(), patch, PATCH_READ_ONLY);
+        List<String> fields = MergePatch.fields(patch, PATCH_READ_ONLY);
+        if (fields.contains("parentEpicId")) {
+            checkParentMove(epicId, null, values.getParentEpicId());
+        }
+        return conditionalUpdate(epicId, version, values, fields);
+    }
+
+    private Optional<Long> conditionalUpdate(UUID epicId, long version, Epic values, List<String> fields) {
+        if (versionedUpdates.updateIfVersion(Epic.class, epicId, version, values, fields) == 1) {
+            return Optional.of(version + 1);
+        }
+        if (!epicRepository.existsById(epicId)) {
+            return Optional.empty();
+        }
+        throw new OptimisticLockingFailureException("Epic " + epicId + " has changed since version " + version);
+    }
+
+    // Moving an epic under its own subtree would make the hierarchy a cycle
+    private void checkParentMove(UUID epicId, UUID currentParentId, UUID parentEpicId) {
+        if (parentEpicId != null && !parentEpicId.equals(currentParentId)
+                && (parentEpicId.equals(epicId) || epicRepository.isInSubtree(epicId, parentEpicId))) {
+            throw new IllegalArgumentException("Epic " + epicId + " cannot be moved under its own subtree");
+        }
+    }
+
     /**
      * Deletes an Epic by its ID.
      * @param epicId UUID of the epic to delete.
@@ -99,17 +197,19 @@ public class EpicService {
     }
 
     /**
-     * Find epics by status
+     * Find one page of the epics with a status
      */
-    public List<Epic> getEpicsByStatus(String status) {
-        return epicRepository.findByStatus(status);
+    public CursorPage<Epic> getEpicsByStatus(String status, String cursor, Integer limit) {
+        return PAGE_ORDER.page(epicRepository, (root, query, cb) -> cb.equal(root.get("status"), status),
+                cursor, paginationProperties.resolveSize(limit));
     }
 
     /**
-     * Find epics by priority
+     * Find one page of the epics with a priority
      */
-    public List<Epic> getEpicsByPriority(String priority) {
-        return epicRepository.findByPriority(priority);
+    public CursorPage<Epic> getEpicsByPriority(String priority, String cursor, Integer limit) {
+        return PAGE_ORDER.page(epicRepository, (root, query, cb) -> cb.equal(root.get("priority"), priority),
+                cursor, paginationProperties.resolveSize(limit));
     }
 
     /**
@@ -126,6 +226,30 @@ public class EpicService {
         return epicRepository.findByParentEpicId(parentEpicId);
     }
 
+    /**
+     * Find the descendant epics of an epic down to maxDepth levels (null for the whole subtree),
+     * level by level and in start-date order within a level
+     */
+    public List<Epic> getSubtree(UUID epicId, Integer maxDepth) {
+        return epicRepository.findSubtree(epicId, maxDepth != null ? maxDepth : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find the chain of parent epics of an epic, root first
+     */
+    public List<Epic> getAncestors(UUID epicId) {
+        return epicRepository.findAncestors(epicId);
+    }
+
+    /**
+     * Delete an epic and all of its descendant epics; their tasks are kept without an epic
+     * @return the number of epics deleted, 0 if the epic was not found
+     */
+    @Transactional
+    public int deleteSubtree(UUID epicId) {
+        return epicRepository.deleteSubtree(epicId);
+    }
+
     /**
      * Find top-level epics (no parent)
      */
@@ -133,6 +257,38 @@ public class EpicService {
         return epicRepository.findTopLevelEpics();
     }
 
+    // ========== SUMMARY (PROJECTION) QUERIES ==========
+
+    /**
+     * Fetches one page of all epics as summaries, ordered by start date, with the same cursors as getAllEpics
+     * @throws IllegalArgumentException if the cursor or page size is invalid.
+     */
+    public CursorPage<EpicSummary> getAllEpicSummaries(String cursor, Integer limit) {
+        return projections.page(Epic.class, EpicSummary.class, PAGE_ORDER, null, cursor,
+                paginationProperties.resolveSize(limit));
+    }
+
+    /**
+     * Find the epics of a project as summaries, in start-date order
+     */
+    public List<EpicSummary> getEpicSummariesByProjectId(UUID projectId) {
+        return epicRepository.findSummariesByProjectId(projectId);
+    }
+
+    /**
+     * Find top-level epics as summaries
+     */
+    public List<EpicSummary> getTopLevelEpicSummaries() {
+        return epicRepository.findTopLevelEpicSummaries();
+    }
+
+    /**
+     * Find the child epics of a parent epic as summaries, in start-date order
+     */
+    public List<EpicSummary> getChildEpicSummaries(UUID parentEpicId) {
+        return epicRepository.findChildEpicSummaries(parentEpicId);
+    }
+
     /**
      * Count tasks under an epic
      */
@@ -0,0 +1,129 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.ontik.gantt_project_v1.calendar.CalendarKey;
+import com.ontik.gantt_project_v1.calendar.WorkingDayCalendar;
+import com.ontik.gantt_project_v1.dto.HolidayImpactRequest;
+import com.ontik.gantt_project_v1.dto.HolidayImpactResult;
+import com.ontik.gantt_project_v1.dto.TaskScheduleShift;
+import com.ontik.gantt_project_v1.model.Task;
+import com.ontik.gantt_project_v1.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service class for finding (and optionally applying) the due-date shifts caused by a holiday change
+ */
+@Service
+public class HolidayImpactService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CalendarRegistry calendarRegistry;
+
+    /**
+     * Find the tasks whose schedule window covers the changed date and whose estimated end moves with it.
+     * Only those tasks are loaded (date-range index query); each end is computed under the current and the
+     * what-if calendar in parallel, and with apply=true the moved due dates are written in JDBC batches.
+     * A due date that is not the estimated end under the current calendar is never reported or changed.
+     */
+    @Transactional
+    public HolidayImpactResult analyzeImpact(HolidayImpactRequest request) {
+        List<Task> tasks = taskRepository.findTasksScheduledAcross(request.getDate());
+        String holidayName = request.getHolidayName() != null ? request.getHolidayName() : "Holiday";
+        // Checked before the loop, so an unknown country fails the request instead of skipping every assignee
+        CalendarKey calendarKey = CalendarKey.of(request.getCountry(), request.getProjectId());
+
+        // The current and the what-if calendar per assignee, built up front so the parallel pass only reads
+        Set<UUID> assigneeIds = new HashSet<>();
+        for (Task task : tasks) {
+            assigneeIds.add(task.getAssigneeId());
+        }
+        calendarRegistry.preloadAvailability(assigneeIds);
+        Map<UUID, WorkingDayCalendar> current = new HashMap<>();
+        Map<UUID, WorkingDayCalendar> whatIf = new HashMap<>();
+        for (UUID assigneeId : assigneeIds) {
+            CalendarKey key = CalendarKey.of(calendarKey.countryCode(), calendarKey.projectId(), assigneeId);
+            try {
+                current.put(assigneeId, calendarRegistry.get(key));
+                whatIf.put(assigneeId, calendarRegistry.preview(key, request.getDate(), holidayName,
+                        request.isNonWorking()));
+            } catch (IllegalArgumentException e) {
+                current.remove(assigneeId);
+                System.err.println("Skipping tasks of assignee " + assigneeId + ": " + e.getMessage());
+            }
+        }
+
+        List<TaskScheduleShift> shifts = tasks.parallelStream()
+                .map(task -> shiftOf(task, current.get(task.getAssigneeId()), whatIf.get(task.getAssigneeId())))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(TaskScheduleShift::getStartDate))
+                .toList();
+        int skipped = (int) tasks.stream().filter(task -> !whatIf.containsKey(task.getAssigneeId())).count();
+        // Due dates that were not derived from the estimate are left alone, whatever the calendar does
+        int manual = (int) tasks.stream()
+                .filter(task -> current.containsKey(task.getAssigneeId()))
+                .filter(task -> {
+                    LocalDate end = estimatedEnd(task, current.get(task.getAssigneeId()));
+                    return end != null && !end.equals(task.getDueDate());
+                })
+                .count();
+
+        if (request.isApply() && !shifts.isEmpty()) {
+            Map<UUID, Task> tasksById = new HashMap<>();
+            for (Task task : tasks) {
+                tasksById.put(task.getTaskId(), task);
+            }
+            OffsetDateTime now = OffsetDateTime.now();
+            List<Task> changed = new ArrayList<>(shifts.size());
+            for (TaskScheduleShift shift : shifts) {
+                Task task = tasksById.get(shift.getTaskId());
+                task.setDueDate(shift.getNewDueDate());
+                task.setUpdatedAt(now);
+                changed.add(task);
+            }
+            taskRepository.saveAll(changed);
+        }
+        return new HolidayImpactResult(request.getDate(), request.isNonWorking(), tasks.size(), skipped, manual,
+                request.isApply(), shifts);
+    }
+
+    /**
+     * Shift of one task: its estimated end under the current calendar against the same under the what-if one.
+     * Null when the holiday does not move that end, or when the stored due date is not the estimated end
+     * (it was set by hand or has drifted), so the change is not what the due date depends on.
+     */
+    private TaskScheduleShift shiftOf(Task task, WorkingDayCalendar current, WorkingDayCalendar whatIf) {
+        if (current == null || whatIf == null) {
+            return null;
+        }
+        LocalDate oldEnd = estimatedEnd(task, current);
+        LocalDate newEnd = estimatedEnd(task, whatIf);
+        if (oldEnd == null || oldEnd.equals(newEnd) || !oldEnd.equals(task.getDueDate())) {
+            return null;
+        }
+        return new TaskScheduleShift(task.getTaskId(), task.getTitle(), task.getAssigneeId(), task.getStartDate(),
+                oldEnd, newEnd, ChronoUnit.DAYS.between(oldEnd, newEnd));
+    }
+
+    // End of the task's estimate counted from its start date, or null for an empty estimate
+    private static LocalDate estimatedEnd(Task task, WorkingDayCalendar calendar) {
+        int estimateDays = HolidayService.estimateDays(task.getOriginalEstimate());
+        return estimateDays > 0 ? calendar.plusWorkingDays(task.getStartDate(), estimateDays) : null;
+    }
+}
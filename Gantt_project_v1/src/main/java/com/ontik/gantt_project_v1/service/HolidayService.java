@@ -1,13 +1,42 @@
 package com.ontik.gantt_project_v1.service;
 
+import com.ontik.gantt_project_v1.calendar.CalendarKey;
+import com.ontik.gantt_project_v1.calendar.HolidaysChangedEvent;
+import com.ontik.gantt_project_v1.calendar.ICalendarReader;
+import com.ontik.gantt_project_v1.calendar.WorkingDayCalendar;
+import com.ontik.gantt_project_v1.config.CalendarProperties;
+import com.ontik.gantt_project_v1.dto.EndDateCalculationRequest;
+import com.ontik.gantt_project_v1.dto.EndDateCalculationResult;
+import com.ontik.gantt_project_v1.dto.HolidayImportResult;
 import com.ontik.gantt_project_v1.model.Holiday;
 import com.ontik.gantt_project_v1.repository.HolidayRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.time.DayOfWeek;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
 
 /**
  * Service class for managing Holiday operations and working day calculations
@@ -18,6 +47,51 @@ public class HolidayService {
     @Autowired
     private HolidayRepository holidayRepository;
 
+    @Autowired
+    private CalendarRegistry calendarRegistry;
+
+    @Autowired
+    private CalendarProperties calendarProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Date range allowed by the chk_holiday_date constraint of the holidays table
+    private static final LocalDate FIRST_HOLIDAY_DATE = LocalDate.of(2020, 1, 1);
+    private static final LocalDate LAST_HOLIDAY_DATE = LocalDate.of(2050, 12, 31);
+
+    // Rows per JDBC batch during bulk imports, matches hibernate.jdbc.batch_size
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    /**
+     * Get the default working-day calendar, loading it from the holidays table on first use
+     */
+    public WorkingDayCalendar getCalendar() {
+        return calendarRegistry.get(CalendarKey.DEFAULT);
+    }
+
+    /**
+     * Get the working-day calendar of a country and/or project, loading it on first use
+     */
+    public WorkingDayCalendar getCalendar(CalendarKey key) {
+        return calendarRegistry.get(key);
+    }
+
+    /**
+     * Get the country whose holidays apply to a calendar key, null when every holiday applies
+     */
+    public String resolveCountry(CalendarKey key) {
+        return calendarRegistry.resolveCountry(key);
+    }
+
+    /**
+     * Rebuild the cached working-day calendars from the holidays table and swap them in atomically
+     */
+    public WorkingDayCalendar refreshCalendar() {
+        calendarRegistry.refreshAll();
+        return getCalendar();
+    }
+
     /**
      * Get all holidays
      */
@@ -25,6 +99,196 @@ public class HolidayService {
         return holidayRepository.findAll();
     }
 
+    /**
+     * Get holiday by ID
+     */
+    public Optional<Holiday> getHolidayById(UUID holidayId) {
+        return holidayRepository.findById(holidayId);
+    }
+
+    /**
+     * Create a holiday and rebuild the calendar slice of its year
+     * @throws IllegalArgumentException if the country is not an ISO 3166 code
+     */
+    @Transactional
+    public Holiday createHoliday(Holiday holiday) {
+        OffsetDateTime now = OffsetDateTime.now();
+        holiday.setCountryCode(normalizeCountry(holiday.getCountryCode()));
+        holiday.setHolidayId(null);
+        holiday.setCreatedAt(now);
+        holiday.setUpdatedAt(now);
+        Holiday saved = holidayRepository.save(holiday);
+        publishChange(Arrays.asList(saved.getCountryCode()), List.of(saved.getHolidayDate()));
+        return saved;
+    }
+
+    /**
+     * Update a holiday and rebuild the calendar slices of its old and new year
+     * @throws IllegalArgumentException if the country is not an ISO 3166 code
+     */
+    @Transactional
+    public Optional<Holiday> updateHoliday(UUID holidayId, Holiday updatedHoliday) {
+        String countryCode = normalizeCountry(updatedHoliday.getCountryCode());
+        return holidayRepository.findById(holidayId)
+                .map(existingHoliday -> {
+                    LocalDate previousDate = existingHoliday.getHolidayDate();
+                    String previousCountryCode = existingHoliday.getCountryCode();
+
+                    existingHoliday.setHolidayDate(updatedHoliday.getHolidayDate());
+                    existingHoliday.setHolidayName(updatedHoliday.getHolidayName());
+                    existingHoliday.setHolidayType(updatedHoliday.getHolidayType());
+                    existingHoliday.setIsWorkingDay(updatedHoliday.getIsWorkingDay());
+                    existingHoliday.setDescription(updatedHoliday.getDescription());
+                    existingHoliday.setCountryCode(countryCode);
+                    existingHoliday.setUpdatedAt(OffsetDateTime.now());
+
+                    Holiday saved = holidayRepository.save(existingHoliday);
+                    publishChange(Arrays.asList(previousCountryCode, saved.getCountryCode()),
+                            List.of(previousDate, saved.getHolidayDate()));
+                    return saved;
+                });
+    }
+
+    /**
+     * Delete a holiday and rebuild the calendar slice of its year
+     */
+    @Transactional
+    public boolean deleteHoliday(UUID holidayId) {
+        Optional<Holiday> holiday = holidayRepository.findById(holidayId);
+        if (holiday.isEmpty()) {
+            return false;
+        }
+        holidayRepository.delete(holiday.get());
+        publishChange(Arrays.asList(holiday.get().getCountryCode()), List.of(holiday.get().getHolidayDate()));
+        return true;
+    }
+
+    /**
+     * Import holidays from an iCalendar (.ics) stream in one transaction.
+     * Events are read one at a time and inserted in JDBC batches; a multi-day event becomes one holiday per day.
+     * Dates that already have a holiday in this country are updated instead: they get the imported name,
+     * description, type and working-day flag.
+     * @throws IllegalArgumentException if the country is missing or not an ISO 3166 code
+     */
+    @Transactional
+    public HolidayImportResult importICalendar(InputStream source, String country, String holidayType,
+                                               boolean isWorkingDay) throws IOException {
+        String countryCode = normalizeCountry(country);
+        if (countryCode == null) {
+            throw new IllegalArgumentException("country is required");
+        }
+        Map<LocalDate, Holiday> holidaysByDate = new HashMap<>();
+        for (Holiday existing : holidayRepository.findByCountryCode(countryCode)) {
+            holidaysByDate.put(existing.getHolidayDate(), existing);
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Holiday> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        TreeSet<Integer> years = new TreeSet<>();
+        int[] counts = new int[3]; // created, updated, skipped
+
+        ICalendarReader.read(new InputStreamReader(source, StandardCharsets.UTF_8), event -> {
+            for (LocalDate date = event.startDate(); date.isBefore(event.endDate()); date = date.plusDays(1)) {
+                if (date.isBefore(FIRST_HOLIDAY_DATE) || date.isAfter(LAST_HOLIDAY_DATE)) {
+                    counts[2]++;
+                    continue;
+                }
+                String name = event.summary() != null && !event.summary().isBlank() ? event.summary() : "Holiday";
+                Holiday holiday = holidaysByDate.get(date);
+                if (holiday != null) {
+                    holiday.setHolidayName(name);
+                    holiday.setDescription(event.description());
+                    holiday.setHolidayType(holidayType);
+                    holiday.setIsWorkingDay(isWorkingDay);
+                    holiday.setUpdatedAt(now);
+                    counts[1]++;
+                } else {
+                    holiday = Holiday.builder()
+                            .holidayDate(date)
+                            .holidayName(name)
+                            .holidayType(holidayType)
+                            .isWorkingDay(isWorkingDay)
+                            .description(event.description())
+                            .countryCode(countryCode)
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .build();
+                    holidaysByDate.put(date, holiday);
+                    batch.add(holiday);
+                    counts[0]++;
+                }
+                years.add(date.getYear());
+
+                if (batch.size() >= IMPORT_BATCH_SIZE) {
+                    holidayRepository.saveAll(batch);
+                    holidayRepository.flush();
+                    batch.clear();
+                }
+            }
+        });
+        holidayRepository.saveAll(batch);
+        holidayRepository.flush();
+
+        eventPublisher.publishEvent(new HolidaysChangedEvent(Set.of(countryCode), years));
+        return new HolidayImportResult(countryCode, counts[0], counts[1], counts[2], years);
+    }
+
+    /**
+     * Announce which countries and years changed; the calendar registry rebuilds them after commit
+     */
+    private void publishChange(List<String> countryCodes, List<LocalDate> dates) {
+        Set<Integer> years = new HashSet<>();
+        for (LocalDate date : dates) {
+            years.add(date.getYear());
+        }
+        eventPublisher.publishEvent(new HolidaysChangedEvent(new HashSet<>(countryCodes), years));
+    }
+
+    /**
+     * Rebuild the whole calendar_days table on startup, so it follows the configured default work week.
+     * An invalid gantt.calendar.default-work-week fails the startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshCalendarDaysOnStartup() {
+        int workWeekMask = defaultWorkWeekMask();
+        try {
+            holidayRepository.refreshCalendarDays(FIRST_HOLIDAY_DATE, workWeekMask);
+        } catch (DataAccessException e) {
+            System.err.println("Error refreshing calendar_days: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Keep the calendar_days table in step with committed holiday changes, from the earliest changed year on.
+     * A failure is logged rather than thrown, since the holiday write itself has already been committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void refreshCalendarDays(HolidaysChangedEvent event) {
+        if (event.years().isEmpty()) {
+            return;
+        }
+        try {
+            holidayRepository.refreshCalendarDays(LocalDate.of(Collections.min(event.years()), 1, 1),
+                    defaultWorkWeekMask());
+        } catch (DataAccessException e) {
+            System.err.println("Error refreshing calendar_days: " + e.getMessage());
+        }
+    }
+
+    // Upper-case ISO country code of a holiday, or null; unknown codes are rejected as in calendar requests
+    private static String normalizeCountry(String country) {
+        return CalendarKey.of(country, null).countryCode();
+    }
+
+    // Work week of the default calendar, which calendar_days follows
+    private int defaultWorkWeekMask() {
+        int workWeekMask = CalendarProperties.parseWorkWeek(calendarProperties.getDefaultWorkWeek());
+        if (workWeekMask == 0) {
+            throw new IllegalArgumentException("gantt.calendar.default-work-week must contain at least one day");
+        }
+        return workWeekMask;
+    }
+
     /**
      * Get holidays within a date range
      */
@@ -43,96 +307,162 @@ public class HolidayService {
      * Check if a date is a working day (not weekend and not a non-working holiday)
      */
     public boolean isWorkingDay(LocalDate date) {
-        // Check if it's a weekend
-        if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
-            return false;
-        }
-        
-        // Check if it's a non-working holiday
-        return !holidayRepository.isNonWorkingHoliday(date);
+        return isWorkingDay(date, CalendarKey.DEFAULT);
+    }
+
+    /**
+     * Check if a date is a working day in the given calendar
+     */
+    public boolean isWorkingDay(LocalDate date, CalendarKey key) {
+        return getCalendar(key).isWorkingDay(date);
     }
 
     /**
      * Get the next working day from the given date
      */
     public LocalDate getNextWorkingDay(LocalDate date) {
-        LocalDate nextDay = date.plusDays(1);
-        while (!isWorkingDay(nextDay)) {
-            nextDay = nextDay.plusDays(1);
-        }
-        return nextDay;
+        return getNextWorkingDay(date, CalendarKey.DEFAULT);
     }
 
     /**
-     * Calculate end date based on start date and estimate days (excluding weekends and holidays)
+     * Get the next working day from the given date in the given calendar
      */
-    public LocalDate calculateEndDate(LocalDate startDate, int estimateDays) {
-        if (estimateDays <= 0) {
-            return startDate;
-        }
-
-        LocalDate currentDate = startDate;
-        int workingDaysAdded = 0;
+    public LocalDate getNextWorkingDay(LocalDate date, CalendarKey key) {
+        return getCalendar(key).nextWorkingDay(date);
+    }
 
-        // If start date is not a working day, move to next working day
-        if (!isWorkingDay(currentDate)) {
-            currentDate = getNextWorkingDay(currentDate);
+    /**
+     * Whole working days of a stored estimate (a P{n}D duration), with a partial day counting as a full one.
+     * The forms round a fractional estimate up the same way before asking for an end date.
+     */
+    public static int estimateDays(Duration estimate) {
+        if (estimate == null || estimate.isNegative() || estimate.isZero()) {
+            return 0;
         }
+        long fullDays = estimate.toDays();
+        return Math.toIntExact(estimate.equals(Duration.ofDays(fullDays)) ? fullDays : fullDays + 1);
+    }
 
-        while (workingDaysAdded < estimateDays) {
-            if (isWorkingDay(currentDate)) {
-                workingDaysAdded++;
-                if (workingDaysAdded < estimateDays) {
-                    currentDate = currentDate.plusDays(1);
-                }
-            } else {
-                currentDate = currentDate.plusDays(1);
-            }
-        }
+    /**
+     * Calculate end date based on start date and estimate days (excluding weekends and holidays)
+     */
+    public LocalDate calculateEndDate(LocalDate startDate, int estimateDays) {
+        return calculateEndDate(startDate, estimateDays, CalendarKey.DEFAULT);
+    }
 
-        return currentDate;
+    /**
+     * Calculate end date based on start date and estimate days in the given calendar
+     */
+    public LocalDate calculateEndDate(LocalDate startDate, int estimateDays, CalendarKey key) {
+        return getCalendar(key).plusWorkingDays(startDate, estimateDays);
     }
 
     /**
      * Calculate the number of working days between two dates
      */
     public int calculateWorkingDaysBetween(LocalDate startDate, LocalDate endDate) {
-        if (startDate.isAfter(endDate)) {
-            return 0;
-        }
-
-        int workingDays = 0;
-        LocalDate currentDate = startDate;
-
-        while (!currentDate.isAfter(endDate)) {
-            if (isWorkingDay(currentDate)) {
-                workingDays++;
-            }
-            currentDate = currentDate.plusDays(1);
-        }
+        return calculateWorkingDaysBetween(startDate, endDate, CalendarKey.DEFAULT);
+    }
 
-        return workingDays;
+    /**
+     * Calculate the number of working days between two dates in the given calendar
+     */
+    public int calculateWorkingDaysBetween(LocalDate startDate, LocalDate endDate, CalendarKey key) {
+        return getCalendar(key).workingDaysBetween(startDate, endDate);
     }
 
     /**
      * Validate if the selected end date is valid based on start date and estimate
      */
     public boolean validateEndDate(LocalDate startDate, int estimateDays, LocalDate selectedEndDate) {
-        LocalDate calculatedEndDate = calculateEndDate(startDate, estimateDays);
+        return validateEndDate(startDate, estimateDays, selectedEndDate, CalendarKey.DEFAULT);
+    }
+
+    /**
+     * Validate if the selected end date is valid based on start date and estimate in the given calendar
+     */
+    public boolean validateEndDate(LocalDate startDate, int estimateDays, LocalDate selectedEndDate, CalendarKey key) {
+        LocalDate calculatedEndDate = calculateEndDate(startDate, estimateDays, key);
         return !selectedEndDate.isBefore(calculatedEndDate);
     }
 
+    /**
+     * Calculate (and optionally validate) end dates for many rows against one calendar snapshot per key,
+     * so every row sees the same holidays even if the calendars are refreshed meanwhile.
+     * Rows with an assigneeId also honor that person's leave and weekly schedule.
+     */
+    public List<EndDateCalculationResult> calculateEndDates(List<EndDateCalculationRequest> requests) {
+        Map<CalendarKey, WorkingDayCalendar> snapshots = new HashMap<>();
+        List<EndDateCalculationResult> results = new ArrayList<>(requests.size());
+
+        // One query for the availability of every assignee in the batch, the rest is in memory
+        Set<UUID> assigneeIds = new HashSet<>();
+        for (EndDateCalculationRequest request : requests) {
+            if (request.getAssigneeId() != null) {
+                assigneeIds.add(request.getAssigneeId());
+            }
+        }
+        calendarRegistry.preloadAvailability(assigneeIds);
+
+        for (EndDateCalculationRequest request : requests) {
+            EndDateCalculationResult.EndDateCalculationResultBuilder result = EndDateCalculationResult.builder()
+                    .startDate(request.getStartDate())
+                    .estimateDays(request.getEstimateDays())
+                    .selectedEndDate(request.getSelectedEndDate());
+
+            if (request.getStartDate() == null || request.getEstimateDays() == null) {
+                results.add(result.error("startDate and estimateDays are required").build());
+                continue;
+            }
+
+            WorkingDayCalendar snapshot;
+            try {
+                snapshot = snapshots.computeIfAbsent(
+                        CalendarKey.of(request.getCountry(), request.getProjectId(), request.getAssigneeId()),
+                        this::getCalendar);
+            } catch (IllegalArgumentException e) {
+                results.add(result.error(e.getMessage()).build());
+                continue;
+            }
+            LocalDate calculatedEndDate = snapshot.plusWorkingDays(request.getStartDate(), request.getEstimateDays());
+            result.calculatedEndDate(calculatedEndDate)
+                    .isWorkingDay(snapshot.isWorkingDay(calculatedEndDate));
+
+            if (request.getSelectedEndDate() != null) {
+                boolean isValid = !request.getSelectedEndDate().isBefore(calculatedEndDate);
+                result.isValid(isValid)
+                        .message(isValid ? "Valid end date" : "End date must be on or after " + calculatedEndDate);
+            }
+            results.add(result.build());
+        }
+        return results;
+    }
+
     /**
      * Check if a specific date is a holiday
      */
     public boolean isHoliday(LocalDate date) {
-        return holidayRepository.existsByHolidayDate(date);
+        return isHoliday(date, CalendarKey.DEFAULT);
+    }
+
+    /**
+     * Check if a specific date is a holiday in the given calendar
+     */
+    public boolean isHoliday(LocalDate date, CalendarKey key) {
+        return getCalendar(key).isHoliday(date);
     }
 
     /**
      * Check if a specific date is a non-working holiday
      */
     public boolean isNonWorkingHoliday(LocalDate date) {
-        return holidayRepository.isNonWorkingHoliday(date);
+        return isNonWorkingHoliday(date, CalendarKey.DEFAULT);
+    }
+
+    /**
+     * Check if a specific date is a non-working holiday in the given calendar
+     */
+    public boolean isNonWorkingHoliday(LocalDate date, CalendarKey key) {
+        return getCalendar(key).isNonWorkingHoliday(date);
     }
 }
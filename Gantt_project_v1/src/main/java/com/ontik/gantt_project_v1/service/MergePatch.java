@@ -0,0 +1,55 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies JSON Merge Patch (RFC 7396) documents to entities.
+ * Entity fields are scalars or arrays, so a member of the patch replaces the field, null clears it,
+ * and an absent member leaves it untouched. The entity stays managed, so with @DynamicUpdate only
+ * the columns the patch actually changed are written.
+ */
+final class MergePatch {
+
+    private MergePatch() {
+    }
+
+    /**
+     * Apply a patch to an entity in place, ignoring the given JSON properties (ids and timestamps)
+     * @throws IllegalArgumentException if the patch is not a JSON object or a value does not fit its field
+     */
+    static <T> T apply(ObjectMapper objectMapper, T entity, JsonNode patch, String... readOnlyProperties) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        ObjectNode changes = ((ObjectNode) patch).deepCopy();
+        changes.remove(List.of(readOnlyProperties));
+        try {
+            return objectMapper.readerForUpdating(entity).readValue(changes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid merge patch", e);
+        }
+    }
+
+    /**
+     * The members of a patch other than the given read-only properties, i.e. the fields it changes
+     */
+    static List<String> fields(JsonNode patch, String... readOnlyProperties) {
+        List<String> readOnly = List.of(readOnlyProperties);
+        List<String> fields = new ArrayList<>();
+        patch.fieldNames().forEachRemaining(name -> {
+            if (!readOnly.contains(name)) {
+                fields.add(name);
+            }
+        });
+        return fields;
+    }
+}
@@ -1,23 +1,52 @@
 package com.ontik.gantt_project_v1.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ontik.gantt_project_v1.config.PaginationProperties;
+import com.ontik.gantt_project_v1.dto.CursorPage;
 import com.ontik.gantt_project_v1.model.Project;
+import com.ontik.gantt_project_v1.repository.KeysetOrder;
 import com.ontik.gantt_project_v1.repository.ProjectRepository;
+import com.ontik.gantt_project_v1.repository.VersionedUpdates;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 public class ProjectService {
     
+    // Paginated project collections are ordered by name, then id
+    private static final KeysetOrder PAGE_ORDER = KeysetOrder.of("projectName", Function.identity(), "projectId");
+    
+    // Project fields replaced by a full update (PUT)
+    private static final List<String> UPDATE_FIELDS = List.of("projectName", "projectDescription", "startDate",
+            "endDate", "status", "priority", "budget", "projectManagerId", "clientName", "projectType",
+            "completionPercentage", "tags");
+    
+    // JSON properties a merge patch cannot change
+    private static final String[] PATCH_READ_ONLY = {"projectId", "version", "createdAt", "updatedAt"};
+    
     @Autowired
     private ProjectRepository projectRepository;
     
-    // Get all projects
-    public List<Project> getAllProjects() {
-        return projectRepository.findAllOrderByName();
+    @Autowired
+    private PaginationProperties paginationProperties;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private VersionedUpdates versionedUpdates;
+    
+    // Get one page of all projects, ordered by name
+    public CursorPage<Project> getAllProjects(String cursor, Integer limit) {
+        return PAGE_ORDER.page(projectRepository, null, cursor, paginationProperties.resolveSize(limit));
     }
     
     // Get all active projects
@@ -56,14 +85,46 @@ public class ProjectService {
                 .orElseThrow(() -> new RuntimeException("Project not found with id: " + projectId));
     }
     
+    // Apply a JSON Merge Patch (RFC 7396): only the fields present change, and only those columns are written
+    @Transactional
+    public Optional<Project> patchProject(UUID projectId, JsonNode patch) {
+        return projectRepository.findById(projectId)
+                .map(project -> MergePatch.apply(objectMapper, project, patch, PATCH_READ_ONLY));
+    }
+    
+    // Update a project in one statement if it is still at the given version;
+    // empty if it does not exist, OptimisticLockingFailureException if it has changed
+    @Transactional
+    public Optional<Long> updateProjectIfMatch(UUID projectId, long version, Project updatedProject) {
+        return conditionalUpdate(projectId, version, updatedProject, UPDATE_FIELDS);
+    }
+    
+    // Apply a merge patch in one statement, setting only the fields it contains, if the version still matches
+    @Transactional
+    public Optional<Long> patchProjectIfMatch(UUID projectId, long version, JsonNode patch) {
+        Project values = MergePatch.apply(objectMapper, new Project(), patch, PATCH_READ_ONLY);
+        return conditionalUpdate(projectId, version, values, MergePatch.fields(patch, PATCH_READ_ONLY));
+    }
+    
+    private Optional<Long> conditionalUpdate(UUID projectId, long version, Project values, List<String> fields) {
+        if (versionedUpdates.updateIfVersion(Project.class, projectId, version, values, fields) == 1) {
+            return Optional.of(version + 1);
+        }
+        if (!projectRepository.existsById(projectId)) {
+            return Optional.empty();
+        }
+        throw new OptimisticLockingFailureException("Project " + projectId + " has changed since version " + version);
+    }
+    
     // Delete a project
     public void deleteProject(UUID projectId) {
         projectRepository.deleteById(projectId);
     }
     
-    // Get projects by status
-    public List<Project> getProjectsByStatus(String status) {
-        return projectRepository.findByStatus(status);
+    // Get one page of the projects with a status, ordered by name
+    public CursorPage<Project> getProjectsByStatus(String status, String cursor, Integer limit) {
+        return PAGE_ORDER.page(projectRepository, (root, query, cb) -> cb.equal(root.get("status"), status),
+                cursor, paginationProperties.resolveSize(limit));
     }
     
     // Get projects by client
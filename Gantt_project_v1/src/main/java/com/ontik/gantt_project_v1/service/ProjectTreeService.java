@@ -0,0 +1,134 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.ontik.gantt_project_v1.calendar.CalendarKey;
+import com.ontik.gantt_project_v1.calendar.WorkingDayCalendar;
+import com.ontik.gantt_project_v1.dto.ProjectTree;
+import com.ontik.gantt_project_v1.model.Epic;
+import com.ontik.gantt_project_v1.model.Task;
+import com.ontik.gantt_project_v1.repository.EpicRepository;
+import com.ontik.gantt_project_v1.repository.ProjectRepository;
+import com.ontik.gantt_project_v1.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service class assembling the project → epics → tasks → subtasks hierarchy.
+ * The whole tree costs three queries (project, its epics, their tasks and subtasks at every depth) plus one
+ * for the assignees' availability, whatever its size; the nesting is done in memory.
+ */
+@Service
+public class ProjectTreeService {
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EpicRepository epicRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CalendarRegistry calendarRegistry;
+
+    /**
+     * Get the hierarchy of a project, or empty if the project does not exist.
+     * Epic and project spans use the project's calendar; task spans also honor the assignee's availability.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProjectTree> getProjectTree(UUID projectId) {
+        return projectRepository.findById(projectId).map(project -> {
+            List<Epic> epics = epicRepository.findByProjectIdOrderByStartDate(projectId);
+            List<Task> tasks = taskRepository.findProjectTasks(projectId);
+
+            Set<UUID> assigneeIds = new HashSet<>();
+            for (Task task : tasks) {
+                if (task.getAssigneeId() != null) {
+                    assigneeIds.add(task.getAssigneeId());
+                }
+            }
+            calendarRegistry.preloadAvailability(assigneeIds);
+            Map<CalendarKey, WorkingDayCalendar> calendars = new HashMap<>();
+            CalendarKey projectKey = CalendarKey.of(null, projectId);
+
+            ProjectTree tree = new ProjectTree(project,
+                    workingDays(calendars, projectKey, project.getStartDate(), project.getEndDate()));
+
+            // Epics in start-date order; a child epic goes under its parent when the parent is in this project
+            Map<UUID, ProjectTree.EpicNode> epicNodes = new LinkedHashMap<>();
+            for (Epic epic : epics) {
+                epicNodes.put(epic.getEpicId(), new ProjectTree.EpicNode(epic,
+                        workingDays(calendars, projectKey, epic.getStartDate(), epic.getEndDate())));
+            }
+            for (ProjectTree.EpicNode node : epicNodes.values()) {
+                ProjectTree.EpicNode parent = node.getEpic().getParentEpicId() != null
+                        ? epicNodes.get(node.getEpic().getParentEpicId()) : null;
+                if (parent != null) {
+                    parent.getChildEpics().add(node);
+                } else {
+                    tree.getEpics().add(node);
+                }
+            }
+
+            // Tasks in start-date order; a task goes under its parent task if that is in the tree, else its epic
+            Map<UUID, ProjectTree.TaskNode> taskNodes = new LinkedHashMap<>();
+            for (Task task : tasks) {
+                CalendarKey key = CalendarKey.of(null, projectId, task.getAssigneeId());
+                taskNodes.put(task.getTaskId(), new ProjectTree.TaskNode(task,
+                        workingDays(calendars, key, task.getStartDate(), task.getDueDate())));
+            }
+            for (ProjectTree.TaskNode node : taskNodes.values()) {
+                Task task = node.getTask();
+                ProjectTree.TaskNode parentTask = task.getParentTaskId() != null
+                        ? taskNodes.get(task.getParentTaskId()) : null;
+                if (parentTask != null) {
+                    parentTask.getSubtasks().add(node);
+                } else {
+                    ProjectTree.EpicNode epic = task.getEpicId() != null ? epicNodes.get(task.getEpicId()) : null;
+                    if (epic != null) {
+                        epic.getTasks().add(node);
+                    }
+                }
+            }
+
+            for (ProjectTree.TaskNode node : taskNodes.values()) {
+                node.setChildCount(node.getSubtasks().size());
+            }
+            for (ProjectTree.EpicNode node : epicNodes.values()) {
+                node.setChildCount(node.getChildEpics().size() + node.getTasks().size());
+            }
+            tree.setChildCount(tree.getEpics().size());
+            tree.setTaskCount(taskNodes.size());
+            return tree;
+        });
+    }
+
+    // Working days from start to end inclusive, or null without both dates or for an unknown calendar
+    private Integer workingDays(Map<CalendarKey, WorkingDayCalendar> calendars, CalendarKey key,
+                                LocalDate start, LocalDate end) {
+        if (start == null || end == null) {
+            return null;
+        }
+        WorkingDayCalendar calendar = calendars.get(key);
+        if (calendar == null) {
+            try {
+                calendar = calendarRegistry.get(key);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            calendars.put(key, calendar);
+        }
+        return calendar.workingDaysBetween(start, end);
+    }
+}
@@ -0,0 +1,441 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.ontik.gantt_project_v1.calendar.CalendarKey;
+import com.ontik.gantt_project_v1.calendar.WorkingDayCalendar;
+import com.ontik.gantt_project_v1.dto.TaskBulkChangeResult;
+import com.ontik.gantt_project_v1.dto.TaskBulkMove;
+import com.ontik.gantt_project_v1.dto.TaskBulkResult;
+import com.ontik.gantt_project_v1.dto.TaskReschedule;
+import com.ontik.gantt_project_v1.dto.TaskRescheduleRequest;
+import com.ontik.gantt_project_v1.dto.TaskRescheduleResult;
+import com.ontik.gantt_project_v1.model.Task;
+import com.ontik.gantt_project_v1.repository.EpicRepository;
+import com.ontik.gantt_project_v1.repository.TaskRepository;
+import com.ontik.gantt_project_v1.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Service class for creating, updating, deleting, moving and rescheduling many tasks in one transaction.
+ * Every item is validated up front, with reference checks done as a few IN queries for the whole request;
+ * creates, updates and reschedules then go out as JDBC batches of hibernate.jdbc.batch_size rows, while
+ * deletes and moves are single set-based statements over an array of ids.
+ */
+@Service
+public class TaskBulkService {
+
+    // Allowed values of the tasks table CHECK constraints
+    private static final List<String> TYPES = List.of("task", "story", "sub_task");
+    private static final List<String> STATUSES = List.of("To Do", "In Progress", "Done");
+    private static final List<String> PRIORITIES = List.of("High", "Medium", "Low");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EpicRepository epicRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CalendarRegistry calendarRegistry;
+
+    // Tasks written per flush; matches the JDBC batch size so each flush is one batch per statement
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int chunkSize;
+
+    /**
+     * Create all the tasks, or none of them if any is invalid.
+     * Items must not carry an id; ids are generated.
+     */
+    @Transactional
+    public TaskBulkResult createTasks(List<Task> tasks) {
+        TaskBulkResult result = validate(tasks, false);
+        if (result.hasErrors()) {
+            return result;
+        }
+        for (int from = 0; from < tasks.size(); from += chunkSize) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + chunkSize, tasks.size()));
+            // A version sent by the client would make Spring Data treat the task as existing and merge it
+            chunk.forEach(task -> task.setVersion(null));
+            result.getTasks().addAll(taskRepository.saveAll(chunk));
+            taskRepository.flushAndClear();
+        }
+        result.setSaved(result.getTasks().size());
+        return result;
+    }
+
+    /**
+     * Update all the tasks, identified by their ids, or none of them if any is invalid or missing
+     */
+    @Transactional
+    public TaskBulkResult updateTasks(List<Task> tasks) {
+        TaskBulkResult result = validate(tasks, true);
+        if (result.hasErrors()) {
+            return result;
+        }
+        for (int from = 0; from < tasks.size(); from += chunkSize) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + chunkSize, tasks.size()));
+            Map<UUID, Task> existing = new HashMap<>();
+            for (Task task : taskRepository.findAllById(chunk.stream().map(Task::getTaskId).toList())) {
+                existing.put(task.getTaskId(), task);
+            }
+            for (Task updatedTask : chunk) {
+                Task existingTask = existing.get(updatedTask.getTaskId());
+                TaskService.applyUpdate(existingTask, updatedTask);
+                result.getTasks().add(existingTask);
+            }
+            taskRepository.flushAndClear();
+        }
+        result.setSaved(result.getTasks().size());
+        return result;
+    }
+
+    /**
+     * Delete all the tasks, or none of them if any is missing.
+     * With subtasks, every descendant of the tasks is deleted too; otherwise their direct subtasks are
+     * detached first (made top-level) in one UPDATE, instead of row by row through ON DELETE SET NULL.
+     */
+    @Transactional
+    public TaskBulkChangeResult deleteTasks(List<UUID> ids, boolean subtasks) {
+        TaskBulkChangeResult result = new TaskBulkChangeResult();
+        Set<UUID> taskIds = existingTasks(ids, result.getErrors());
+        if (result.hasErrors()) {
+            return result;
+        }
+        UUID[] array = taskIds.toArray(new UUID[0]);
+        if (subtasks) {
+            result.setTasks(taskRepository.deleteSubtrees(array));
+        } else {
+            taskRepository.detachSubtasks(array);
+            result.setTasks(taskRepository.deleteAllByIds(array));
+        }
+        return result;
+    }
+
+    /**
+     * Give all the tasks the epic, parent task and/or sprint present in the move, or none of them if any
+     * task is missing or a target is invalid. Subtasks always stay under their moved parent; with subtasks,
+     * the new epic and sprint are applied to them as well.
+     */
+    @Transactional
+    public TaskBulkChangeResult moveTasks(TaskBulkMove move, boolean subtasks) {
+        TaskBulkChangeResult result = new TaskBulkChangeResult();
+        List<String> errors = result.getErrors();
+        Set<UUID> taskIds = existingTasks(move.getIds(), errors);
+        if (move.getFields().isEmpty()) {
+            errors.add("one of epicId, parentTaskId, sprintId is required");
+        }
+
+        // HashMap, as a null value clears the column
+        Map<String, UUID> changes = new HashMap<>();
+        if (move.getFields().contains("epicId")) {
+            changes.put("epicId", move.getEpicId());
+            checkReference(errors, "epicId", move.getEpicId(), existing(idSet(move.getEpicId()),
+                    epicRepository::findExistingIds));
+        }
+        if (move.getFields().contains("sprintId")) {
+            changes.put("sprintId", move.getSprintId());
+            checkReference(errors, "sprintId", move.getSprintId(), existing(idSet(move.getSprintId()),
+                    taskRepository::findExistingSprintIds));
+        }
+        if (move.getFields().contains("parentTaskId")) {
+            UUID parentId = move.getParentTaskId();
+            changes.put("parentTaskId", parentId);
+            checkReference(errors, "parentTaskId", parentId, existing(idSet(parentId),
+                    taskRepository::findExistingIds));
+            if (parentId != null && taskIds.contains(parentId)) {
+                errors.add("parentTaskId " + parentId + " is one of the moved tasks");
+            } else if (parentId != null) {
+                for (List<UUID> chunk : chunks(new ArrayList<>(taskIds))) {
+                    for (Object[] pair : taskRepository.findDescendantPairs(chunk, List.of(parentId))) {
+                        errors.add("parentTaskId " + parentId + " is inside the subtree of task " + pair[0]);
+                    }
+                }
+            }
+        }
+        if (result.hasErrors()) {
+            return result;
+        }
+        result.setTasks(taskRepository.moveAll(taskIds, changes, subtasks));
+        return result;
+    }
+
+    /**
+     * Shift the start and due dates of the selected tasks by N working days of each assignee's calendar,
+     * or of none of them if the selection is invalid. A task keeps its number of working days: the new due
+     * date is that many working days from the new start. Every date is computed against the cached
+     * calendars in memory, and with preview=false the changed tasks are written in JDBC batches.
+     */
+    @Transactional
+    public TaskRescheduleResult rescheduleTasks(TaskRescheduleRequest request) {
+        TaskRescheduleResult result = new TaskRescheduleResult();
+        result.setWorkingDays(request.getWorkingDays());
+        List<String> errors = result.getErrors();
+        List<Task> tasks = selectTasks(request, errors);
+        if (request.getWorkingDays() == 0) {
+            errors.add("workingDays must not be 0");
+        }
+        CalendarKey calendarKey;
+        try {
+            calendarKey = CalendarKey.of(request.getCountry(), request.getProjectId());
+        } catch (IllegalArgumentException e) {
+            errors.add(e.getMessage());
+            return result;
+        }
+        result.setTasksScanned(tasks.size());
+
+        // One calendar per assignee, resolved before any date is computed
+        Set<UUID> assigneeIds = new HashSet<>();
+        for (Task task : tasks) {
+            assigneeIds.add(task.getAssigneeId());
+        }
+        calendarRegistry.preloadAvailability(assigneeIds);
+        Map<UUID, WorkingDayCalendar> calendars = new HashMap<>();
+        for (UUID assigneeId : assigneeIds) {
+            try {
+                calendars.put(assigneeId, calendarRegistry.get(
+                        CalendarKey.of(calendarKey.countryCode(), calendarKey.projectId(), assigneeId)));
+            } catch (IllegalArgumentException e) {
+                errors.add("assignee " + assigneeId + ": " + e.getMessage());
+            }
+        }
+        if (result.hasErrors()) {
+            return result;
+        }
+
+        for (Task task : tasks) {
+            WorkingDayCalendar calendar = calendars.get(task.getAssigneeId());
+            LocalDate newStartDate = calendar.shiftWorkingDays(task.getStartDate(), request.getWorkingDays());
+            LocalDate newDueDate = null;
+            if (task.getDueDate() != null) {
+                int span = calendar.workingDaysBetween(task.getStartDate(), task.getDueDate());
+                newDueDate = span > 0 ? calendar.plusWorkingDays(newStartDate, span) : newStartDate;
+            }
+            if (newStartDate.equals(task.getStartDate()) && Objects.equals(newDueDate, task.getDueDate())) {
+                continue;
+            }
+            result.getTasks().add(new TaskReschedule(task.getTaskId(), task.getTitle(), task.getAssigneeId(),
+                    task.getStartDate(), newStartDate, task.getDueDate(), newDueDate));
+            if (!request.isPreview()) {
+                // The tasks are managed, so the changes are flushed as update batches when the transaction commits
+                task.setStartDate(newStartDate);
+                task.setDueDate(newDueDate);
+            }
+        }
+        result.getTasks().sort(Comparator.comparing(TaskReschedule::getNewStartDate));
+        result.setApplied(!request.isPreview());
+        return result;
+    }
+
+    // The tasks of the one selector given (ids, epic or sprint); errors are added for a bad selection
+    private List<Task> selectTasks(TaskRescheduleRequest request, List<String> errors) {
+        int selectors = (request.getIds() != null ? 1 : 0) + (request.getEpicId() != null ? 1 : 0)
+                + (request.getSprintId() != null ? 1 : 0);
+        if (selectors != 1) {
+            errors.add("exactly one of ids, epicId, sprintId is required");
+            return List.of();
+        }
+        if (request.getEpicId() != null) {
+            checkReference(errors, "epicId", request.getEpicId(), existing(idSet(request.getEpicId()),
+                    epicRepository::findExistingIds));
+            return taskRepository.findByEpicId(request.getEpicId());
+        }
+        if (request.getSprintId() != null) {
+            checkReference(errors, "sprintId", request.getSprintId(), existing(idSet(request.getSprintId()),
+                    taskRepository::findExistingSprintIds));
+            return taskRepository.findBySprintId(request.getSprintId());
+        }
+        Set<UUID> taskIds = existingTasks(request.getIds(), errors);
+        List<Task> tasks = new ArrayList<>();
+        for (List<UUID> chunk : chunks(new ArrayList<>(taskIds))) {
+            tasks.addAll(taskRepository.findAllById(chunk));
+        }
+        return tasks;
+    }
+
+    // The requested ids without repeats; an error is added for a missing list, a null id or a missing task
+    private Set<UUID> existingTasks(List<UUID> ids, List<String> errors) {
+        Set<UUID> taskIds = new LinkedHashSet<>();
+        if (ids == null || ids.isEmpty()) {
+            errors.add("ids is required");
+            return taskIds;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                errors.add("ids[" + i + "] is null");
+            } else {
+                taskIds.add(ids.get(i));
+            }
+        }
+        Set<UUID> found = existing(taskIds, taskRepository::findExistingIds);
+        for (UUID id : taskIds) {
+            if (!found.contains(id)) {
+                errors.add("task " + id + " not found");
+            }
+        }
+        return taskIds;
+    }
+
+    // Check every item against the tasks table constraints and the rows it references
+    private TaskBulkResult validate(List<Task> tasks, boolean update) {
+        Set<UUID> epicIds = new HashSet<>();
+        Set<UUID> sprintIds = new HashSet<>();
+        Set<UUID> userIds = new HashSet<>();
+        Set<UUID> taskIds = new HashSet<>();
+        for (Task task : tasks) {
+            if (task == null) {
+                continue;
+            }
+            addIfPresent(epicIds, task.getEpicId());
+            addIfPresent(sprintIds, task.getSprintId());
+            addIfPresent(userIds, task.getAssigneeId());
+            addIfPresent(taskIds, task.getParentTaskId());
+            if (update) {
+                addIfPresent(taskIds, task.getTaskId());
+            }
+        }
+        Set<UUID> existingEpics = existing(epicIds, epicRepository::findExistingIds);
+        Set<UUID> existingSprints = existing(sprintIds, taskRepository::findExistingSprintIds);
+        Set<UUID> existingUsers = existing(userIds, userRepository::findExistingIds);
+        Set<UUID> existingTasks = existing(taskIds, taskRepository::findExistingIds);
+        Set<List<UUID>> cycles = update ? cycles(tasks) : Set.of();
+
+        TaskBulkResult result = new TaskBulkResult();
+        Set<UUID> seen = new HashSet<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            List<String> messages = new ArrayList<>();
+            if (task == null) {
+                result.getErrors().add(new TaskBulkResult.ItemError(i, null, List.of("item is null")));
+                continue;
+            }
+            UUID id = task.getTaskId();
+            if (update) {
+                if (id == null) {
+                    messages.add("id is required");
+                } else if (!seen.add(id)) {
+                    messages.add("id appears more than once");
+                } else if (!existingTasks.contains(id)) {
+                    messages.add("task not found");
+                }
+            } else if (id != null) {
+                messages.add("id must not be set");
+            }
+
+            checkAllowed(messages, "type", task.getType(), TYPES);
+            if (task.getTitle() == null || task.getTitle().isBlank()) {
+                messages.add("title is required");
+            } else if (task.getTitle().length() > 255) {
+                messages.add("title is longer than 255 characters");
+            }
+            checkAllowed(messages, "status", task.getStatus(), STATUSES);
+            checkAllowed(messages, "priority", task.getPriority(), PRIORITIES);
+            if (task.getStartDate() == null) {
+                messages.add("startDate is required");
+            } else if (task.getDueDate() != null && task.getDueDate().isBefore(task.getStartDate())) {
+                messages.add("dueDate is before startDate");
+            }
+
+            checkReference(messages, "epicId", task.getEpicId(), existingEpics);
+            checkReference(messages, "sprintId", task.getSprintId(), existingSprints);
+            checkReference(messages, "assigneeId", task.getAssigneeId(), existingUsers);
+            checkReference(messages, "parentTaskId", task.getParentTaskId(), existingTasks);
+            if (id != null && task.getParentTaskId() != null && (task.getParentTaskId().equals(id)
+                    || cycles.contains(List.of(id, task.getParentTaskId())))) {
+                messages.add("parentTaskId is inside the task's own subtree");
+            }
+
+            if (!messages.isEmpty()) {
+                result.getErrors().add(new TaskBulkResult.ItemError(i, id, messages));
+            }
+        }
+        return result;
+    }
+
+    // (task id, new parent id) pairs whose parent is currently a descendant of the task
+    private Set<List<UUID>> cycles(List<Task> tasks) {
+        Set<UUID> movedIds = new LinkedHashSet<>();
+        Set<UUID> parentIds = new LinkedHashSet<>();
+        for (Task task : tasks) {
+            if (task != null && task.getTaskId() != null && task.getParentTaskId() != null) {
+                movedIds.add(task.getTaskId());
+                parentIds.add(task.getParentTaskId());
+            }
+        }
+        Set<List<UUID>> pairs = new HashSet<>();
+        if (movedIds.isEmpty()) {
+            return pairs;
+        }
+        List<UUID> parents = new ArrayList<>(parentIds);
+        for (List<UUID> moved : chunks(new ArrayList<>(movedIds))) {
+            for (int from = 0; from < parents.size(); from += chunkSize) {
+                List<UUID> parentChunk = parents.subList(from, Math.min(from + chunkSize, parents.size()));
+                for (Object[] pair : taskRepository.findDescendantPairs(moved, parentChunk)) {
+                    pairs.add(List.of((UUID) pair[0], (UUID) pair[1]));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    // The subset of ids found by the lookup, queried in chunks to keep each IN list bounded
+    private Set<UUID> existing(Set<UUID> ids, Function<Collection<UUID>, List<UUID>> lookup) {
+        Set<UUID> found = new HashSet<>();
+        for (List<UUID> chunk : chunks(new ArrayList<>(ids))) {
+            found.addAll(lookup.apply(chunk));
+        }
+        return found;
+    }
+
+    private List<List<UUID>> chunks(List<UUID> ids) {
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static void addIfPresent(Set<UUID> ids, UUID id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static void checkAllowed(List<String> messages, String field, String value, List<String> allowed) {
+        if (value == null) {
+            messages.add(field + " is required");
+        } else if (!allowed.contains(value)) {
+            messages.add(field + " must be one of " + String.join(", ", allowed));
+        }
+    }
+
+    private static Set<UUID> idSet(UUID id) {
+        Set<UUID> ids = new HashSet<>();
+        addIfPresent(ids, id);
+        return ids;
+    }
+
+    private static void checkReference(List<String> messages, String field, UUID id, Set<UUID> existing) {
+        if (id != null && !existing.contains(id)) {
+            messages.add(field + " " + id + " does not exist");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ontik.gantt_project_v1.model.Task;
+import com.ontik.gantt_project_v1.repository.TaskRepository;
+import com.ontik.gantt_project_v1.repository.TaskSpecifications;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Service writing task exports straight to an output stream, one row at a time.
+ * Rows come from a database cursor, so memory use does not depend on the number of tasks exported.
+ */
+@Service
+public class TaskExportService {
+
+    /**
+     * Supported export formats
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException for an unknown format name
+         */
+        public static Format parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "id", "type", "title", "description", "status", "priority", "startDate", "dueDate",
+            "originalEstimate", "assigneeId", "epicId", "sprintId", "parentTaskId", "labels",
+            "createdAt", "updatedAt");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Write the tasks matching the /tasks/filter criteria, ordered by start date, to the output stream.
+     * The output stream is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public long exportTasks(Format format, String startDate, String endDate, String types,
+                            String assignee, String status, String priority, String labels, String allLabels,
+                            OutputStream out) throws IOException {
+        Specification<Task> filter = TaskSpecifications.filter(startDate, endDate, types, assignee, status, priority,
+                labels, allLabels);
+        try (Stream<Task> tasks = taskRepository.streamAll(filter, TaskService.PAGE_ORDER.sort())) {
+            return format == Format.CSV ? writeCsv(tasks, out) : writeNdjson(tasks, out);
+        }
+    }
+
+    private long writeCsv(Stream<Task> tasks, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", CSV_COLUMNS));
+        writer.write("\r\n");
+        long rows = 0;
+        for (Iterator<Task> it = tasks.iterator(); it.hasNext(); rows++) {
+            Task task = it.next();
+            writeCsvRow(writer, task.getTaskId(), task.getType(), task.getTitle(), task.getDescription(),
+                    task.getStatus(), task.getPriority(), task.getStartDate(), task.getDueDate(),
+                    task.getOriginalEstimate(), task.getAssigneeId(), task.getEpicId(), task.getSprintId(),
+                    task.getParentTaskId(), task.getLabels() != null ? String.join(";", task.getLabels()) : null,
+                    task.getCreatedAt(), task.getUpdatedAt());
+        }
+        writer.flush();
+        return rows;
+    }
+
+    // One RFC 4180 record; fields with separators, quotes or line breaks are quoted
+    private static void writeCsvRow(Writer writer, Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] == null) {
+                continue;
+            }
+            String value = fields[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // One JSON object per line, serialized exactly like the /tasks responses
+    private long writeNdjson(Stream<Task> tasks, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(new SerializedString("\n"));
+        long rows = 0;
+        for (Iterator<Task> it = tasks.iterator(); it.hasNext(); rows++) {
+            writer.writeValue(generator, it.next());
+        }
+        if (rows > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+        return rows;
+    }
+}
@@ -2,37 +2,83 @@
 package com.ontik.gantt_project_v1.service;
 
 // Import the required classes and annotations
+import com.fasterxml.jackson.databind.JsonNode; // Merge patch documents
+import com.fasterxml.jackson.databind.ObjectMapper; // Applies merge patches
+import com.ontik.gantt_project_v1.config.PaginationProperties; // Page size limits
+import com.ontik.gantt_project_v1.dto.CursorPage; // One page of a paginated collection
+import com.ontik.gantt_project_v1.dto.LabelCount; // Label dictionary entries
+import com.ontik.gantt_project_v1.dto.TaskFacets; // Filter panel counts
+import com.ontik.gantt_project_v1.dto.TaskSummary; // Lean task rows for Gantt and table views
 import com.ontik.gantt_project_v1.model.Task; // Import the Task entity
+import com.ontik.gantt_project_v1.repository.KeysetOrder; // Cursor ordering for paginated queries
+import com.ontik.gantt_project_v1.repository.Projections; // Paginated projection queries
 import com.ontik.gantt_project_v1.repository.TaskRepository; // Import the TaskRepository
+import com.ontik.gantt_project_v1.repository.TaskSpecifications; // Filter predicates for /tasks/filter
+import com.ontik.gantt_project_v1.repository.VersionedUpdates; // Single-statement conditional updates
 import org.springframework.beans.factory.annotation.Autowired; // For dependency injection
+import org.springframework.dao.OptimisticLockingFailureException; // Version conflicts
+import org.springframework.data.jpa.domain.Specification; // Composable query predicates
 import org.springframework.stereotype.Service; // Marks this class as a Spring service
+import org.springframework.transaction.annotation.Transactional; // Single-statement subtree deletes
 
 import java.time.Duration;
 import java.time.LocalDate; // For date filtering
 import java.util.*; // For List, Optional, and UUID
-import java.util.stream.Collectors; // For stream operations
+import java.util.stream.Collectors;
 
 // Annotate this class as a Spring service so it can be auto-detected and injected
 // Marks this class as a Spring service, making it a candidate for component scanning and dependency injection
 @Service
 public class TaskService {
 
+    // Paginated task collections are ordered by start date, then id
+    static final KeysetOrder PAGE_ORDER = KeysetOrder.of("startDate", LocalDate::parse, "taskId");
+
+    // Task fields replaced by a full update (PUT); the same fields applyUpdate copies
+    private static final List<String> UPDATE_FIELDS = List.of("type", "title", "description", "epicId", "sprintId",
+            "startDate", "dueDate", "originalEstimate", "status", "assigneeId", "priority", "parentTaskId");
+
+    // Words of a search beyond this many are ignored
+    private static final int MAX_SEARCH_TERMS = 10;
+
+    // JSON properties a merge patch cannot change
+    private static final String[] PATCH_READ_ONLY = {"id", "version", "createdAt", "updatedAt"};
+
     // The TaskRepository is injected here to handle database operations for Task entities
     private final TaskRepository taskRepository;
 
+    // Default and maximum page sizes of the paginated collections
+    private final PaginationProperties paginationProperties;
+
+    // Applies merge patches with the same JSON mapping as request bodies
+    private final ObjectMapper objectMapper;
+
+    // Conditional updates for requests that carry the version they were based on
+    private final VersionedUpdates versionedUpdates;
+
+    // Reads pages of TaskSummary rows instead of whole tasks
+    private final Projections projections;
+
     // Constructor-based dependency injection is preferred for mandatory dependencies
     @Autowired
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, PaginationProperties paginationProperties,
+                       ObjectMapper objectMapper, VersionedUpdates versionedUpdates, Projections projections) {
         this.taskRepository = taskRepository;
+        this.paginationProperties = paginationProperties;
+        this.objectMapper = objectMapper;
+        this.versionedUpdates = versionedUpdates;
+        this.projections = projections;
     }
 
     /**
-     * Fetches all Task entities from the database.
-     * @return List<Task> - a list containing all tasks in the database.
-     * The returned list is created by the repository's findAll() method, which queries the database and returns all Task records.
+     * Fetches one page of all tasks, ordered by start date.
+     * @param cursor String - the next cursor of the previous page, or null for the first page.
+     * @param limit Integer - page size, or null for the configured default.
+     * @return CursorPage<Task> - the tasks of the page and the cursor of the following page.
+     * @throws IllegalArgumentException if the cursor or page size is invalid.
      */
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll(); // Returns a new List<Task> containing all tasks from the DB
+    public CursorPage<Task> getAllTasks(String cursor, Integer limit) {
+        return findPage(null, cursor, limit);
     }
 
     /**
@@ -61,32 +107,113 @@ public class TaskService {
      * @param updatedTask Task object containing updated fields.
      * @return Optional<Task> - contains the updated Task if found and updated, or empty if not found.
      * The returned Optional contains the Task after its fields are updated and saved to the DB.
+     * @throws IllegalArgumentException if the new parent task is the task itself or one of its subtasks.
      */
     public Optional<Task> updateTask(UUID taskId, Task updatedTask) {
         // Attempt to find the existing task by ID
         return taskRepository.findById(taskId)
                 .map(existingTask -> {
+                    checkParentMove(taskId, existingTask.getParentTaskId(), updatedTask.getParentTaskId());
                     // Update each field of the existing task with values from updatedTask
-                    existingTask.setType(updatedTask.getType());
-                    existingTask.setTitle(updatedTask.getTitle());
-                    existingTask.setDescription(updatedTask.getDescription());
-                    existingTask.setEpicId(updatedTask.getEpicId());
-                    existingTask.setSprintId(updatedTask.getSprintId());
-                    existingTask.setStartDate(updatedTask.getStartDate());
-                    existingTask.setDueDate(updatedTask.getDueDate());
-                    existingTask.setOriginalEstimate(updatedTask.getOriginalEstimate());
-                    existingTask.setStatus(updatedTask.getStatus());
-                    existingTask.setAssigneeId(updatedTask.getAssigneeId());
-                    existingTask.setPriority(updatedTask.getPriority());
-                    // existingTask.setLabels(updatedTask.getLabels()); // Uncomment if labels are used
-                    existingTask.setParentTaskId(updatedTask.getParentTaskId());
-                    existingTask.setCreatedAt(updatedTask.getCreatedAt());
-                    existingTask.setUpdatedAt(updatedTask.getUpdatedAt());
+                    applyUpdate(existingTask, updatedTask);
                     // Save the updated task back to the database and return it
                     return taskRepository.save(existingTask); // Returns the updated and persisted Task
                 });
     }
 
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to a task: fields present in the patch are replaced (null clears them),
+     * absent fields are kept. The id and timestamps cannot be patched.
+     * Only the columns whose values changed are written, so a patch of two dates is a two-column UPDATE.
+     * @param taskId UUID of the task to patch.
+     * @param patch JsonNode - the merge patch document, a JSON object keyed like the task JSON.
+     * @return Optional<Task> - the patched Task, or empty if not found.
+     * @throws IllegalArgumentException if the patch is malformed or moves the task under its own subtree.
+     */
+    @Transactional
+    public Optional<Task> patchTask(UUID taskId, JsonNode patch) {
+        return taskRepository.findById(taskId)
+                .map(existingTask -> {
+                    UUID currentParentId = existingTask.getParentTaskId();
+                    MergePatch.apply(objectMapper, existingTask, patch, PATCH_READ_ONLY);
+                    checkParentMove(taskId, currentParentId, existingTask.getParentTaskId());
+                    // The task is managed, so the changes are flushed when the transaction commits
+                    return existingTask;
+                });
+    }
+
+    /**
+     * Updates a task only if it is still at the given version, in a single UPDATE ... WHERE version = ? statement.
+     * The task is not read first; the caller already holds its state (the version came from its ETag).
+     * @param taskId UUID of the task to update.
+     * @param version long - the version the update was based on.
+     * @param updatedTask Task object containing updated fields.
+     * @return Optional<Long> - the new version, or empty if the task does not exist.
+     * @throws OptimisticLockingFailureException if the task was changed since that version.
+     * @throws IllegalArgumentException if the new parent task is the task itself or one of its subtasks.
+     */
+    @Transactional
+    public Optional<Long> updateTaskIfMatch(UUID taskId, long version, Task updatedTask) {
+        checkParentMove(taskId, null, updatedTask.getParentTaskId());
+        return conditionalUpdate(taskId, version, updatedTask, UPDATE_FIELDS);
+    }
+
+    /**
+     * Applies a JSON Merge Patch to a task only if it is still at the given version, in a single statement
+     * that sets just the fields present in the patch.
+     * @return Optional<Long> - the new version, or empty if the task does not exist.
+     * @throws OptimisticLockingFailureException if the task was changed since that version.
+     * @throws IllegalArgumentException if the patch is malformed or moves the task under its own subtree.
+     */
+    @Transactional
+    public Optional<Long> patchTaskIfMatch(UUID taskId, long version, JsonNode patch) {
+        Task values = MergePatch.apply(objectMapper, new Task(), patch, PATCH_READ_ONLY);
+        List<String> fields = MergePatch.fields(patch, PATCH_READ_ONLY);
+        if (fields.contains("parentTaskId")) {
+            checkParentMove(taskId, null, values.getParentTaskId());
+        }
+        return conditionalUpdate(taskId, version, values, fields);
+    }
+
+    private Optional<Long> conditionalUpdate(UUID taskId, long version, Task values, List<String> fields) {
+        if (versionedUpdates.updateIfVersion(Task.class, taskId, version, values, fields) == 1) {
+            return Optional.of(version + 1);
+        }
+        // Nothing matched: tell a missing task apart from a stale version
+        if (!taskRepository.existsById(taskId)) {
+            return Optional.empty();
+        }
+        throw new OptimisticLockingFailureException("Task " + taskId + " has changed since version " + version);
+    }
+
+    // Moving a task under its own subtree would make the hierarchy a cycle
+    private void checkParentMove(UUID taskId, UUID currentParentId, UUID parentTaskId) {
+        if (parentTaskId != null && !parentTaskId.equals(currentParentId)
+                && (parentTaskId.equals(taskId) || taskRepository.isInSubtree(taskId, parentTaskId))) {
+            throw new IllegalArgumentException("Task " + taskId + " cannot be moved under its own subtree");
+        }
+    }
+
+    /**
+     * Copies the editable fields of updatedTask onto existingTask; shared by single and bulk updates.
+     * Timestamps are not copied: the entity sets createdAt on insert and updatedAt on every update.
+     */
+    static void applyUpdate(Task existingTask, Task updatedTask) {
+        existingTask.setType(updatedTask.getType());
+        existingTask.setTitle(updatedTask.getTitle());
+        existingTask.setDescription(updatedTask.getDescription());
+        existingTask.setEpicId(updatedTask.getEpicId());
+        existingTask.setSprintId(updatedTask.getSprintId());
+        existingTask.setStartDate(updatedTask.getStartDate());
+        existingTask.setDueDate(updatedTask.getDueDate());
+        existingTask.setOriginalEstimate(updatedTask.getOriginalEstimate());
+        existingTask.setStatus(updatedTask.getStatus());
+        existingTask.setAssigneeId(updatedTask.getAssigneeId());
+        existingTask.setPriority(updatedTask.getPriority());
+        // existingTask.setLabels(updatedTask.getLabels()); // Uncomment if labels are used
+        existingTask.setParentTaskId(updatedTask.getParentTaskId());
+    }
+
     /**
      * Deletes a Task by its ID.
      * @param taskId UUID of the task to delete.
@@ -103,79 +230,131 @@ public class TaskService {
     }
 
     /**
-     * Filters tasks based on provided criteria such as date range, type, status, and priority.
-     * @param startDate String (ISO format) - filter tasks updated after this date.
-     * @param endDate String (ISO format) - filter tasks updated before this date.
+     * Filters tasks based on provided criteria such as date range, type, assignee, status, and priority.
+     * Every criterion is translated into the SQL WHERE clause, so only matching rows are loaded.
+     * @param startDate String (ISO format) - filter tasks updated on or after this date.
+     * @param endDate String (ISO format) - filter tasks updated on or before this date.
      * @param types String (comma-separated) - filter by task types.
-     * @param assignee String - (not implemented) filter by assignee.
-     * @param status String - filter by task status.
-     * @param priority String - filter by task priority.
-     * @return List<Task> - a list of tasks matching all provided filters.
-     * The returned list is built by streaming all tasks and applying filter predicates for each criterion.
-     */
-    public List<Task> getFilteredTasks(String startDate, String endDate, String types, 
-                                      String assignee, String status, String priority) {
-        // Fetch all tasks from the database
-        List<Task> allTasks = taskRepository.findAll();
-
-        // Stream through all tasks and apply filters
-        return allTasks.stream()
-                .filter(task -> {
-                    // Filter by start date (updatedAt >= startDate)
-                    if (startDate != null && task.getUpdatedAt() != null) {
-                        try {
-                            if (task.getUpdatedAt().toLocalDate().isBefore(LocalDate.parse(startDate))) {
-                                return false; // Exclude tasks updated before startDate
-                            }
-                        } catch (Exception e) {
-                            // Ignore parsing errors and skip this filter
-                        }
-                    }
-
-                    // Filter by end date (updatedAt <= endDate)
-                    if (endDate != null && task.getUpdatedAt() != null) {
-                        try {
-                            if (task.getUpdatedAt().toLocalDate().isAfter(LocalDate.parse(endDate))) {
-                                return false; // Exclude tasks updated after endDate
-                            }
-                        } catch (Exception e) {
-                            // Ignore parsing errors and skip this filter
-                        }
-                    }
-
-                    // Filter by task types (matches any of the provided types)
-                    if (types != null && !types.isEmpty()) {
-                        String[] typeArray = types.split(",");
-                        boolean typeMatches = false;
-                        for (String type : typeArray) {
-                            if (task.getType() != null && task.getType().equalsIgnoreCase(type.trim())) {
-                                typeMatches = true;
-                                break;
-                            }
-                        }
-                        if (!typeMatches) return false; // Exclude if type doesn't match any
-                    }
-
-                    // Filter by assignee (not implemented, placeholder for future logic)
-
-                    // Filter by status (case-insensitive match)
-                    if (status != null && !status.isEmpty()) {
-                        if (task.getStatus() == null || !task.getStatus().equalsIgnoreCase(status)) {
-                            return false; // Exclude if status doesn't match
-                        }
-                    }
-
-                    // Filter by priority (case-insensitive match)
-                    if (priority != null && !priority.isEmpty()) {
-                        if (task.getPriority() == null || !task.getPriority().equalsIgnoreCase(priority)) {
-                            return false; // Exclude if priority doesn't match
-                        }
-                    }
-
-                    // If all filters pass, include the task
-                    return true;
-                })
-                .collect(Collectors.toList()); // Collect and return the filtered tasks as a List<Task>
+     * @param assignee String - assignee id, or part of the assignee's username or full name.
+     * @param status String (comma-separated) - filter by task status.
+     * @param priority String (comma-separated) - filter by task priority.
+     * @param labels String (comma-separated) - tasks with any of these labels.
+     * @param allLabels String (comma-separated) - tasks with all of these labels.
+     * @param cursor String - the next cursor of the previous page, or null for the first page.
+     * @param limit Integer - page size, or null for the configured default.
+     * @return CursorPage<Task> - one page of the tasks matching all provided filters.
+     * Filters that are empty or (for dates) not parseable are ignored; matching is case-insensitive,
+     * except for labels, which match exactly.
+     */
+    public CursorPage<Task> getFilteredTasks(String startDate, String endDate, String types,
+                                             String assignee, String status, String priority,
+                                             String labels, String allLabels, String cursor, Integer limit) {
+        Specification<Task> filter = TaskSpecifications.filter(startDate, endDate, types, assignee, status, priority,
+                labels, allLabels);
+        return findPage(filter, cursor, limit);
+    }
+
+    // One keyset page of the tasks matching the filter (null matches every task)
+    private CursorPage<Task> findPage(Specification<Task> filter, String cursor, Integer limit) {
+        return PAGE_ORDER.page(taskRepository, filter, cursor, paginationProperties.resolveSize(limit));
+    }
+
+    /**
+     * Full-text search of task titles and descriptions, ranked with title matches first.
+     * Every word of the text must match, as a prefix, so partly typed words already find tasks.
+     * @param text String - the words to search for.
+     * @param cursor String - the next cursor of the previous page, or null for the first page.
+     * @param limit Integer - page size, or null for the configured default.
+     * The other parameters filter the results exactly as in getFilteredTasks.
+     * @throws IllegalArgumentException if the text has no words, or the cursor or page size is invalid.
+     */
+    public CursorPage<Task> searchTasks(String text, String startDate, String endDate, String types,
+                                        String assignee, String status, String priority,
+                                        String labels, String allLabels, String cursor, Integer limit) {
+        return taskRepository.search(toPrefixQuery(text), startDate, endDate, types, assignee, status, priority,
+                labels, allLabels, cursor, paginationProperties.resolveSize(limit));
+    }
+
+    /**
+     * Every label in use with the number of tasks carrying it, most used first, counted in SQL
+     */
+    public List<LabelCount> getLabelCounts() {
+        return taskRepository.countLabels().stream()
+                .map(row -> new LabelCount((String) row[0], ((Number) row[1]).longValue()))
+                .toList();
+    }
+
+    /**
+     * Counts per status, priority, type and assignee for a filter, each facet counted without its own criterion.
+     * Computed in SQL in one pass, so the filter panel can show what each choice would match.
+     */
+    public TaskFacets getTaskFacets(String startDate, String endDate, String types, String assignee,
+                                    String status, String priority, String labels, String allLabels) {
+        return taskRepository.countFacets(startDate, endDate, types, assignee, status, priority, labels, allLabels);
+    }
+
+    // "gantt exp" becomes the tsquery 'gantt':* & 'exp':*; only letters and digits reach the query
+    static String toPrefixQuery(String text) {
+        String words = text != null ? text.toLowerCase(Locale.ROOT) : "";
+        List<String> terms = Arrays.stream(words.split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .limit(MAX_SEARCH_TERMS)
+                .toList();
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search text must contain a letter or digit");
+        }
+        return terms.stream().map(term -> "'" + term + "':*").collect(Collectors.joining(" & "));
+    }
+
+    // ========== SUMMARY (PROJECTION) QUERIES ==========
+    // Same rows, order and cursors as the methods above, reading only the TaskSummary columns
+
+    /**
+     * Fetches one page of all tasks as summaries, ordered by start date
+     * @throws IllegalArgumentException if the cursor or page size is invalid.
+     */
+    public CursorPage<TaskSummary> getAllTaskSummaries(String cursor, Integer limit) {
+        return findSummaryPage(null, cursor, limit);
+    }
+
+    /**
+     * Fetches one page of the tasks matching the /tasks/filter criteria as summaries
+     * @throws IllegalArgumentException if the cursor or page size is invalid.
+     */
+    public CursorPage<TaskSummary> getFilteredTaskSummaries(String startDate, String endDate, String types,
+                                                           String assignee, String status, String priority,
+                                                           String labels, String allLabels,
+                                                           String cursor, Integer limit) {
+        Specification<Task> filter = TaskSpecifications.filter(startDate, endDate, types, assignee, status, priority,
+                labels, allLabels);
+        return findSummaryPage(filter, cursor, limit);
+    }
+
+    /**
+     * Get one page of the tasks of a type as summaries
+     */
+    public CursorPage<TaskSummary> getTaskSummariesByType(String type, String cursor, Integer limit) {
+        return findSummaryPage((root, query, cb) -> cb.equal(root.get("type"), type), cursor, limit);
+    }
+
+    /**
+     * Get the top-level tasks under an epic as summaries
+     */
+    public List<TaskSummary> getTopLevelTaskSummariesByEpicId(UUID epicId) {
+        return taskRepository.findTopLevelTaskSummariesByEpicId(epicId);
+    }
+
+    /**
+     * Get the subtasks under a parent task as summaries
+     */
+    public List<TaskSummary> getSubTaskSummariesByParentId(UUID parentTaskId) {
+        return taskRepository.findSubTaskSummariesByParentId(parentTaskId);
+    }
+
+    private CursorPage<TaskSummary> findSummaryPage(Specification<Task> filter, String cursor, Integer limit) {
+        return projections.page(Task.class, TaskSummary.class, PAGE_ORDER, filter, cursor,
+                paginationProperties.resolveSize(limit));
     }
 
     /**
@@ -267,6 +446,30 @@ public class TaskService {
         return taskRepository.findSubTasksByParentId(parentTaskId);
     }
 
+    /**
+     * Get the subtasks of a task at every level down to maxDepth (null for the whole subtree),
+     * level by level and in start-date order within a level
+     */
+    public List<Task> getSubtree(UUID taskId, Integer maxDepth) {
+        return taskRepository.findSubtree(taskId, maxDepth != null ? maxDepth : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the chain of parent tasks of a task, root first
+     */
+    public List<Task> getAncestors(UUID taskId) {
+        return taskRepository.findAncestors(taskId);
+    }
+
+    /**
+     * Delete a task and all of its subtasks at every level
+     * @return the number of tasks deleted, 0 if the task was not found
+     */
+    @Transactional
+    public int deleteSubtree(UUID taskId) {
+        return taskRepository.deleteSubtree(taskId);
+    }
+
     /**
      * Get tasks by epic ID
      */
@@ -282,23 +485,40 @@ public class TaskService {
     }
 
     /**
-     * Get tasks by type
+     * Get one page of the tasks of a type
+     */
+    public CursorPage<Task> getTasksByType(String type, String cursor, Integer limit) {
+        return findPage((root, query, cb) -> cb.equal(root.get("type"), type), cursor, limit);
+    }
+
+    /**
+     * Get one page of the tasks with a status
+     */
+    public CursorPage<Task> getTasksByStatus(String status, String cursor, Integer limit) {
+        return findPage((root, query, cb) -> cb.equal(root.get("status"), status), cursor, limit);
+    }
+
+    /**
+     * Get one page of the tasks with a priority
      */
-    public List<Task> getTasksByType(String type) {
-        return taskRepository.findByType(type);
+    public CursorPage<Task> getTasksByPriority(String priority, String cursor, Integer limit) {
+        return findPage((root, query, cb) -> cb.equal(root.get("priority"), priority), cursor, limit);
     }
 
+    // ========== WORKING-DAY QUERIES ==========
+
     /**
-     * Get tasks by status
+     * Get open tasks due within the given number of working days from today, nearest first.
+     * The working-day arithmetic runs in PostgreSQL against the calendar_days table.
      */
-    public List<Task> getTasksByStatus(String status) {
-        return taskRepository.findByStatus(status);
+    public List<Task> getTasksDueWithinWorkingDays(int workingDays) {
+        return taskRepository.findTasksDueWithinWorkingDays(LocalDate.now(), workingDays);
     }
 
     /**
-     * Get tasks by priority
+     * Get tasks scheduled over more working days than their original estimate, largest overrun first
      */
-    public List<Task> getTasksByPriority(String priority) {
-        return taskRepository.findByPriority(priority);
+    public List<Task> getTasksOverEstimate() {
+        return taskRepository.findTasksOverEstimate();
     }
 }
@@ -0,0 +1,117 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.ontik.gantt_project_v1.calendar.AvailabilityChangedEvent;
+import com.ontik.gantt_project_v1.config.CalendarProperties;
+import com.ontik.gantt_project_v1.model.UserAvailability;
+import com.ontik.gantt_project_v1.repository.UserAvailabilityRepository;
+import com.ontik.gantt_project_v1.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service class for managing the leave and weekly schedules of users
+ */
+@Service
+public class UserAvailabilityService {
+
+    @Autowired
+    private UserAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Get the availability entries of a user ordered by start date
+     */
+    public List<UserAvailability> getAvailability(UUID userId) {
+        return availabilityRepository.findByUserIdOrderByStartDate(userId);
+    }
+
+    /**
+     * Add an availability entry to a user, or return empty if the user does not exist
+     * @throws IllegalArgumentException if the entry is incomplete or inconsistent
+     */
+    @Transactional
+    public Optional<UserAvailability> createAvailability(UUID userId, UserAvailability availability) {
+        if (!userRepository.existsById(userId)) {
+            return Optional.empty();
+        }
+        validate(availability);
+        OffsetDateTime now = OffsetDateTime.now();
+        availability.setAvailabilityId(null);
+        availability.setUserId(userId);
+        availability.setCreatedAt(now);
+        availability.setUpdatedAt(now);
+        UserAvailability saved = availabilityRepository.save(availability);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(userId));
+        return Optional.of(saved);
+    }
+
+    /**
+     * Update an availability entry of a user
+     * @throws IllegalArgumentException if the entry is incomplete or inconsistent
+     */
+    @Transactional
+    public Optional<UserAvailability> updateAvailability(UUID userId, UUID availabilityId,
+                                                         UserAvailability updatedAvailability) {
+        validate(updatedAvailability);
+        return availabilityRepository.findById(availabilityId)
+                .filter(existing -> existing.getUserId().equals(userId))
+                .map(existing -> {
+                    existing.setAvailabilityType(updatedAvailability.getAvailabilityType());
+                    existing.setStartDate(updatedAvailability.getStartDate());
+                    existing.setEndDate(updatedAvailability.getEndDate());
+                    existing.setWorkWeek(updatedAvailability.getWorkWeek());
+                    existing.setDescription(updatedAvailability.getDescription());
+                    existing.setUpdatedAt(OffsetDateTime.now());
+                    UserAvailability saved = availabilityRepository.save(existing);
+                    eventPublisher.publishEvent(new AvailabilityChangedEvent(userId));
+                    return saved;
+                });
+    }
+
+    /**
+     * Delete an availability entry of a user
+     */
+    @Transactional
+    public boolean deleteAvailability(UUID userId, UUID availabilityId) {
+        Optional<UserAvailability> availability = availabilityRepository.findById(availabilityId)
+                .filter(existing -> existing.getUserId().equals(userId));
+        if (availability.isEmpty()) {
+            return false;
+        }
+        availabilityRepository.delete(availability.get());
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(userId));
+        return true;
+    }
+
+    private void validate(UserAvailability availability) {
+        if (availability.getStartDate() == null) {
+            throw new IllegalArgumentException("startDate is required");
+        }
+        if (availability.getEndDate() != null && availability.getEndDate().isBefore(availability.getStartDate())) {
+            throw new IllegalArgumentException("endDate must be on or after startDate");
+        }
+        if (UserAvailability.LEAVE.equals(availability.getAvailabilityType())) {
+            if (availability.getEndDate() == null) {
+                throw new IllegalArgumentException("Leave needs an endDate");
+            }
+        } else if (UserAvailability.SCHEDULE.equals(availability.getAvailabilityType())) {
+            if (availability.getWorkWeek() == null || CalendarProperties.parseWorkWeek(availability.getWorkWeek()) == 0) {
+                throw new IllegalArgumentException("Schedule needs a workWeek such as MON,TUE,WED");
+            }
+        } else {
+            throw new IllegalArgumentException("availabilityType must be LEAVE or SCHEDULE");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import com.ontik.gantt_project_v1.dto.EpicSummary;
+import com.ontik.gantt_project_v1.dto.EpicWithUserDTO;
+import com.ontik.gantt_project_v1.dto.TaskFacets;
+import com.ontik.gantt_project_v1.dto.TaskSummary;
+import com.ontik.gantt_project_v1.dto.TaskWithUserDTO;
+import com.ontik.gantt_project_v1.model.Epic;
+import com.ontik.gantt_project_v1.model.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service class for adding assignee names to task and epic lists.
+ * The names for a whole list are looked up at once, so enriching a list costs at most one user query
+ * however many rows it has (none when every assignee is already cached).
+ */
+@Service
+public class UserEnrichmentService {
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Tasks with their assignee names, in the same order
+     */
+    public List<TaskWithUserDTO> enrichTasks(List<Task> tasks) {
+        Map<UUID, String> names = userService.getUserFullNames(tasks.stream().map(Task::getAssigneeId).toList());
+        return tasks.stream()
+                .map(task -> TaskWithUserDTO.fromTask(task, nameOf(names, task.getAssigneeId())))
+                .toList();
+    }
+
+    /**
+     * A page of tasks with their assignee names, keeping its cursor
+     */
+    public CursorPage<TaskWithUserDTO> enrichTasks(CursorPage<Task> page) {
+        return new CursorPage<>(enrichTasks(page.getItems()), page.getNext());
+    }
+
+    /**
+     * Epics with their assignee names, in the same order
+     */
+    public List<EpicWithUserDTO> enrichEpics(List<Epic> epics) {
+        Map<UUID, String> names = userService.getUserFullNames(epics.stream().map(Epic::getAssignedTo).toList());
+        return epics.stream()
+                .map(epic -> EpicWithUserDTO.fromEpic(epic, nameOf(names, epic.getAssignedTo())))
+                .toList();
+    }
+
+    /**
+     * A page of epics with their assignee names, keeping its cursor
+     */
+    public CursorPage<EpicWithUserDTO> enrichEpics(CursorPage<Epic> page) {
+        return new CursorPage<>(enrichEpics(page.getItems()), page.getNext());
+    }
+
+    /**
+     * Fill in the assignee names of task summaries in place
+     */
+    public List<TaskSummary> enrichTaskSummaries(List<TaskSummary> tasks) {
+        Map<UUID, String> names = userService.getUserFullNames(tasks.stream().map(TaskSummary::getAssigneeId).toList());
+        tasks.forEach(task -> task.setAssigneeName(nameOf(names, task.getAssigneeId())));
+        return tasks;
+    }
+
+    /**
+     * Fill in the assignee names of epic summaries in place
+     */
+    public List<EpicSummary> enrichEpicSummaries(List<EpicSummary> epics) {
+        Map<UUID, String> names = userService.getUserFullNames(epics.stream().map(EpicSummary::getAssignedTo).toList());
+        epics.forEach(epic -> epic.setAssignedToName(nameOf(names, epic.getAssignedTo())));
+        return epics;
+    }
+
+    /**
+     * Fill in the names of the assignee facet in place; the unassigned entry keeps no name
+     */
+    public TaskFacets enrichFacets(TaskFacets facets) {
+        List<UUID> ids = facets.getAssignee().stream()
+                .filter(entry -> entry.getValue() != null)
+                .map(entry -> UUID.fromString(entry.getValue()))
+                .toList();
+        Map<UUID, String> names = userService.getUserFullNames(ids);
+        facets.getAssignee().forEach(entry -> entry.setName(
+                entry.getValue() != null ? nameOf(names, UUID.fromString(entry.getValue())) : null));
+        return facets;
+    }
+
+    // Unassigned rows have no name; an assignee that no longer exists shows as unknown
+    private static String nameOf(Map<UUID, String> names, UUID userId) {
+        if (userId == null) {
+            return null;
+        }
+        return names.getOrDefault(userId, "Unknown User");
+    }
+}
@@ -1,7 +1,10 @@
 package com.ontik.gantt_project_v1.service;
 
+import com.ontik.gantt_project_v1.config.PaginationProperties;
+import com.ontik.gantt_project_v1.dto.CursorPage;
 import com.ontik.gantt_project_v1.dto.SignupRequest;
 import com.ontik.gantt_project_v1.model.User;
+import com.ontik.gantt_project_v1.repository.KeysetOrder;
 import com.ontik.gantt_project_v1.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,10 +14,19 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Service class for managing User operations
@@ -23,13 +35,29 @@ import java.util.UUID;
 @Slf4j
 public class UserService implements UserDetailsService {
 
+    // Paginated user collections are ordered by username, then id
+    private static final KeysetOrder PAGE_ORDER = KeysetOrder.of("username", Function.identity(), "userId");
+
+    private static final String UNKNOWN_USER = "Unknown User";
+
+    // User names change rarely, so looked-up names are reused for a while instead of read per request
+    private static final Duration NAME_TTL = Duration.ofMinutes(10);
+    private static final int NAME_CACHE_SIZE = 10_000;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PaginationProperties paginationProperties;
+    private final Map<UUID, CachedName> nameCache = new ConcurrentHashMap<>();
+
+    private record CachedName(String name, Instant loadedAt) {
+    }
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       PaginationProperties paginationProperties) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.paginationProperties = paginationProperties;
     }
 
     /**
@@ -40,12 +68,11 @@ public class UserService implements UserDetailsService {
     }
 
     /**
-     * Get all active users
+     * Get one page of the active users, ordered by username
      */
-    public List<User> getAllActiveUsers() {
-        return userRepository.findAll().stream()
-                .filter(User::getIsActive)
-                .toList();
+    public CursorPage<User> getAllActiveUsers(String cursor, Integer limit) {
+        return PAGE_ORDER.page(userRepository, (root, query, cb) -> cb.isTrue(root.get("isActive")),
+                cursor, paginationProperties.resolveSize(limit));
     }
 
     /**
@@ -59,9 +86,39 @@ public class UserService implements UserDetailsService {
      * Get user full name by ID
      */
     public String getUserFullName(UUID userId) {
-        return userRepository.findById(userId)
-                .map(User::getFullName)
-                .orElse("Unknown User");
+        return getUserFullNames(List.of(userId)).getOrDefault(userId, UNKNOWN_USER);
+    }
+
+    /**
+     * Get the full names of many users at once, keyed by user ID.
+     * Names not in the cache are loaded with a single IN query; unknown IDs are left out of the map.
+     */
+    public Map<UUID, String> getUserFullNames(Collection<UUID> userIds) {
+        Map<UUID, String> names = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        Instant now = Instant.now();
+        for (UUID userId : new LinkedHashSet<>(userIds)) {
+            if (userId == null) {
+                continue;
+            }
+            CachedName cached = nameCache.get(userId);
+            if (cached != null && cached.loadedAt().plus(NAME_TTL).isAfter(now)) {
+                names.put(userId, cached.name());
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return names;
+        }
+        if (nameCache.size() + missing.size() > NAME_CACHE_SIZE) {
+            nameCache.clear();
+        }
+        for (User user : userRepository.findAllById(missing)) {
+            names.put(user.getUserId(), user.getFullName());
+            nameCache.put(user.getUserId(), new CachedName(user.getFullName(), now));
+        }
+        return names;
     }
 
     /**
@@ -6,7 +6,7 @@
 -- ===========================================
 CREATE TABLE holidays (
     holiday_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
-    holiday_date DATE NOT NULL UNIQUE,
+    holiday_date DATE NOT NULL,
     holiday_name VARCHAR(255) NOT NULL,
     holiday_type VARCHAR(100) DEFAULT 'PUBLIC',
     is_working_day BOOLEAN DEFAULT FALSE,
@@ -15,6 +15,8 @@ CREATE TABLE holidays (
     created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
 
+    -- One entry per date and country, so regional calendars can share dates
+    CONSTRAINT uq_holidays_date_country UNIQUE (holiday_date, country_code),
     CONSTRAINT chk_holiday_type CHECK (holiday_type IN ('PUBLIC', 'RELIGIOUS', 'NATIONAL', 'COMPANY', 'REGIONAL')),
     CONSTRAINT chk_holiday_date CHECK (holiday_date >= DATE '2020-01-01' AND holiday_date <= DATE '2050-12-31')
 );
@@ -27,6 +29,52 @@ CREATE INDEX idx_holidays_type ON holidays(holiday_type);
 CREATE INDEX idx_holidays_country ON holidays(country_code);
 CREATE INDEX idx_holidays_working_day ON holidays(is_working_day);
 
+-- ===========================================
+-- CALENDAR DAYS DIMENSION (Maintained from holidays)
+-- ===========================================
+-- One row per day from 2020 to 2050 (the range allowed for holidays) in the default calendar:
+-- the default work week minus every non-working holiday. working_day_ordinal counts the working days up to
+-- and including the date, so the working days between two dates is a subtraction of ordinals.
+CREATE TABLE calendar_days (
+    calendar_date DATE PRIMARY KEY,
+    is_working_day BOOLEAN NOT NULL,
+    working_day_ordinal INTEGER NOT NULL
+);
+
+CREATE INDEX idx_calendar_days_ordinal ON calendar_days(working_day_ordinal);
+
+-- Recompute the days from from_date onwards; earlier ordinals are unaffected by a change at from_date.
+-- work_week is a bitmask of the worked days, bit 0 = Monday ... bit 6 = Sunday (31 = Monday to Friday).
+-- Called by the application with gantt.calendar.default-work-week on startup and after holiday writes,
+-- and after bulk holiday inserts in these scripts.
+CREATE OR REPLACE PROCEDURE refresh_calendar_days(from_date DATE DEFAULT DATE '2020-01-01',
+                                                  work_week INTEGER DEFAULT 31)
+LANGUAGE plpgsql AS $$
+DECLARE
+    base_ordinal INTEGER;
+BEGIN
+    SELECT COALESCE(MAX(working_day_ordinal), 0) INTO base_ordinal
+    FROM calendar_days
+    WHERE calendar_date < GREATEST(from_date, DATE '2020-01-01');
+
+    INSERT INTO calendar_days (calendar_date, is_working_day, working_day_ordinal)
+    SELECT day, working, base_ordinal + SUM(CASE WHEN working THEN 1 ELSE 0 END) OVER (ORDER BY day)
+    FROM (
+        SELECT d::date AS day,
+               ((work_week >> (EXTRACT(ISODOW FROM d)::INTEGER - 1)) & 1) = 1 AND NOT EXISTS (
+                   SELECT 1 FROM holidays h
+                   WHERE h.holiday_date = d::date AND COALESCE(h.is_working_day, FALSE) = FALSE
+               ) AS working
+        FROM generate_series(GREATEST(from_date, DATE '2020-01-01'), DATE '2050-12-31', INTERVAL '1 day') AS d
+    ) days
+    ON CONFLICT (calendar_date) DO UPDATE
+        SET is_working_day = EXCLUDED.is_working_day,
+            working_day_ordinal = EXCLUDED.working_day_ordinal;
+END;
+$$;
+
+CALL refresh_calendar_days();
+
 -- ===========================================
 -- SETUP COMPLETE
 -- ===========================================
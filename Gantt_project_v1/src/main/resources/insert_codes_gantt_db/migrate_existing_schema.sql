@@ -0,0 +1,261 @@
+-- Existing Schema Migration
+-- Objects that only the setup scripts create: spring.jpa.hibernate.ddl-auto builds the entity tables but
+-- no triggers, procedures or tables without an entity, and create-drop drops the triggers with the tables
+-- on every restart. The application runs this script after the Hibernate DDL on every startup
+-- (spring.sql.init), so each section only creates what is missing. It can also be run with psql.
+
+-- ===========================================
+-- HIERARCHY CLOSURE TABLES (Maintained from tasks and epics)
+-- ===========================================
+-- Same tables, functions and triggers as complete_setup_sql.sql; the foreign keys are added last, after
+-- the rows are rebuilt, because tables dropped by create-drop leave closure rows of deleted tasks behind
+CREATE TABLE IF NOT EXISTS task_closure (
+    ancestor_id UUID NOT NULL,
+    descendant_id UUID NOT NULL,
+    depth INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE TABLE IF NOT EXISTS epic_closure (
+    ancestor_id UUID NOT NULL,
+    descendant_id UUID NOT NULL,
+    depth INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_closure_descendant ON task_closure(descendant_id, depth);
+CREATE INDEX IF NOT EXISTS idx_epic_closure_descendant ON epic_closure(descendant_id, depth);
+
+CREATE OR REPLACE FUNCTION maintain_task_closure() RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO task_closure (ancestor_id, descendant_id, depth)
+        SELECT ancestor_id, NEW.task_id, depth + 1 FROM task_closure WHERE descendant_id = NEW.parent_task_id
+        UNION ALL
+        SELECT NEW.task_id, NEW.task_id, 0;
+        RETURN NEW;
+    END IF;
+
+    -- Parent changed: detach the subtree from its old ancestors, then attach it under the new parent
+    IF EXISTS (SELECT 1 FROM task_closure WHERE ancestor_id = NEW.task_id AND descendant_id = NEW.parent_task_id) THEN
+        RAISE EXCEPTION 'Task % cannot be moved under its own subtree', NEW.task_id;
+    END IF;
+
+    DELETE FROM task_closure c
+    USING task_closure sub, task_closure sup
+    WHERE sub.ancestor_id = NEW.task_id
+      AND sup.descendant_id = NEW.task_id AND sup.depth > 0
+      AND c.ancestor_id = sup.ancestor_id AND c.descendant_id = sub.descendant_id;
+
+    INSERT INTO task_closure (ancestor_id, descendant_id, depth)
+    SELECT sup.ancestor_id, sub.descendant_id, sup.depth + sub.depth + 1
+    FROM task_closure sup
+    CROSS JOIN task_closure sub
+    WHERE sup.descendant_id = NEW.parent_task_id AND sub.ancestor_id = NEW.task_id;
+    RETURN NEW;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION maintain_epic_closure() RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO epic_closure (ancestor_id, descendant_id, depth)
+        SELECT ancestor_id, NEW.epic_id, depth + 1 FROM epic_closure WHERE descendant_id = NEW.parent_epic_id
+        UNION ALL
+        SELECT NEW.epic_id, NEW.epic_id, 0;
+        RETURN NEW;
+    END IF;
+
+    -- Parent changed: detach the subtree from its old ancestors, then attach it under the new parent
+    IF EXISTS (SELECT 1 FROM epic_closure WHERE ancestor_id = NEW.epic_id AND descendant_id = NEW.parent_epic_id) THEN
+        RAISE EXCEPTION 'Epic % cannot be moved under its own subtree', NEW.epic_id;
+    END IF;
+
+    DELETE FROM epic_closure c
+    USING epic_closure sub, epic_closure sup
+    WHERE sub.ancestor_id = NEW.epic_id
+      AND sup.descendant_id = NEW.epic_id AND sup.depth > 0
+      AND c.ancestor_id = sup.ancestor_id AND c.descendant_id = sub.descendant_id;
+
+    INSERT INTO epic_closure (ancestor_id, descendant_id, depth)
+    SELECT sup.ancestor_id, sub.descendant_id, sup.depth + sub.depth + 1
+    FROM epic_closure sup
+    CROSS JOIN epic_closure sub
+    WHERE sup.descendant_id = NEW.parent_epic_id AND sub.ancestor_id = NEW.epic_id;
+    RETURN NEW;
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE rebuild_hierarchy_closures()
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    DELETE FROM task_closure;
+    INSERT INTO task_closure (ancestor_id, descendant_id, depth)
+    WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+        SELECT task_id, task_id, 0 FROM tasks
+        UNION ALL
+        SELECT p.ancestor_id, t.task_id, p.depth + 1
+        FROM paths p
+        JOIN tasks t ON t.parent_task_id = p.descendant_id
+    )
+    SELECT ancestor_id, descendant_id, depth FROM paths;
+
+    DELETE FROM epic_closure;
+    INSERT INTO epic_closure (ancestor_id, descendant_id, depth)
+    WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+        SELECT epic_id, epic_id, 0 FROM epics
+        UNION ALL
+        SELECT p.ancestor_id, e.epic_id, p.depth + 1
+        FROM paths p
+        JOIN epics e ON e.parent_epic_id = p.descendant_id
+    )
+    SELECT ancestor_id, descendant_id, depth FROM paths;
+END;
+$$;
+
+-- A missing trigger or foreign key means rows were written without the triggers, so recreate what is
+-- missing and rebuild the closure rows from the parent columns before adding the foreign keys
+DO $$
+DECLARE
+    stale BOOLEAN := FALSE;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger
+                   WHERE tgrelid = 'tasks'::regclass AND tgname = 'trg_task_closure_insert') THEN
+        CREATE TRIGGER trg_task_closure_insert
+            AFTER INSERT ON tasks
+            FOR EACH ROW EXECUTE FUNCTION maintain_task_closure();
+        stale := TRUE;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger
+                   WHERE tgrelid = 'tasks'::regclass AND tgname = 'trg_task_closure_move') THEN
+        CREATE TRIGGER trg_task_closure_move
+            AFTER UPDATE OF parent_task_id ON tasks
+            FOR EACH ROW
+            WHEN (OLD.parent_task_id IS DISTINCT FROM NEW.parent_task_id)
+            EXECUTE FUNCTION maintain_task_closure();
+        stale := TRUE;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger
+                   WHERE tgrelid = 'epics'::regclass AND tgname = 'trg_epic_closure_insert') THEN
+        CREATE TRIGGER trg_epic_closure_insert
+            AFTER INSERT ON epics
+            FOR EACH ROW EXECUTE FUNCTION maintain_epic_closure();
+        stale := TRUE;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger
+                   WHERE tgrelid = 'epics'::regclass AND tgname = 'trg_epic_closure_move') THEN
+        CREATE TRIGGER trg_epic_closure_move
+            AFTER UPDATE OF parent_epic_id ON epics
+            FOR EACH ROW
+            WHEN (OLD.parent_epic_id IS DISTINCT FROM NEW.parent_epic_id)
+            EXECUTE FUNCTION maintain_epic_closure();
+        stale := TRUE;
+    END IF;
+
+    IF stale OR (SELECT COUNT(*) FROM pg_constraint
+                 WHERE conname IN ('fk_task_closure_ancestor', 'fk_task_closure_descendant',
+                                   'fk_epic_closure_ancestor', 'fk_epic_closure_descendant')) < 4 THEN
+        CALL rebuild_hierarchy_closures();
+        RAISE NOTICE 'Rebuilt task_closure and epic_closure';
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_task_closure_ancestor') THEN
+        ALTER TABLE task_closure ADD CONSTRAINT fk_task_closure_ancestor
+            FOREIGN KEY (ancestor_id) REFERENCES tasks(task_id) ON DELETE CASCADE;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_task_closure_descendant') THEN
+        ALTER TABLE task_closure ADD CONSTRAINT fk_task_closure_descendant
+            FOREIGN KEY (descendant_id) REFERENCES tasks(task_id) ON DELETE CASCADE;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_epic_closure_ancestor') THEN
+        ALTER TABLE epic_closure ADD CONSTRAINT fk_epic_closure_ancestor
+            FOREIGN KEY (ancestor_id) REFERENCES epics(epic_id) ON DELETE CASCADE;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_epic_closure_descendant') THEN
+        ALTER TABLE epic_closure ADD CONSTRAINT fk_epic_closure_descendant
+            FOREIGN KEY (descendant_id) REFERENCES epics(epic_id) ON DELETE CASCADE;
+    END IF;
+END $$;
+
+-- ===========================================
+-- TASK FULL-TEXT SEARCH (search_vector)
+-- ===========================================
+-- The generated document of /tasks/search has no entity field, so Hibernate never creates it
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector);
+
+-- ===========================================
+-- TASK LABELS (JSONB)
+-- ===========================================
+-- Databases from the first setup scripts store labels as TEXT[]; the entity and the label filter
+-- (labels @> '[...]') expect a JSONB array, so convert the column once
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = 'tasks' AND column_name = 'labels') = 'ARRAY' THEN
+        ALTER TABLE tasks ALTER COLUMN labels TYPE JSONB USING to_jsonb(labels);
+        RAISE NOTICE 'Converted tasks.labels to JSONB';
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_labels ON tasks USING GIN (labels jsonb_path_ops);
+
+-- ===========================================
+-- CALENDAR DAYS DIMENSION (Maintained from holidays)
+-- ===========================================
+-- Table and procedure as in complete_setup_sql.sql. The application refreshes every day on startup with
+-- gantt.calendar.default-work-week; the table is filled here only when empty, for runs through psql.
+CREATE TABLE IF NOT EXISTS calendar_days (
+    calendar_date DATE PRIMARY KEY,
+    is_working_day BOOLEAN NOT NULL,
+    working_day_ordinal INTEGER NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_calendar_days_ordinal ON calendar_days(working_day_ordinal);
+
+-- The earlier procedure had no work_week parameter and always counted Monday to Friday
+DROP PROCEDURE IF EXISTS refresh_calendar_days(DATE);
+
+CREATE OR REPLACE PROCEDURE refresh_calendar_days(from_date DATE DEFAULT DATE '2020-01-01',
+                                                  work_week INTEGER DEFAULT 31)
+LANGUAGE plpgsql AS $$
+DECLARE
+    base_ordinal INTEGER;
+BEGIN
+    SELECT COALESCE(MAX(working_day_ordinal), 0) INTO base_ordinal
+    FROM calendar_days
+    WHERE calendar_date < GREATEST(from_date, DATE '2020-01-01');
+
+    INSERT INTO calendar_days (calendar_date, is_working_day, working_day_ordinal)
+    SELECT day, working, base_ordinal + SUM(CASE WHEN working THEN 1 ELSE 0 END) OVER (ORDER BY day)
+    FROM (
+        SELECT d::date AS day,
+               ((work_week >> (EXTRACT(ISODOW FROM d)::INTEGER - 1)) & 1) = 1 AND NOT EXISTS (
+                   SELECT 1 FROM holidays h
+                   WHERE h.holiday_date = d::date AND COALESCE(h.is_working_day, FALSE) = FALSE
+               ) AS working
+        FROM generate_series(GREATEST(from_date, DATE '2020-01-01'), DATE '2050-12-31', INTERVAL '1 day') AS d
+    ) days
+    ON CONFLICT (calendar_date) DO UPDATE
+        SET is_working_day = EXCLUDED.is_working_day,
+            working_day_ordinal = EXCLUDED.working_day_ordinal;
+END;
+$$;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM calendar_days) THEN
+        CALL refresh_calendar_days();
+    END IF;
+END $$;
@@ -0,0 +1,37 @@
+-- Holidays Unique Constraint Migration
+-- Databases created before country calendars have a UNIQUE constraint on holiday_date alone, which
+-- spring.jpa.hibernate.ddl-auto=update never drops. It blocks two countries from sharing a holiday date.
+-- Run once against an existing database; fresh setups from complete_setup_sql.sql do not need it.
+
+-- ===========================================
+-- DROP THE OLD holiday_date UNIQUE CONSTRAINT
+-- ===========================================
+-- The name depends on who created the table (holidays_holiday_date_key from the setup scripts,
+-- a generated UK... name from Hibernate), so drop every unique constraint on exactly that column
+DO $$
+DECLARE
+    old_constraint TEXT;
+BEGIN
+    FOR old_constraint IN
+        SELECT c.conname
+        FROM pg_constraint c
+        WHERE c.conrelid = 'holidays'::regclass
+          AND c.contype = 'u'
+          AND c.conkey = ARRAY[(SELECT a.attnum FROM pg_attribute a
+                                WHERE a.attrelid = 'holidays'::regclass AND a.attname = 'holiday_date')]
+    LOOP
+        EXECUTE format('ALTER TABLE holidays DROP CONSTRAINT %I', old_constraint);
+        RAISE NOTICE 'Dropped constraint %', old_constraint;
+    END LOOP;
+END $$;
+
+-- ===========================================
+-- ADD THE (holiday_date, country_code) UNIQUE CONSTRAINT
+-- ===========================================
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'holidays'::regclass AND conname = 'uq_holidays_date_country') THEN
+        ALTER TABLE holidays ADD CONSTRAINT uq_holidays_date_country UNIQUE (holiday_date, country_code);
+    END IF;
+END $$;
@@ -0,0 +1,234 @@
+package com.ontik.gantt_project_v1.calendar;
+
+import com.ontik.gantt_project_v1.model.Holiday;
+import com.ontik.gantt_project_v1.model.UserAvailability;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class WorkingDayCalendarTests {
+
+    private static final List<Holiday> HOLIDAYS = List.of(
+            holiday("2024-01-01", false),
+            holiday("2024-07-04", false),
+            holiday("2024-12-25", false),
+            holiday("2025-01-01", false),
+            holiday("2025-11-27", false),
+            holiday("2025-11-28", true),
+            holiday("2026-12-25", false));
+
+    private static final Set<LocalDate> CLOSED = HOLIDAYS.stream()
+            .filter(h -> !h.getIsWorkingDay())
+            .map(Holiday::getHolidayDate)
+            .collect(Collectors.toSet());
+
+    private final WorkingDayCalendar calendar = WorkingDayCalendar.build(HOLIDAYS);
+
+    @Test
+    void workingDaysBetweenMatchesDayByDayCount() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            LocalDate start = randomDate(random);
+            LocalDate end = start.plusDays(random.nextInt(900) - 50);
+            assertEquals(referenceWorkingDaysBetween(start, end), calendar.workingDaysBetween(start, end),
+                    () -> "workingDaysBetween " + start + " .. " + end);
+        }
+    }
+
+    @Test
+    void plusWorkingDaysMatchesDayByDayWalk() {
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            LocalDate start = randomDate(random);
+            int days = random.nextInt(600);
+            assertEquals(referencePlusWorkingDays(start, days), calendar.plusWorkingDays(start, days),
+                    () -> "plusWorkingDays " + start + " + " + days);
+        }
+    }
+
+    @Test
+    void shiftWorkingDaysMatchesDayByDayWalk() {
+        Random random = new Random(11);
+        for (int i = 0; i < 2000; i++) {
+            LocalDate date = randomDate(random);
+            int days = random.nextInt(801) - 400;
+            assertEquals(referenceShiftWorkingDays(date, days), calendar.shiftWorkingDays(date, days),
+                    () -> "shiftWorkingDays " + date + " by " + days);
+        }
+        assertEquals(LocalDate.parse("2024-07-08"), calendar.shiftWorkingDays(LocalDate.parse("2024-07-03"), 2));
+        assertEquals(LocalDate.parse("2024-07-03"), calendar.shiftWorkingDays(LocalDate.parse("2024-07-08"), -2));
+    }
+
+    @Test
+    void nextWorkingDaySkipsWeekendsAndClosedHolidays() {
+        assertEquals(LocalDate.parse("2024-07-05"), calendar.nextWorkingDay(LocalDate.parse("2024-07-03")));
+        assertEquals(LocalDate.parse("2025-11-28"), calendar.nextWorkingDay(LocalDate.parse("2025-11-26")));
+        assertEquals(LocalDate.parse("2026-12-28"), calendar.nextWorkingDay(LocalDate.parse("2026-12-24")));
+        assertEquals(LocalDate.parse("2019-01-07"), calendar.nextWorkingDay(LocalDate.parse("2019-01-04")));
+    }
+
+    @Test
+    void customWorkWeekAppliesInsideAndOutsideHolidayYears() {
+        // Sunday to Thursday
+        WorkingDayCalendar sundayToThursday = WorkingDayCalendar.build(HOLIDAYS, 0b1001111);
+
+        // 2024-07-04 (Thursday) is a closed holiday, Friday and Saturday are the weekend
+        assertEquals(LocalDate.parse("2024-07-07"), sundayToThursday.nextWorkingDay(LocalDate.parse("2024-07-03")));
+        assertEquals(LocalDate.parse("2030-01-06"), sundayToThursday.nextWorkingDay(LocalDate.parse("2030-01-03")));
+        assertEquals(5, sundayToThursday.workingDaysBetween(LocalDate.parse("2030-01-06"), LocalDate.parse("2030-01-12")));
+    }
+
+    @Test
+    void withYearsMatchesFullRebuild() {
+        Holiday added = holiday("2028-03-15", false);
+        WorkingDayCalendar incremental = calendar
+                .withYears(Map.of(2025, List.of(), 2028, List.of(added)));
+
+        List<Holiday> remaining = new ArrayList<>(HOLIDAYS);
+        remaining.removeIf(h -> h.getHolidayDate().getYear() == 2025);
+        remaining.add(added);
+        WorkingDayCalendar rebuilt = WorkingDayCalendar.build(remaining);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            LocalDate start = randomDate(random);
+            int days = random.nextInt(400);
+            assertEquals(rebuilt.plusWorkingDays(start, days), incremental.plusWorkingDays(start, days));
+            assertEquals(rebuilt.workingDaysBetween(start, start.plusDays(days)),
+                    incremental.workingDaysBetween(start, start.plusDays(days)));
+        }
+    }
+
+    @Test
+    void workingDayBitmapMatchesDayByDayChecks() {
+        LocalDate start = LocalDate.of(2024, 11, 20);
+        LocalDate end = LocalDate.of(2026, 2, 3);
+        byte[] bitmap = calendar.workingDayBitmap(start, end);
+
+        int days = (int) (end.toEpochDay() - start.toEpochDay()) + 1;
+        assertEquals((days + 7) / 8, bitmap.length);
+        for (int i = 0; i < days; i++) {
+            boolean bit = (bitmap[i >> 3] & (1 << (i & 7))) != 0;
+            assertEquals(referenceIsWorkingDay(start.plusDays(i)), bit);
+        }
+    }
+
+    @Test
+    void availabilityNarrowsTheCalendarToTheAssignee() {
+        LocalDate leaveStart = LocalDate.of(2025, 3, 10);
+        LocalDate leaveEnd = LocalDate.of(2025, 3, 21);
+        LocalDate partTimeSince = LocalDate.of(2025, 6, 1);
+        WorkingDayCalendar assignee = calendar.and(Availability.of(List.of(
+                UserAvailability.builder().availabilityType(UserAvailability.LEAVE)
+                        .startDate(leaveStart).endDate(leaveEnd).build(),
+                UserAvailability.builder().availabilityType(UserAvailability.SCHEDULE)
+                        .startDate(partTimeSince).workWeek("MON,TUE,WED").build())));
+
+        Random random = new Random(4);
+        for (int i = 0; i < 1000; i++) {
+            LocalDate start = randomDate(random);
+            int days = 1 + random.nextInt(200);
+
+            LocalDate expected = start;
+            int added = 0;
+            for (LocalDate day = start; ; day = day.plusDays(1)) {
+                boolean onLeave = !day.isBefore(leaveStart) && !day.isAfter(leaveEnd);
+                boolean partTimeOff = !day.isBefore(partTimeSince) && day.getDayOfWeek().getValue() > 3;
+                if (referenceIsWorkingDay(day) && !onLeave && !partTimeOff && ++added == days) {
+                    expected = day;
+                    break;
+                }
+            }
+            assertEquals(expected, assignee.plusWorkingDays(start, days));
+        }
+        assertSame(calendar, calendar.and(Availability.ALWAYS));
+    }
+
+    @Test
+    void withNonWorkingHolidayMatchesRebuildWithTheChange() {
+        List<Holiday> added = new ArrayList<>(HOLIDAYS);
+        added.add(holiday("2025-05-07", false));
+        List<Holiday> removed = new ArrayList<>(HOLIDAYS);
+        removed.removeIf(h -> h.getHolidayDate().equals(LocalDate.of(2024, 7, 4)));
+
+        WorkingDayCalendar whatIfAdded = calendar.withNonWorkingHoliday(LocalDate.of(2025, 5, 7), "Holiday", true);
+        WorkingDayCalendar whatIfRemoved = calendar.withNonWorkingHoliday(LocalDate.of(2024, 7, 4), null, false);
+        WorkingDayCalendar rebuiltAdded = WorkingDayCalendar.build(added);
+        WorkingDayCalendar rebuiltRemoved = WorkingDayCalendar.build(removed);
+
+        Random random = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            LocalDate start = randomDate(random);
+            int days = 1 + random.nextInt(400);
+            assertEquals(rebuiltAdded.plusWorkingDays(start, days), whatIfAdded.plusWorkingDays(start, days));
+            assertEquals(rebuiltRemoved.plusWorkingDays(start, days), whatIfRemoved.plusWorkingDays(start, days));
+        }
+        assertSame(calendar, calendar.withNonWorkingHoliday(LocalDate.of(2024, 12, 25), "Christmas", true));
+    }
+
+    private static LocalDate randomDate(Random random) {
+        return LocalDate.of(2021, 1, 1).plusDays(random.nextInt(365 * 8));
+    }
+
+    private static boolean referenceIsWorkingDay(LocalDate date) {
+        return date.getDayOfWeek() != DayOfWeek.SATURDAY
+                && date.getDayOfWeek() != DayOfWeek.SUNDAY
+                && !CLOSED.contains(date);
+    }
+
+    private static int referenceWorkingDaysBetween(LocalDate start, LocalDate end) {
+        int count = 0;
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            if (referenceIsWorkingDay(day)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static LocalDate referencePlusWorkingDays(LocalDate start, int days) {
+        if (days <= 0) {
+            return start;
+        }
+        LocalDate day = start;
+        int added = 0;
+        while (true) {
+            if (referenceIsWorkingDay(day) && ++added == days) {
+                return day;
+            }
+            day = day.plusDays(1);
+        }
+    }
+
+    private static LocalDate referenceShiftWorkingDays(LocalDate date, int days) {
+        LocalDate day = date;
+        while (!referenceIsWorkingDay(day)) {
+            day = day.plusDays(1);
+        }
+        for (int moved = 0; moved < Math.abs(days); ) {
+            day = day.plusDays(Integer.signum(days));
+            if (referenceIsWorkingDay(day)) {
+                moved++;
+            }
+        }
+        return day;
+    }
+
+    private static Holiday holiday(String date, boolean workingDay) {
+        return Holiday.builder()
+                .holidayDate(LocalDate.parse(date))
+                .holidayName("Holiday " + date)
+                .isWorkingDay(workingDay)
+                .build();
+    }
+}
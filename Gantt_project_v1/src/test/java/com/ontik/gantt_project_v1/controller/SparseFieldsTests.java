@@ -0,0 +1,95 @@
+package com.ontik.gantt_project_v1.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import com.ontik.gantt_project_v1.dto.TaskSummary;
+import com.ontik.gantt_project_v1.dto.TaskWithUserDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SparseFieldsTests {
+
+    // Configured as Spring Boot configures the application's mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void parseAddsIdAndIgnoresBlankNames() {
+        SparseFields selection = SparseFields.parse(" title, ,dueDate ", objectMapper, TaskWithUserDTO.class);
+
+        assertTrue(selection.includes("id"));
+        assertTrue(selection.includes("title"));
+        assertTrue(selection.includes("dueDate"));
+        assertFalse(selection.includes("description"));
+    }
+
+    @Test
+    void parseRejectsUnknownFields() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SparseFields.parse("title,passwordHash", objectMapper, TaskWithUserDTO.class));
+        assertEquals("Unknown field: passwordHash", e.getMessage());
+        // Java field names that are not JSON properties of the view are unknown too
+        assertThrows(IllegalArgumentException.class,
+                () -> SparseFields.parse("taskId", objectMapper, TaskWithUserDTO.class));
+    }
+
+    @Test
+    void selectKeepsOnlyTheRequestedFields() {
+        TaskWithUserDTO task = task();
+        SparseFields selection = SparseFields.parse("title,startDate", objectMapper, TaskWithUserDTO.class);
+
+        List<Object> items = selection.select(List.of(task));
+
+        JsonNode item = objectMapper.valueToTree(items.get(0));
+        assertEquals(3, item.size());
+        assertEquals(task.getId().toString(), item.get("id").asText());
+        assertEquals("Design schema", item.get("title").asText());
+        assertEquals("2025-02-03", item.get("startDate").asText());
+    }
+
+    @Test
+    void selectWithoutFieldsReturnsItemsWhole() {
+        TaskWithUserDTO task = task();
+        SparseFields selection = SparseFields.parse(null, objectMapper, TaskWithUserDTO.class);
+
+        CursorPage<Object> page = selection.select(new CursorPage<>(List.of(task), "next"));
+
+        assertSame(task, page.getItems().get(0));
+        assertEquals("next", page.getNext());
+        assertTrue(selection.includes("description"));
+    }
+
+    @Test
+    void coveredByTheSummaryOnlyWhenEveryFieldIsInIt() {
+        assertTrue(SparseFields.parse("title,startDate,dueDate", objectMapper, TaskWithUserDTO.class)
+                .coveredBy(TaskSummary.class));
+        assertFalse(SparseFields.parse("title,description", objectMapper, TaskWithUserDTO.class)
+                .coveredBy(TaskSummary.class));
+        // Whole items need the full view
+        assertFalse(SparseFields.parse("", objectMapper, TaskWithUserDTO.class).coveredBy(TaskSummary.class));
+    }
+
+    private static TaskWithUserDTO task() {
+        return TaskWithUserDTO.builder()
+                .id(UUID.randomUUID())
+                .title("Design schema")
+                .description("Tables and indexes")
+                .startDate(LocalDate.of(2025, 2, 3))
+                .dueDate(LocalDate.of(2025, 2, 7))
+                .status("To Do")
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+package com.ontik.gantt_project_v1.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The task_closure and epic_closure triggers of the setup script, and the startup migration that
+ * restores them on schemas created by Hibernate.
+ */
+class HierarchyClosureTests {
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+        runScript("complete_setup_sql.sql");
+    }
+
+    @Test
+    void insertAddsAPathFromEveryAncestor() {
+        UUID root = insertTask(null);
+        UUID child = insertTask(root);
+        UUID grandchild = insertTask(child);
+
+        assertEquals(Map.of(root, 2, child, 1, grandchild, 0), taskAncestors(grandchild));
+        assertEquals(Map.of(root, 0, child, 1, grandchild, 2), taskDescendants(root));
+    }
+
+    @Test
+    void reparentMovesTheWholeSubtree() {
+        UUID oldRoot = insertTask(null);
+        UUID newRoot = insertTask(null);
+        UUID child = insertTask(oldRoot);
+        UUID grandchild = insertTask(child);
+
+        jdbcTemplate.update("UPDATE tasks SET parent_task_id = ? WHERE task_id = ?", newRoot, child);
+
+        assertEquals(Map.of(newRoot, 2, child, 1, grandchild, 0), taskAncestors(grandchild));
+        assertEquals(Map.of(oldRoot, 0), taskDescendants(oldRoot));
+        assertEquals(Map.of(newRoot, 0, child, 1, grandchild, 2), taskDescendants(newRoot));
+    }
+
+    @Test
+    void moveUnderItsOwnSubtreeIsRejected() {
+        UUID root = insertTask(null);
+        UUID child = insertTask(root);
+        UUID grandchild = insertTask(child);
+
+        DataAccessException e = assertThrows(DataAccessException.class,
+                () -> jdbcTemplate.update("UPDATE tasks SET parent_task_id = ? WHERE task_id = ?", grandchild, root));
+        assertTrue(e.getMessage().contains("cannot be moved under its own subtree"), e.getMessage());
+        assertEquals(Map.of(root, 2, child, 1, grandchild, 0), taskAncestors(grandchild));
+    }
+
+    @Test
+    void deletedParentReRootsItsChildren() {
+        UUID root = insertTask(null);
+        UUID child = insertTask(root);
+        UUID grandchild = insertTask(child);
+
+        jdbcTemplate.update("DELETE FROM tasks WHERE task_id = ?", child);
+
+        assertEquals(Map.of(grandchild, 0), taskAncestors(grandchild));
+        assertEquals(Map.of(root, 0), taskDescendants(root));
+    }
+
+    @Test
+    void epicClosureFollowsParentEpics() {
+        UUID project = jdbcTemplate.queryForObject(
+                "INSERT INTO projects (project_name, start_date) VALUES ('Gantt', DATE '2025-01-01') RETURNING project_id",
+                UUID.class);
+        UUID oldRoot = insertEpic(project, null);
+        UUID newRoot = insertEpic(project, null);
+        UUID child = insertEpic(project, oldRoot);
+        UUID grandchild = insertEpic(project, child);
+
+        jdbcTemplate.update("UPDATE epics SET parent_epic_id = ? WHERE epic_id = ?", newRoot, child);
+
+        assertEquals(Map.of(newRoot, 2, child, 1, grandchild, 0),
+                closure("SELECT ancestor_id AS id, depth FROM epic_closure WHERE descendant_id = ?", grandchild));
+        assertThrows(DataAccessException.class,
+                () -> jdbcTemplate.update("UPDATE epics SET parent_epic_id = ? WHERE epic_id = ?", child, newRoot));
+    }
+
+    @Test
+    void migrationRestoresMissingTablesAndTriggers() throws SQLException {
+        // As left by ddl-auto: tasks written without any closure table or trigger
+        jdbcTemplate.execute("DROP TABLE task_closure, epic_closure;"
+                + " DROP TRIGGER trg_task_closure_insert ON tasks; DROP TRIGGER trg_task_closure_move ON tasks;"
+                + " DROP TRIGGER trg_epic_closure_insert ON epics; DROP TRIGGER trg_epic_closure_move ON epics");
+        UUID root = insertTask(null);
+        UUID child = insertTask(root);
+
+        runScript("migrate_existing_schema.sql");
+        UUID grandchild = insertTask(child);
+
+        assertEquals(Map.of(root, 2, child, 1, grandchild, 0), taskAncestors(grandchild));
+        assertThrows(DataAccessException.class,
+                () -> jdbcTemplate.update("UPDATE tasks SET parent_task_id = ? WHERE task_id = ?", child, root));
+    }
+
+    @Test
+    void migrationRemovesRowsOfDroppedTasks() throws SQLException {
+        // As left by create-drop: the cascade drops the foreign keys and keeps the rows of the old tasks
+        UUID task = insertTask(null);
+        jdbcTemplate.execute("ALTER TABLE task_closure DROP CONSTRAINT fk_task_closure_ancestor,"
+                + " DROP CONSTRAINT fk_task_closure_descendant");
+        UUID dropped = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO task_closure VALUES (?, ?, 0)", dropped, dropped);
+
+        runScript("migrate_existing_schema.sql");
+        runScript("migrate_existing_schema.sql");
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_closure", Integer.class));
+        assertEquals(Map.of(task, 0), taskAncestors(task));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conrelid = 'task_closure'::regclass AND contype = 'f'",
+                Integer.class));
+    }
+
+    // Runs a script the way spring.sql.init does: the whole file in one statement
+    private void runScript(String name) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            ScriptUtils.executeSqlScript(connection,
+                    new EncodedResource(new ClassPathResource("insert_codes_gantt_db/" + name)),
+                    false, false, ScriptUtils.DEFAULT_COMMENT_PREFIX, ScriptUtils.EOF_STATEMENT_SEPARATOR,
+                    ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER, ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+        }
+    }
+
+    private UUID insertTask(UUID parentTaskId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO tasks (type, title, start_date, parent_task_id)"
+                        + " VALUES ('task', 'Task', DATE '2025-05-05', ?) RETURNING task_id",
+                UUID.class, parentTaskId);
+    }
+
+    private UUID insertEpic(UUID projectId, UUID parentEpicId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epics (name, start_date, end_date, project_id, parent_epic_id)"
+                        + " VALUES ('Epic', DATE '2025-05-05', DATE '2025-06-05', ?, ?) RETURNING epic_id",
+                UUID.class, projectId, parentEpicId);
+    }
+
+    private Map<UUID, Integer> taskAncestors(UUID taskId) {
+        return closure("SELECT ancestor_id AS id, depth FROM task_closure WHERE descendant_id = ?", taskId);
+    }
+
+    private Map<UUID, Integer> taskDescendants(UUID taskId) {
+        return closure("SELECT descendant_id AS id, depth FROM task_closure WHERE ancestor_id = ?", taskId);
+    }
+
+    private Map<UUID, Integer> closure(String sql, UUID id) {
+        Map<UUID, Integer> depths = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            depths.put(rs.getObject("id", UUID.class), rs.getInt("depth"));
+        }, id);
+        return depths;
+    }
+}
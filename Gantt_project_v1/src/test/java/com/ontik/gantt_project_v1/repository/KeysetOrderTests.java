@@ -0,0 +1,78 @@
+package com.ontik.gantt_project_v1.repository;
+
+import com.ontik.gantt_project_v1.model.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetOrderTests {
+
+    private final KeysetOrder order = KeysetOrder.of("startDate", LocalDate::parse, "taskId");
+
+    @Test
+    void cursorOfRowRoundTripsToItsKeys() {
+        UUID id = UUID.randomUUID();
+        Task task = Task.builder().taskId(id).startDate(LocalDate.of(2025, 3, 14)).build();
+
+        Map<String, Object> keys = order.keys(order.cursorAfter(task));
+
+        assertEquals(Map.of("startDate", LocalDate.of(2025, 3, 14), "taskId", id), keys);
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        for (int i = 0; i < 200; i++) {
+            String cursor = order.cursorOf(LocalDate.of(2020, 1, 1).plusDays(i), UUID.randomUUID());
+            assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+        }
+    }
+
+    @Test
+    void sortValueMayContainTheSeparator() {
+        KeysetOrder byTitle = KeysetOrder.of("title", value -> value, "taskId");
+        UUID id = UUID.randomUUID();
+
+        Map<String, Object> keys = byTitle.keys(byTitle.cursorOf("a|b", id));
+
+        assertEquals("a|b", keys.get("title"));
+        assertEquals(id, keys.get("taskId"));
+    }
+
+    @Test
+    void positionContinuesAfterTheCursor() {
+        UUID id = UUID.randomUUID();
+        String cursor = order.cursorOf(LocalDate.of(2024, 12, 31), id);
+
+        ScrollPosition position = order.position(cursor);
+
+        KeysetScrollPosition keyset = assertInstanceOf(KeysetScrollPosition.class, position);
+        assertEquals(Map.of("startDate", LocalDate.of(2024, 12, 31), "taskId", id), keyset.getKeys());
+        assertTrue(order.position(null).isInitial());
+        assertTrue(order.position(" ").isInitial());
+    }
+
+    @Test
+    void invalidCursorsAreRejected() {
+        String notBase64 = "not a cursor!";
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2024-01-01".getBytes(StandardCharsets.UTF_8));
+        String badDate = order.cursorOf("2024-13-01", UUID.randomUUID());
+        String badId = order.cursorOf(LocalDate.of(2024, 1, 1), "not-a-uuid");
+
+        for (String cursor : new String[] {notBase64, noSeparator, badDate, badId}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> order.keys(cursor));
+            assertTrue(e.getMessage().startsWith("Invalid cursor"), e.getMessage());
+            assertThrows(IllegalArgumentException.class, () -> order.position(cursor));
+        }
+    }
+}
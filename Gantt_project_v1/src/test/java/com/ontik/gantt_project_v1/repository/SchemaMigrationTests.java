@@ -0,0 +1,113 @@
+package com.ontik.gantt_project_v1.repository;
+
+import com.ontik.gantt_project_v1.config.CalendarProperties;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * migrate_existing_schema.sql against databases created by earlier versions of the setup scripts.
+ */
+class SchemaMigrationTests {
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+        runScript("complete_setup_sql.sql");
+    }
+
+    @Test
+    void textArrayLabelsAreConvertedToJsonb() throws SQLException {
+        // As created by the first setup scripts
+        jdbcTemplate.execute("DROP INDEX idx_tasks_labels; ALTER TABLE tasks DROP COLUMN labels;"
+                + " ALTER TABLE tasks ADD COLUMN labels TEXT[]");
+        UUID labelled = insertTask("ARRAY['backend', 'api']");
+        insertTask("NULL");
+
+        runScript("migrate_existing_schema.sql");
+        runScript("migrate_existing_schema.sql");
+
+        assertEquals("jsonb", jdbcTemplate.queryForObject("SELECT data_type FROM information_schema.columns"
+                + " WHERE table_name = 'tasks' AND column_name = 'labels'", String.class));
+        assertEquals(List.of(labelled), jdbcTemplate.queryForList(
+                "SELECT task_id FROM tasks WHERE labels @> '[\"api\"]'", UUID.class));
+        assertEquals("[\"backend\", \"api\"]", jdbcTemplate.queryForObject(
+                "SELECT labels::text FROM tasks WHERE task_id = ?", String.class, labelled));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE indexname = 'idx_tasks_labels'", Integer.class));
+    }
+
+    @Test
+    void calendarDaysFollowTheGivenWorkWeek() {
+        jdbcTemplate.execute("CALL refresh_calendar_days(DATE '2020-01-01', "
+                + CalendarProperties.parseWorkWeek("SUN,MON,TUE,WED,THU") + ")");
+
+        // Friday 2 May 2025 is off, Sunday 4 May is worked
+        assertEquals(List.of(false, false, true), jdbcTemplate.queryForList("SELECT is_working_day FROM calendar_days"
+                + " WHERE calendar_date BETWEEN DATE '2025-05-02' AND DATE '2025-05-04' ORDER BY calendar_date",
+                Boolean.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT MAX(working_day_ordinal) - MIN(working_day_ordinal)"
+                + " FROM calendar_days WHERE calendar_date BETWEEN DATE '2025-05-01' AND DATE '2025-05-05'",
+                Integer.class));
+    }
+
+    @Test
+    void calendarDaysAndTheWorkWeekProcedureAreCreated() throws SQLException {
+        // As created by the earlier scripts: a procedure without work_week, or no table at all
+        jdbcTemplate.execute("DROP TABLE calendar_days; DROP PROCEDURE refresh_calendar_days(DATE, INTEGER);"
+                + " CREATE PROCEDURE refresh_calendar_days(from_date DATE DEFAULT DATE '2020-01-01')"
+                + " LANGUAGE sql AS 'SELECT 1'");
+
+        runScript("migrate_existing_schema.sql");
+
+        assertEquals(List.of(2), jdbcTemplate.queryForList(
+                "SELECT pronargs FROM pg_proc WHERE proname = 'refresh_calendar_days'", Integer.class));
+        assertEquals(List.of(true, true, false), jdbcTemplate.queryForList("SELECT is_working_day FROM calendar_days"
+                + " WHERE calendar_date BETWEEN DATE '2025-05-01' AND DATE '2025-05-03' ORDER BY calendar_date",
+                Boolean.class));
+    }
+
+    // Runs a script the way spring.sql.init does: the whole file in one statement
+    private void runScript(String name) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            ScriptUtils.executeSqlScript(connection,
+                    new EncodedResource(new ClassPathResource("insert_codes_gantt_db/" + name)),
+                    false, false, ScriptUtils.DEFAULT_COMMENT_PREFIX, ScriptUtils.EOF_STATEMENT_SEPARATOR,
+                    ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER, ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+        }
+    }
+
+    private UUID insertTask(String labels) {
+        return jdbcTemplate.queryForObject("INSERT INTO tasks (type, title, start_date, labels)"
+                + " VALUES ('task', 'Task', DATE '2025-05-05', " + labels + ") RETURNING task_id", UUID.class);
+    }
+}
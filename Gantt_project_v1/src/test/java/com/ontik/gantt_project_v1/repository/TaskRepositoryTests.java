@@ -0,0 +1,160 @@
+package com.ontik.gantt_project_v1.repository;
+
+import com.ontik.gantt_project_v1.dto.CursorPage;
+import com.ontik.gantt_project_v1.model.Epic;
+import com.ontik.gantt_project_v1.model.Task;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The native task queries that read task_closure, on an embedded PostgreSQL whose schema Hibernate
+ * creates and the startup migration completes, as with ddl-auto in the application.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TaskRepositoryTests {
+
+    @TestConfiguration
+    static class EmbeddedDatabase {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EpicRepository epicRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findProjectTasksFindsEpicTasksAndTheirSubtasks() {
+        UUID projectId = UUID.randomUUID();
+        UUID epicId = saveEpic(projectId);
+        UUID otherEpicId = saveEpic(UUID.randomUUID());
+        UUID unlinked = withoutClosureRows(save(null, epicId));
+        UUID parent = save(null, epicId);
+        UUID child = save(parent, null);
+        save(null, otherEpicId);
+
+        Set<UUID> found = taskRepository.findProjectTasks(projectId).stream()
+                .map(Task::getTaskId)
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of(unlinked, parent, child), found);
+    }
+
+    @Test
+    void deleteSubtreesDeletesDescendantsAndTasksWithoutClosureRows() {
+        UUID unlinked = withoutClosureRows(save(null));
+        UUID parent = save(null);
+        UUID child = save(parent);
+        UUID untouched = save(null);
+
+        int deleted = taskRepository.deleteSubtrees(new UUID[] {unlinked, parent});
+
+        assertEquals(3, deleted);
+        assertEquals(List.of(untouched), taskRepository.findExistingIds(List.of(unlinked, parent, child, untouched)));
+    }
+
+    @Test
+    void moveAllWithSubtasksMovesDescendantsAndTasksWithoutClosureRows() {
+        UUID newParent = save(null);
+        UUID unlinked = withoutClosureRows(save(null));
+        UUID parent = save(null);
+        UUID child = save(parent);
+        UUID epicId = UUID.randomUUID();
+        Map<String, UUID> changes = new HashMap<>();
+        changes.put("epicId", epicId);
+        changes.put("parentTaskId", newParent);
+
+        int moved = taskRepository.moveAll(List.of(unlinked, parent), changes, true);
+
+        assertEquals(3, moved);
+        Task movedChild = taskRepository.findById(child).orElseThrow();
+        assertEquals(epicId, movedChild.getEpicId());
+        assertEquals(parent, movedChild.getParentTaskId());
+        for (UUID id : List.of(unlinked, parent)) {
+            Task task = taskRepository.findById(id).orElseThrow();
+            assertEquals(epicId, task.getEpicId());
+            assertEquals(newParent, task.getParentTaskId());
+        }
+        assertNull(taskRepository.findById(newParent).orElseThrow().getEpicId());
+    }
+
+    @Test
+    void searchMatchesTitlesBeforeDescriptions() {
+        UUID inDescription = save(null);
+        jdbcTemplate.update("UPDATE tasks SET description = 'Index the invoices' WHERE task_id = ?", inDescription);
+        UUID inTitle = save(null);
+        jdbcTemplate.update("UPDATE tasks SET title = 'Invoice export' WHERE task_id = ?", inTitle);
+        save(null);
+
+        CursorPage<Task> page = taskRepository.search("invoice:*", null, null, null, null, null, null, null, null,
+                null, 10);
+
+        assertEquals(List.of(inTitle, inDescription), page.getItems().stream().map(Task::getTaskId).toList());
+    }
+
+    private UUID save(UUID parentTaskId) {
+        return save(parentTaskId, null);
+    }
+
+    private UUID save(UUID parentTaskId, UUID epicId) {
+        return taskRepository.saveAndFlush(Task.builder()
+                .type("task")
+                .title("Task")
+                .status("To Do")
+                .priority("Medium")
+                .startDate(LocalDate.of(2025, 5, 5))
+                .parentTaskId(parentTaskId)
+                .epicId(epicId)
+                .build()).getTaskId();
+    }
+
+    private UUID saveEpic(UUID projectId) {
+        return epicRepository.saveAndFlush(Epic.builder()
+                .name("Epic")
+                .status("Not Started")
+                .priority("Medium")
+                .startDate(LocalDate.of(2025, 5, 1))
+                .endDate(LocalDate.of(2025, 6, 30))
+                .projectId(projectId)
+                .build()).getEpicId();
+    }
+
+    // As for a task written while the closure triggers were missing
+    private UUID withoutClosureRows(UUID taskId) {
+        jdbcTemplate.update("DELETE FROM task_closure WHERE ancestor_id = ? OR descendant_id = ?", taskId, taskId);
+        return taskId;
+    }
+}
@@ -0,0 +1,132 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.ontik.gantt_project_v1.calendar.HolidaysChangedEvent;
+import com.ontik.gantt_project_v1.config.CalendarProperties;
+import com.ontik.gantt_project_v1.dto.HolidayImportResult;
+import com.ontik.gantt_project_v1.model.Holiday;
+import com.ontik.gantt_project_v1.repository.HolidayRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayServiceTests {
+
+    @Mock
+    private HolidayRepository holidayRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private CalendarProperties calendarProperties = new CalendarProperties();
+
+    @InjectMocks
+    private HolidayService holidayService;
+
+    @Test
+    void calendarDaysFollowTheDefaultWorkWeek() {
+        calendarProperties.setDefaultWorkWeek("SUN,MON,TUE,WED,THU");
+
+        holidayService.refreshCalendarDaysOnStartup();
+        holidayService.refreshCalendarDays(new HolidaysChangedEvent(Set.of("BGD"), Set.of(2027, 2026)));
+
+        verify(holidayRepository).refreshCalendarDays(LocalDate.of(2020, 1, 1), 0b1001111);
+        verify(holidayRepository).refreshCalendarDays(LocalDate.of(2026, 1, 1), 0b1001111);
+    }
+
+    @Test
+    void emptyDefaultWorkWeekIsRejected() {
+        calendarProperties.setDefaultWorkWeek(" ");
+
+        assertThrows(IllegalArgumentException.class, () -> holidayService.refreshCalendarDaysOnStartup());
+        verify(holidayRepository, never()).refreshCalendarDays(any(), anyInt());
+    }
+
+    @Test
+    void importNormalizesTheCountryAndUpdatesExistingHolidays() throws Exception {
+        Holiday existing = Holiday.builder()
+                .holidayDate(LocalDate.of(2026, 2, 21))
+                .holidayName("Language Day")
+                .holidayType("PUBLIC")
+                .isWorkingDay(false)
+                .countryCode("BGD")
+                .build();
+        when(holidayRepository.findByCountryCode("BGD")).thenReturn(List.of(existing));
+        String ics = """
+                BEGIN:VCALENDAR
+                BEGIN:VEVENT
+                DTSTART;VALUE=DATE:20260221
+                SUMMARY:Shaheed Day
+                END:VEVENT
+                BEGIN:VEVENT
+                DTSTART;VALUE=DATE:20260326
+                SUMMARY:Independence Day
+                END:VEVENT
+                END:VCALENDAR
+                """;
+
+        HolidayImportResult result = holidayService.importICalendar(
+                new ByteArrayInputStream(ics.getBytes(StandardCharsets.UTF_8)), " bgd ", "OPTIONAL", true);
+
+        assertEquals("BGD", result.getCountryCode());
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getUpdated());
+        assertEquals("Shaheed Day", existing.getHolidayName());
+        assertEquals("OPTIONAL", existing.getHolidayType());
+        assertTrue(existing.getIsWorkingDay());
+        ArgumentCaptor<List<Holiday>> saved = ArgumentCaptor.captor();
+        verify(holidayRepository).saveAll(saved.capture());
+        assertEquals("BGD", saved.getValue().get(0).getCountryCode());
+    }
+
+    @Test
+    void unknownOrMissingCountriesAreRejected() {
+        Holiday holiday = Holiday.builder()
+                .holidayDate(LocalDate.of(2026, 12, 16))
+                .holidayName("Victory Day")
+                .countryCode("Bangladesh")
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> holidayService.createHoliday(holiday));
+        assertThrows(IllegalArgumentException.class, () -> holidayService.updateHoliday(UUID.randomUUID(), holiday));
+        assertThrows(IllegalArgumentException.class, () -> holidayService.importICalendar(
+                new ByteArrayInputStream(new byte[0]), "", "PUBLIC", false));
+        verify(holidayRepository, never()).save(any());
+        verify(holidayRepository, never()).findByCountryCode(any());
+    }
+
+    @Test
+    void createdHolidaysGetUpperCaseCountryCodes() {
+        when(holidayRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Holiday saved = holidayService.createHoliday(Holiday.builder()
+                .holidayDate(LocalDate.of(2026, 12, 16))
+                .holidayName("Victory Day")
+                .countryCode("bd")
+                .build());
+
+        assertEquals("BD", saved.getCountryCode());
+    }
+}
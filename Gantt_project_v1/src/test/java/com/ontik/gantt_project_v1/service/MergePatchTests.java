@@ -0,0 +1,95 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ontik.gantt_project_v1.model.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MergePatchTests {
+
+    private static final String[] READ_ONLY = {"id", "version", "createdAt", "updatedAt"};
+
+    // Configured as Spring Boot configures the application's mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void readOnlyPropertiesAreNotChanged() throws Exception {
+        Task task = task();
+        UUID id = task.getTaskId();
+        JsonNode patch = objectMapper.readTree("""
+                {"id": "%s", "version": 99, "createdAt": "2030-01-01T00:00:00Z",
+                 "updatedAt": "2030-01-01T00:00:00Z", "title": "Renamed"}
+                """.formatted(UUID.randomUUID()));
+
+        Task patched = MergePatch.apply(objectMapper, task, patch, READ_ONLY);
+
+        assertSame(task, patched);
+        assertEquals(id, task.getTaskId());
+        assertEquals(3L, task.getVersion());
+        assertEquals(OffsetDateTime.of(2025, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC), task.getCreatedAt());
+        assertNull(task.getUpdatedAt());
+        assertEquals("Renamed", task.getTitle());
+    }
+
+    @Test
+    void memberReplacesNullClearsAndAbsentKeeps() throws Exception {
+        Task task = task();
+        JsonNode patch = objectMapper.readTree("""
+                {"dueDate": "2025-03-10", "description": null, "labels": ["backend"]}
+                """);
+
+        MergePatch.apply(objectMapper, task, patch, READ_ONLY);
+
+        assertEquals(LocalDate.of(2025, 3, 10), task.getDueDate());
+        assertNull(task.getDescription());
+        assertEquals(List.of("backend"), task.getLabels());
+        assertEquals("Design schema", task.getTitle());
+        assertEquals(LocalDate.of(2025, 3, 3), task.getStartDate());
+    }
+
+    @Test
+    void fieldsAreTheMembersOtherThanReadOnlyOnes() throws Exception {
+        JsonNode patch = objectMapper.readTree("""
+                {"id": "x", "title": "Renamed", "version": 1, "dueDate": null}
+                """);
+
+        assertEquals(List.of("title", "dueDate"), MergePatch.fields(patch, READ_ONLY));
+    }
+
+    @Test
+    void invalidPatchesAreRejected() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> MergePatch.apply(objectMapper, task(), objectMapper.readTree("[1, 2]"), READ_ONLY));
+        assertThrows(IllegalArgumentException.class,
+                () -> MergePatch.apply(objectMapper, task(), null, READ_ONLY));
+        assertThrows(IllegalArgumentException.class,
+                () -> MergePatch.apply(objectMapper, task(), objectMapper.readTree("{\"startDate\": \"soon\"}"),
+                        READ_ONLY));
+    }
+
+    private static Task task() {
+        return Task.builder()
+                .taskId(UUID.randomUUID())
+                .title("Design schema")
+                .description("Tables and indexes")
+                .startDate(LocalDate.of(2025, 3, 3))
+                .version(3L)
+                .createdAt(OffsetDateTime.of(2025, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC))
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.ontik.gantt_project_v1.service;
+
+import com.ontik.gantt_project_v1.dto.TaskBulkChangeResult;
+import com.ontik.gantt_project_v1.dto.TaskBulkMove;
+import com.ontik.gantt_project_v1.dto.TaskBulkResult;
+import com.ontik.gantt_project_v1.model.Task;
+import com.ontik.gantt_project_v1.repository.EpicRepository;
+import com.ontik.gantt_project_v1.repository.TaskRepository;
+import com.ontik.gantt_project_v1.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBulkServiceTests {
+
+    private final UUID taskA = UUID.randomUUID();
+    private final UUID taskB = UUID.randomUUID();
+    private final UUID missing = UUID.randomUUID();
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private EpicRepository epicRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CalendarRegistry calendarRegistry;
+
+    @InjectMocks
+    private TaskBulkService taskBulkService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(taskBulkService, "chunkSize", 500);
+        // Every task exists except the one named missing
+        lenient().when(taskRepository.findExistingIds(anyCollection())).thenAnswer(invocation -> {
+            List<UUID> found = new ArrayList<>(invocation.<Collection<UUID>>getArgument(0));
+            found.remove(missing);
+            return found;
+        });
+    }
+
+    @Test
+    void deleteRequiresIds() {
+        TaskBulkChangeResult result = taskBulkService.deleteTasks(List.of(), false);
+
+        assertEquals(List.of("ids is required"), result.getErrors());
+        verify(taskRepository, never()).deleteAllByIds(any());
+    }
+
+    @Test
+    void deleteOfMissingOrNullIdsDeletesNothing() {
+        TaskBulkChangeResult result = taskBulkService.deleteTasks(Arrays.asList(taskA, null, missing), true);
+
+        assertEquals(List.of("ids[1] is null", "task " + missing + " not found"), result.getErrors());
+        verify(taskRepository, never()).deleteSubtrees(any());
+        verify(taskRepository, never()).deleteAllByIds(any());
+    }
+
+    @Test
+    void moveUnderAMovedTaskIsRejected() {
+        TaskBulkMove move = move(taskA, taskB);
+        move.setParentTaskId(taskB);
+
+        TaskBulkChangeResult result = taskBulkService.moveTasks(move, false);
+
+        assertEquals(List.of("parentTaskId " + taskB + " is one of the moved tasks"), result.getErrors());
+        verify(taskRepository, never()).moveAll(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void moveUnderADescendantIsRejected() {
+        UUID grandchild = UUID.randomUUID();
+        when(taskRepository.findDescendantPairs(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] {taskA, grandchild}));
+        TaskBulkMove move = move(taskA);
+        move.setParentTaskId(grandchild);
+
+        TaskBulkChangeResult result = taskBulkService.moveTasks(move, true);
+
+        assertEquals(List.of("parentTaskId " + grandchild + " is inside the subtree of task " + taskA),
+                result.getErrors());
+        verify(taskRepository, never()).moveAll(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void moveNeedsATarget() {
+        TaskBulkChangeResult result = taskBulkService.moveTasks(move(taskA, missing), false);
+
+        assertEquals(List.of("task " + missing + " not found", "one of epicId, parentTaskId, sprintId is required"),
+                result.getErrors());
+    }
+
+    @Test
+    void updateReportsMissingAndCyclicTasksPerItem() {
+        when(taskRepository.findDescendantPairs(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] {taskA, taskB}));
+        Task underOwnChild = task(taskA);
+        underOwnChild.setParentTaskId(taskB);
+        Task withoutId = task(null);
+        Task notFound = task(missing);
+
+        TaskBulkResult result = taskBulkService.updateTasks(List.of(underOwnChild, withoutId, notFound));
+
+        assertEquals(List.of(
+                new TaskBulkResult.ItemError(0, taskA, List.of("parentTaskId is inside the task's own subtree")),
+                new TaskBulkResult.ItemError(1, null, List.of("id is required")),
+                new TaskBulkResult.ItemError(2, missing, List.of("task not found"))), result.getErrors());
+        assertEquals(0, result.getSaved());
+        verify(taskRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void createRejectsIdsAndConstraintViolations() {
+        Task withId = task(taskA);
+        Task invalid = task(null);
+        invalid.setStatus("Blocked");
+        invalid.setDueDate(invalid.getStartDate().minusDays(1));
+
+        TaskBulkResult result = taskBulkService.createTasks(List.of(withId, invalid));
+
+        assertEquals(2, result.getErrors().size());
+        assertEquals(List.of("id must not be set"), result.getErrors().get(0).getMessages());
+        assertEquals(List.of("status must be one of To Do, In Progress, Done", "dueDate is before startDate"),
+                result.getErrors().get(1).getMessages());
+        assertTrue(result.getTasks().isEmpty());
+        verify(taskRepository, never()).saveAll(any());
+    }
+
+    private static TaskBulkMove move(UUID... ids) {
+        TaskBulkMove move = new TaskBulkMove();
+        move.setIds(List.of(ids));
+        return move;
+    }
+
+    private static Task task(UUID id) {
+        return Task.builder()
+                .taskId(id)
+                .type("task")
+                .title("Task")
+                .status("To Do")
+                .priority("Medium")
+                .startDate(LocalDate.of(2025, 5, 5))
+                .build();
+    }
+}
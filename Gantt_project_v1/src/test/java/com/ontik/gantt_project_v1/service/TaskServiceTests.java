@@ -0,0 +1,35 @@
+package com.ontik.gantt_project_v1.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskServiceTests {
+
+    @Test
+    void prefixQueryMatchesEveryWordAsAPrefix() {
+        assertEquals("'gantt':* & 'exp':*", TaskService.toPrefixQuery("gantt exp"));
+        assertEquals("'gantt':* & 'exp':*", TaskService.toPrefixQuery("  Gantt   EXP "));
+    }
+
+    @Test
+    void prefixQueryDropsRepeatedWords() {
+        assertEquals("'login':* & 'page':*", TaskService.toPrefixQuery("login page LOGIN"));
+    }
+
+    @Test
+    void prefixQueryKeepsOnlyLettersAndDigits() {
+        // Quotes, operators and parentheses would otherwise change the tsquery
+        assertEquals("'o':* & 'brien':* & 'v2':*", TaskService.toPrefixQuery("o'brien & !v2:*"));
+        assertEquals("'café':* & '東京':*", TaskService.toPrefixQuery("café|東京"));
+        assertEquals("'a':* & 'b':*", TaskService.toPrefixQuery("a) | (b"));
+    }
+
+    @Test
+    void prefixQueryRejectsTextWithoutWords() {
+        assertThrows(IllegalArgumentException.class, () -> TaskService.toPrefixQuery(null));
+        assertThrows(IllegalArgumentException.class, () -> TaskService.toPrefixQuery(""));
+        assertThrows(IllegalArgumentException.class, () -> TaskService.toPrefixQuery(" &|!:*' "));
+    }
+}
@@ -4,6 +4,10 @@ import StatusBadge from './StatusBadge';
 import PriorityBadge from './PriorityBadge';
 import TypeIcon from './TypeIcon';
 import './HierarchicalProjectView.css';
+import fetchPage from '../services/fetchPage';
+
+// Projects fetched per page, each with its whole tree; more are loaded when the user asks for them
+const PAGE_SIZE = 10;
 
 const HierarchicalProjectView = ({ refreshTrigger, onDeleteItem }) => {
   const [projects, setProjects] = useState([]);
@@ -12,95 +16,67 @@ const HierarchicalProjectView = ({ refreshTrigger, onDeleteItem }) => {
   const [expandedTasks, setExpandedTasks] = useState(new Set());
   const [taskSubtasks, setTaskSubtasks] = useState(new Map()); // Store subtasks for each task
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const navigate = useNavigate();
 
   useEffect(() => {
     fetchProjectsWithHierarchy();
   }, [refreshTrigger]);
 
-  const fetchProjectsWithHierarchy = async () => {
+  // Fetch one page of projects (the first without a cursor) and append it to the loaded ones
+  const fetchProjectsWithHierarchy = async (cursor = null) => {
     try {
-      setLoading(true);
-      
-      // First fetch all projects
-      const projectsResponse = await fetch('http://localhost:8080/projects');
-      if (!projectsResponse.ok) {
-        throw new Error('Failed to fetch projects');
+      if (cursor) {
+        setLoadingMore(true);
+      } else {
+        setLoading(true);
       }
-      const projects = await projectsResponse.json();
-      console.log('Fetched projects:', projects);
 
-      // For each project, fetch its epics and tasks
+      // First fetch a page of projects
+      const page = await fetchPage('http://localhost:8080/projects', cursor, PAGE_SIZE);
+      const pageProjects = page.items;
+      console.log('Fetched projects:', pageProjects);
+      // Hierarchy numbers continue after the projects already shown
+      const offset = cursor ? projects.length : 0;
+
+      // For each project, fetch its whole tree (epics, tasks, subtasks) in one request
+      const loadedSubtasks = new Map(cursor ? taskSubtasks : []);
       const projectsWithEpics = await Promise.all(
-        projects.map(async (project, projectIndex) => {
+        pageProjects.map(async (project, pageIndex) => {
+          const projectIndex = offset + pageIndex;
           try {
-            // Fetch epics for this specific project
-            console.log(`Fetching epics for project ${project.projectId}...`);
-            const epicsResponse = await fetch(`http://localhost:8080/epics/project/${project.projectId}`);
-            
-            if (!epicsResponse.ok) {
-              console.warn(`Failed to fetch epics for project ${project.projectId}`);
+            console.log(`Fetching tree for project ${project.projectId}...`);
+            const treeResponse = await fetch(`http://localhost:8080/projects/${project.projectId}/tree`);
+
+            if (!treeResponse.ok) {
+              console.warn(`Failed to fetch tree for project ${project.projectId}`);
               return {
                 ...project,
                 epics: [],
                 hierarchyNumber: `${projectIndex + 1}`
               };
             }
-            
-            const projectEpics = await epicsResponse.json();
-            console.log(`Found ${projectEpics.length} epics for project ${project.projectId}:`, projectEpics);
-            
-            // For each epic, fetch its tasks
-            const epicsWithTasks = await Promise.all(
-              projectEpics.map(async (epic, epicIndex) => {
-                try {
-                  // Use the correct epic ID field - epics use 'id' (mapped from epicId)
-                  const epicId = epic.id || epic.epicId;
-                  console.log(`Fetching tasks for epic ${epicId}...`);
-                  
-                  const tasksResponse = await fetch(`http://localhost:8080/tasks/epic/${epicId}`);
-                  
-                  if (!tasksResponse.ok) {
-                    console.warn(`Failed to fetch tasks for epic ${epicId}`);
-                    return {
-                      ...epic,
-                      tasks: [],
-                      hierarchyNumber: `${projectIndex + 1}.${epicIndex + 1}`
-                    };
-                  }
-                  
-                  const epicTasks = await tasksResponse.json();
-                  console.log(`Found ${epicTasks.length} tasks for epic ${epicId}:`, epicTasks);
-                  
-                  // Group subtasks by parent task
-                  const tasksWithSubtasks = epicTasks.map((task, taskIndex) => {
-                    // Find subtasks for this task
-                    const taskId = task.taskId || task.id;
-                    
-                    // Fetch subtasks will be done separately for performance
-                    // For now, just set empty subtasks array
-                    return {
-                      ...task,
-                      subtasks: [], // Will be populated when expanded
-                      hierarchyNumber: `${projectIndex + 1}.${epicIndex + 1}.${taskIndex + 1}`
-                    };
-                  });
 
-                  return {
-                    ...epic,
-                    tasks: tasksWithSubtasks,
-                    hierarchyNumber: `${projectIndex + 1}.${epicIndex + 1}`
-                  };
-                } catch (error) {
-                  console.error(`Error fetching tasks for epic ${epic.id}:`, error);
-                  return {
-                    ...epic,
-                    tasks: [],
-                    hierarchyNumber: `${projectIndex + 1}.${epicIndex + 1}`
-                  };
-                }
-              })
-            );
+            const tree = await treeResponse.json();
+
+            // The view lists epics flat, so child epics follow their parent
+            const flattenEpics = (epics) => epics.flatMap(epic => [epic, ...flattenEpics(epic.childEpics || [])]);
+            const projectEpics = flattenEpics(tree.epics);
+            console.log(`Found ${projectEpics.length} epics and ${tree.taskCount} tasks for project ${project.projectId}`);
+
+            const epicsWithTasks = projectEpics.map((epic, epicIndex) => ({
+              ...epic,
+              tasks: epic.tasks.map((task, taskIndex) => {
+                // Subtasks arrive with the tree, so expanding a task needs no further request
+                loadedSubtasks.set(task.taskId || task.id, task.subtasks);
+                return {
+                  ...task,
+                  hierarchyNumber: `${projectIndex + 1}.${epicIndex + 1}.${taskIndex + 1}`
+                };
+              }),
+              hierarchyNumber: `${projectIndex + 1}.${epicIndex + 1}`
+            }));
 
             return {
               ...project,
@@ -117,6 +93,7 @@ const HierarchicalProjectView = ({ refreshTrigger, onDeleteItem }) => {
           }
         })
       );
+      setTaskSubtasks(loadedSubtasks);
 
       console.log('Final projects with hierarchy:', projectsWithEpics);
       
@@ -128,15 +105,17 @@ const HierarchicalProjectView = ({ refreshTrigger, onDeleteItem }) => {
         });
       });
       
-      setProjects(projectsWithEpics);
+      setProjects(cursor ? [...projects, ...projectsWithEpics] : projectsWithEpics);
+      setNextCursor(page.next);
       
       // Expand all projects by default to show epics
-      const allProjectIds = new Set(projectsWithEpics.map(p => p.projectId));
-      setExpandedProjects(allProjectIds);
+      const pageProjectIds = projectsWithEpics.map(p => p.projectId);
+      setExpandedProjects(cursor ? new Set([...expandedProjects, ...pageProjectIds]) : new Set(pageProjectIds));
     } catch (error) {
       console.error('Error fetching hierarchical data:', error);
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
@@ -526,6 +505,17 @@ const HierarchicalProjectView = ({ refreshTrigger, onDeleteItem }) => {
           </div>
         );
       })}
+      {nextCursor && (
+        <div className="hierarchical-load-more">
+          <button
+            className="load-more-btn"
+            onClick={() => fetchProjectsWithHierarchy(nextCursor)}
+            disabled={loadingMore}
+          >
+            {loadingMore ? 'Loading...' : 'Load more projects'}
+          </button>
+        </div>
+      )}
     </div>
   );
 };
@@ -0,0 +1,66 @@
+import { useState, useEffect, useCallback, useRef } from 'react';
+import fetchPage from '../services/fetchPage';
+
+/**
+ * Custom hook for listing a cursor-paginated collection a page at a time.
+ * The first page is fetched when the url changes (or reload is called); loadMore appends the next one.
+ * A url of null loads nothing.
+ */
+const useCursorPages = (url, pageSize) => {
+    const [items, setItems] = useState([]);
+    const [next, setNext] = useState(null);
+    const [loading, setLoading] = useState(Boolean(url));
+    const [error, setError] = useState(null);
+    // Pages of an older url (or reload) that arrive late are dropped
+    const generation = useRef(0);
+    // Set synchronously, so scroll events fired before the next render do not fetch the same page twice
+    const inFlight = useRef(false);
+
+    const load = useCallback(async (cursor) => {
+        const current = generation.current;
+        inFlight.current = true;
+        setLoading(true);
+        setError(null);
+        try {
+            const page = await fetchPage(url, cursor, pageSize);
+            if (current !== generation.current) return;
+            setItems(previous => cursor ? [...previous, ...page.items] : page.items);
+            setNext(page.next);
+        } catch (err) {
+            if (current !== generation.current) return;
+            console.error('useCursorPages: Error fetching page:', err);
+            setError(err);
+        } finally {
+            if (current === generation.current) {
+                inFlight.current = false;
+                setLoading(false);
+            }
+        }
+    }, [url, pageSize]);
+
+    const reload = useCallback(() => {
+        generation.current += 1;
+        inFlight.current = false;
+        setItems([]);
+        setNext(null);
+        if (url) {
+            load(null);
+        } else {
+            setLoading(false);
+        }
+    }, [url, load]);
+
+    useEffect(() => {
+        reload();
+    }, [reload]);
+
+    const loadMore = useCallback(() => {
+        if (next && !inFlight.current) {
+            load(next);
+        }
+    }, [next, load]);
+
+    return { items, setItems, hasMore: next !== null, loading, error, loadMore, reload };
+};
+
+export default useCursorPages;
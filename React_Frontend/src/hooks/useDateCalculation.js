@@ -1,11 +1,22 @@
-import { useState, useEffect, useCallback } from 'react';
+import { useState, useEffect, useCallback, useMemo } from 'react';
 import HolidayService from '../services/HolidayService';
 
+// Estimates are whole working days for the calendar; a partial day (1.5) counts as a full one (2),
+// the same rounding the backend applies to stored estimates
+const toWorkingDays = (estimateDays) => Math.ceil(Number(estimateDays));
+
+// Window of the working-day bitmap fetched for the date pickers: the previous year to two years ahead
+const calendarWindow = () => {
+    const year = new Date().getFullYear();
+    return [`${year - 1}-01-01`, `${year + 2}-12-31`];
+};
+
 /**
  * Custom hook for date calculations with holiday awareness
  */
 const useDateCalculation = () => {
     const [holidays, setHolidays] = useState([]);
+    const [workingDayCalendar, setWorkingDayCalendar] = useState(null);
     const [calculatedEndDate, setCalculatedEndDate] = useState('');
     const [isCalculating, setIsCalculating] = useState(false);
     const [validationMessage, setValidationMessage] = useState('');
@@ -22,13 +33,31 @@ const useDateCalculation = () => {
             }
         };
 
+        // One bitmap answers the working-day check of every day the pickers draw
+        const fetchWorkingDayCalendar = async () => {
+            const [start, end] = calendarWindow();
+            const calendar = await HolidayService.fetchWorkingDayCalendar(start, end);
+            setWorkingDayCalendar(calendar);
+        };
+
         fetchHolidays();
+        fetchWorkingDayCalendar();
     }, []);
 
+    const holidaysByDate = useMemo(
+        () => new Map(holidays.map(holiday => [holiday.holidayDate, holiday])),
+        [holidays]
+    );
+
+    // Working day from the bitmap, or null before it has loaded or outside its window
+    const isWorkingDay = useCallback((date) => {
+        return workingDayCalendar ? workingDayCalendar.isWorkingDay(date) : null;
+    }, [workingDayCalendar]);
+
     /**
      * Calculate end date based on start date and estimate days
      */
-    const calculateEndDate = useCallback(async (startDate, estimateDays) => {
+    const calculateEndDate = useCallback(async (startDate, estimateDays, assigneeId) => {
         if (!startDate || !estimateDays || estimateDays <= 0) {
             setCalculatedEndDate('');
             return null;
@@ -38,7 +67,7 @@ const useDateCalculation = () => {
         setValidationMessage('');
 
         try {
-            const result = await HolidayService.calculateEndDate(startDate, estimateDays);
+            const result = await HolidayService.calculateEndDate(startDate, toWorkingDays(estimateDays), assigneeId);
             if (result && result.calculatedEndDate) {
                 setCalculatedEndDate(result.calculatedEndDate);
                 console.log('useDateCalculation: Calculated end date:', result.calculatedEndDate);
@@ -57,14 +86,15 @@ const useDateCalculation = () => {
     /**
      * Validate user-selected end date
      */
-    const validateEndDate = useCallback(async (startDate, estimateDays, selectedEndDate) => {
+    const validateEndDate = useCallback(async (startDate, estimateDays, selectedEndDate, assigneeId) => {
         if (!startDate || !estimateDays || !selectedEndDate) {
             setValidationMessage('');
             return true;
         }
 
         try {
-            const result = await HolidayService.validateEndDate(startDate, estimateDays, selectedEndDate);
+            const result = await HolidayService.validateEndDate(startDate, toWorkingDays(estimateDays), selectedEndDate,
+                assigneeId);
             if (result) {
                 setValidationMessage(result.isValid ? '' : result.message);
                 return result.isValid;
@@ -81,23 +111,23 @@ const useDateCalculation = () => {
      * Check if a date is a holiday
      */
     const isHoliday = useCallback((date) => {
-        return holidays.some(holiday => holiday.holidayDate === date);
-    }, [holidays]);
+        return holidaysByDate.has(date);
+    }, [holidaysByDate]);
 
     /**
      * Check if a date is a non-working holiday
      */
     const isNonWorkingHoliday = useCallback((date) => {
-        const holiday = holidays.find(h => h.holidayDate === date);
+        const holiday = holidaysByDate.get(date);
         return holiday && !holiday.isWorkingDay;
-    }, [holidays]);
+    }, [holidaysByDate]);
 
     /**
      * Get holiday information for a specific date
      */
     const getHolidayInfo = useCallback((date) => {
-        return holidays.find(holiday => holiday.holidayDate === date);
-    }, [holidays]);
+        return holidaysByDate.get(date);
+    }, [holidaysByDate]);
 
     /**
      * Check if a date is a weekend
@@ -111,8 +141,12 @@ const useDateCalculation = () => {
      * Check if a date should be disabled (weekend or non-working holiday)
      */
     const shouldDisableDate = useCallback((date) => {
+        const workingDay = isWorkingDay(date);
+        if (workingDay !== null) {
+            return !workingDay;
+        }
         return isWeekend(date) || isNonWorkingHoliday(date);
-    }, [isWeekend, isNonWorkingHoliday]);
+    }, [isWorkingDay, isWeekend, isNonWorkingHoliday]);
 
     /**
      * Get CSS class for date styling in calendar
@@ -126,11 +160,12 @@ const useDateCalculation = () => {
         if (isHoliday(dateStr)) {
             return 'holiday-date working';
         }
-        if (isWeekend(dateStr)) {
+        const workingDay = isWorkingDay(dateStr);
+        if (workingDay !== null ? !workingDay : isWeekend(dateStr)) {
             return 'weekend-date';
         }
         return 'working-date';
-    }, [isHoliday, isNonWorkingHoliday, isWeekend]);
+    }, [isHoliday, isNonWorkingHoliday, isWorkingDay, isWeekend]);
 
     return {
         holidays,
@@ -142,6 +177,7 @@ const useDateCalculation = () => {
         isHoliday,
         isNonWorkingHoliday,
         getHolidayInfo,
+        isWorkingDay,
         isWeekend,
         shouldDisableDate,
         getDateClassName
@@ -6,6 +6,7 @@ import HolidayCalendar from "../components/HolidayCalendar";
 import CreatableMultiSelect from "../components/CreatableMultiSelect";
 import MultiSelectAssignee from "../components/MultiSelectAssignee";
 import "./TaskForm.css"
+import fetchAllPages from "../services/fetchAllPages";
 
 const EpicForm = () => {
     const navigate = useNavigate();
@@ -38,9 +39,7 @@ const EpicForm = () => {
     useEffect(() => {
         const fetchEpics = async () => {
             try {
-                const response = await fetch("/epics");
-                if (!response.ok) throw new Error("Failed to fetch epics");
-                const epics = await response.json();
+                const epics = await fetchAllPages("/epics");
                 setAllEpics(epics);
             } catch (error) {
                 console.error("Error fetching epics:", error);
@@ -54,9 +53,7 @@ const EpicForm = () => {
     useEffect(() => {
         const fetchUsers = async () => {
             try {
-                const response = await fetch("/users");
-                if (!response.ok) throw new Error("Failed to fetch users");
-                const users = await response.json();
+                const users = await fetchAllPages("/users");
                 // Filter only active users
                 const activeUsers = users.filter(user => user.isActive || user.is_active);
                 setAllUsers(activeUsers);
@@ -72,9 +69,7 @@ const EpicForm = () => {
     useEffect(() => {
         const fetchProjects = async () => {
             try {
-                const response = await fetch("/projects");
-                if (!response.ok) throw new Error("Failed to fetch projects");
-                const projects = await response.json();
+                const projects = await fetchAllPages("/projects");
                 setAllProjects(projects);
             } catch (error) {
                 console.error("Error fetching projects:", error);
@@ -163,7 +158,7 @@ const EpicForm = () => {
     useEffect(() => {
         if (startDate && estimateDays && parseFloat(estimateDays) > 0) {
             console.log('EpicForm: Triggering end date calculation:', { startDate, estimateDays });
-            calculateEndDate(startDate, parseInt(estimateDays));
+            calculateEndDate(startDate, estimateDays);
         }
     }, [startDate, estimateDays, calculateEndDate]);
 
@@ -3,6 +3,7 @@ import { useForm } from "react-hook-form";
 import { useEffect, useState } from "react";
 import MultiSelectAssignee from "../components/MultiSelectAssignee";
 import "./TaskForm.css"
+import fetchAllPages from "../services/fetchAllPages";
 
 const ProjectForm = () => {
     const navigate = useNavigate();
@@ -24,9 +25,7 @@ const ProjectForm = () => {
     useEffect(() => {
         const fetchUsers = async () => {
             try {
-                const response = await fetch("/users");
-                if (!response.ok) throw new Error("Failed to fetch users");
-                const users = await response.json();
+                const users = await fetchAllPages("/users");
                 // Filter only active users
                 const activeUsers = users.filter(user => user.isActive || user.is_active);
                 setAllUsers(activeUsers);
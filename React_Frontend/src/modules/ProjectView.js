@@ -1,34 +1,22 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import './ProjectView.css';
+import useCursorPages from '../hooks/useCursorPages';
+
+// Project cards fetched per page; more are loaded when the user asks for them
+const PAGE_SIZE = 24;
 
 const ProjectView = () => {
-    const [projects, setProjects] = useState([]);
-    const [loading, setLoading] = useState(true);
+    const { items: projects, loading, error, hasMore, loadMore, reload } = useCursorPages('/projects', PAGE_SIZE);
     const [showConfirm, setShowConfirm] = useState(false);
     const [projectToDelete, setProjectToDelete] = useState(null);
     const navigate = useNavigate();
 
     useEffect(() => {
-        fetchProjects();
-    }, []);
-
-    const fetchProjects = async () => {
-        try {
-            setLoading(true);
-            const response = await fetch('/projects');
-            if (!response.ok) {
-                throw new Error('Failed to fetch projects');
-            }
-            const projectData = await response.json();
-            setProjects(projectData);
-        } catch (error) {
-            console.error('Error fetching projects:', error);
+        if (error) {
             alert('Failed to fetch projects');
-        } finally {
-            setLoading(false);
         }
-    };
+    }, [error]);
 
     const handleCreateProject = () => {
         navigate('/add-project');
@@ -59,7 +47,7 @@ const ProjectView = () => {
             }
 
             console.log('Project deleted successfully');
-            await fetchProjects(); // Refresh the projects list
+            reload(); // Refresh the projects list from its first page
             setShowConfirm(false);
             setProjectToDelete(null);
         } catch (error) {
@@ -103,7 +91,7 @@ const ProjectView = () => {
         }
     };
 
-    if (loading) {
+    if (loading && projects.length === 0) {
         return (
             <div className="project-view">
                 <div className="loading">Loading projects...</div>
@@ -204,6 +192,14 @@ const ProjectView = () => {
                 </div>
             )}
 
+            {hasMore && (
+                <div className="load-more">
+                    <button onClick={loadMore} className="btn btn-outline" disabled={loading}>
+                        {loading ? 'Loading...' : 'Load more projects'}
+                    </button>
+                </div>
+            )}
+
             {/* Delete Confirmation Modal */}
             {showConfirm && (
                 <div className="modal-overlay">
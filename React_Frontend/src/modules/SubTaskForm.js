@@ -4,6 +4,7 @@ import { useEffect, useState } from "react";
 import useDateCalculation from "../hooks/useDateCalculation";
 import HolidayCalendar from "../components/HolidayCalendar";
 import "./TaskForm.css"
+import fetchAllPages from "../services/fetchAllPages";
 
 const SubTaskForm = () => {
     const navigate = useNavigate();
@@ -53,9 +54,7 @@ const SubTaskForm = () => {
     useEffect(() => {
         const fetchUsers = async () => {
             try {
-                const response = await fetch("/users");
-                if (!response.ok) throw new Error("Failed to fetch users");
-                const userData = await response.json();
+                const userData = await fetchAllPages("/users");
                 // Filter only active users
                 const activeUsers = userData.filter(user => user.isActive || user.is_active);
                 setUsers(activeUsers);
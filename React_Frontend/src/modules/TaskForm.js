@@ -6,6 +6,7 @@ import HolidayCalendar from "../components/HolidayCalendar";
 import CreatableMultiSelect from "../components/CreatableMultiSelect";
 import MultiSelectAssignee from "../components/MultiSelectAssignee";
 import "./TaskForm.css"
+import fetchAllPages from "../services/fetchAllPages";
 
 const TaskForm = () => {
     const navigate = useNavigate();
@@ -42,9 +43,7 @@ const TaskForm = () => {
     useEffect(() => {
         const fetchEpics = async () => {
             try {
-                const response = await fetch("/epics");
-                if (!response.ok) throw new Error("Failed to fetch epics");
-                const epics = await response.json();
+                const epics = await fetchAllPages("/epics");
                 setAllEpics(epics);
                 
                 // If we're creating under a specific epic, find and set it
@@ -77,9 +76,7 @@ const TaskForm = () => {
     useEffect(() => {
         const fetchUsers = async () => {
             try {
-                const response = await fetch("/users");
-                if (!response.ok) throw new Error("Failed to fetch users");
-                const userData = await response.json();
+                const userData = await fetchAllPages("/users");
                 // Filter only active users
                 const activeUsers = userData.filter(user => user.isActive || user.is_active);
                 setUsers(activeUsers);
@@ -175,12 +172,13 @@ const TaskForm = () => {
         }
     }, [task, selectedEpic, isUnderSpecificEpic, reset, setValue]);
 
-    // Auto-calculate end date when start date or estimate changes
+    // Auto-calculate end date when start date, estimate or the first assignee changes
+    const primaryAssigneeId = selectedAssignees.length > 0 ? selectedAssignees[0] : null;
     useEffect(() => {
         if (startDate && estimateDays && estimateDays > 0) {
-            calculateEndDate(startDate, parseInt(estimateDays));
+            calculateEndDate(startDate, estimateDays, primaryAssigneeId);
         }
-    }, [startDate, estimateDays, calculateEndDate]);
+    }, [startDate, estimateDays, primaryAssigneeId, calculateEndDate]);
 
     // Automatically set end date when calculated end date changes
     useEffect(() => {
@@ -232,7 +230,7 @@ const TaskForm = () => {
 
         // Validate the selected end date
         if (startDate && estimateDays && newEndDate) {
-            await validateEndDate(startDate, parseInt(estimateDays), newEndDate);
+            await validateEndDate(startDate, estimateDays, newEndDate, primaryAssigneeId);
         }
     };
 
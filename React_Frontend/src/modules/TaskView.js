@@ -1,4 +1,4 @@
-import React, { useEffect, useState } from "react";
+import React, { useState } from "react";
 import { useNavigate } from "react-router-dom";
 import TaskCard from "../components/TaskList";
 import HierarchicalTaskTable from "../components/HierarchicalTaskTable";
@@ -6,9 +6,33 @@ import HierarchicalProjectView from "../components/HierarchicalProjectView";
 import "./TaskView.css";
 import Filter from "../components/Filter";
 import { useAuth } from "../context/AuthContext";
+import useCursorPages from "../hooks/useCursorPages";
+
+// Task rows fetched per page; the next page loads as the table is scrolled to its end
+const PAGE_SIZE = 100;
+
+// Build the tasks URL, using the filter endpoint when filters are provided
+const tasksUrl = (filterParams) => {
+  if (!filterParams) {
+    return "/tasks";
+  }
+  const queryParams = new URLSearchParams();
+
+  if (filterParams.startDate) queryParams.append('startDate', filterParams.startDate);
+  if (filterParams.endDate) queryParams.append('endDate', filterParams.endDate);
+  if (filterParams.types && filterParams.types.length > 0) {
+    queryParams.append('types', filterParams.types.join(','));
+  }
+  if (filterParams.assignee) queryParams.append('assignee', filterParams.assignee);
+  if (filterParams.status) queryParams.append('status', filterParams.status);
+  if (filterParams.priority) queryParams.append('priority', filterParams.priority);
+
+  return `/tasks/filter?${queryParams.toString()}`;
+};
 
 const TaskView = () => {
-  const [tasks, setTasks] = useState([]);
+  const [url, setUrl] = useState("/tasks");
+  const { items: tasks, setItems: setTasks, hasMore, loading, loadMore, reload } = useCursorPages(url, PAGE_SIZE);
   const [showConfirm, setShowConfirm] = useState(false);
   const [taskToDelete, setTaskToDelete] = useState(null);
   const [activeFilters, setActiveFilters] = useState(null);
@@ -22,40 +46,22 @@ const TaskView = () => {
     navigate('/auth');
   };
 
-  useEffect(() => {
-    fetchTasks();
-  }, []);
+  // Fetch the first page of tasks from the backend API; later pages load on scroll
+  const fetchTasks = (filterParams = null) => {
+    const nextUrl = tasksUrl(filterParams);
+    console.log("Fetching tasks from", nextUrl);
+    if (nextUrl === url) {
+      reload();
+    } else {
+      setUrl(nextUrl);
+    }
+  };
 
-  // Fetch tasks from backend API
-  const fetchTasks = async (filterParams = null) => {
-    try {
-      let url = "/tasks";
-      
-      // If filters are provided, use the filter endpoint
-      if (filterParams) {
-        const queryParams = new URLSearchParams();
-        
-        if (filterParams.startDate) queryParams.append('startDate', filterParams.startDate);
-        if (filterParams.endDate) queryParams.append('endDate', filterParams.endDate);
-        if (filterParams.types && filterParams.types.length > 0) {
-          queryParams.append('types', filterParams.types.join(','));
-        }
-        if (filterParams.assignee) queryParams.append('assignee', filterParams.assignee);
-        if (filterParams.status) queryParams.append('status', filterParams.status);
-        if (filterParams.priority) queryParams.append('priority', filterParams.priority);
-        
-        url = `/tasks/filter?${queryParams.toString()}`;
-      }
-      
-      console.log("Fetching tasks from", url);
-      const response = await fetch(url);
-      if (!response.ok) throw new Error("Failed to fetch tasks");
-      const data = await response.json();
-      console.log("Fetched tasks:", data);
-      setTasks(data);
-    } catch (error) {
-      console.error("Error fetching tasks:", error);
-      setTasks([]);
+  // Load the next page when the table is scrolled near its last row
+  const handleTableScroll = (event) => {
+    const { scrollTop, scrollHeight, clientHeight } = event.currentTarget;
+    if (scrollHeight - scrollTop - clientHeight < 200) {
+      loadMore();
     }
   };
 
@@ -283,7 +289,7 @@ const TaskView = () => {
             refreshTrigger={refreshTrigger}
           />
         ) : (
-          <div className="table-scroll-container">
+          <div className="table-scroll-container" onScroll={handleTableScroll}>
             <table className="modern-task-table">
               <thead>
                 <tr>
@@ -313,6 +319,13 @@ const TaskView = () => {
             </table>
           </div>
         )}
+        {viewMode !== 'projects' && hasMore && (
+          <div className="load-more-row">
+            <button className="load-more-btn" onClick={loadMore} disabled={loading}>
+              {loading ? 'Loading...' : 'Load more tasks'}
+            </button>
+          </div>
+        )}
       </div>
 
       {showConfirm && (
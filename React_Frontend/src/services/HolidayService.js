@@ -45,9 +45,10 @@ class HolidayService {
     }
 
     /**
-     * Calculate end date based on start date and estimate days
+     * Calculate end date based on start date and estimate days.
+     * When assigneeId is given, the assignee's leave and weekly schedule are honored too.
      */
-    static async calculateEndDate(startDate, estimateDays) {
+    static async calculateEndDate(startDate, estimateDays, assigneeId) {
         try {
             console.log(`HolidayService: Calculating end date for start=${startDate}, estimate=${estimateDays} days`);
             const response = await fetch(`${API_BASE_URL}/tasks/calculate-end-date`, {
@@ -57,7 +58,8 @@ class HolidayService {
                 },
                 body: JSON.stringify({
                     startDate: startDate,
-                    estimateDays: estimateDays
+                    estimateDays: estimateDays,
+                    ...(assigneeId ? { assigneeId } : {})
                 })
             });
 
@@ -75,13 +77,14 @@ class HolidayService {
     }
 
     /**
-     * Validate user-selected end date
+     * Validate user-selected end date, optionally against the assignee's availability
      */
-    static async validateEndDate(startDate, estimateDays, selectedEndDate) {
+    static async validateEndDate(startDate, estimateDays, selectedEndDate, assigneeId) {
         try {
             console.log(`HolidayService: Validating end date - start=${startDate}, estimate=${estimateDays}, selected=${selectedEndDate}`);
+            const assigneeParam = assigneeId ? `&assigneeId=${assigneeId}` : '';
             const response = await fetch(
-                `${API_BASE_URL}/tasks/validate-end-date?startDate=${startDate}&estimateDays=${estimateDays}&selectedEndDate=${selectedEndDate}`
+                `${API_BASE_URL}/tasks/validate-end-date?startDate=${startDate}&estimateDays=${estimateDays}&selectedEndDate=${selectedEndDate}${assigneeParam}`
             );
 
             if (!response.ok) {
@@ -97,6 +100,66 @@ class HolidayService {
         }
     }
 
+    /**
+     * Fetch the working-day bitmap for a date window so working-day checks can be answered locally.
+     * Returns { start, end, holidays, isWorkingDay(date) } or null when the request fails.
+     */
+    static async fetchWorkingDayCalendar(startDate, endDate, country) {
+        try {
+            const countryParam = country ? `&country=${encodeURIComponent(country)}` : '';
+            const response = await fetch(`${API_BASE_URL}/holidays/calendar?start=${startDate}&end=${endDate}${countryParam}`);
+            if (!response.ok) {
+                throw new Error(`Failed to fetch working-day calendar: ${response.status}`);
+            }
+            const calendar = await response.json();
+            const bits = Uint8Array.from(atob(calendar.bitmap), c => c.charCodeAt(0));
+            const startDay = Date.parse(calendar.start) / 86400000;
+            const endDay = Date.parse(calendar.end) / 86400000;
+            return {
+                start: calendar.start,
+                end: calendar.end,
+                holidays: calendar.holidays,
+                // date is an ISO yyyy-MM-dd string; returns null outside the fetched window
+                isWorkingDay(date) {
+                    const day = Date.parse(date) / 86400000;
+                    if (day < startDay || day > endDay) {
+                        return null;
+                    }
+                    const index = day - startDay;
+                    return (bits[index >> 3] & (1 << (index & 7))) !== 0;
+                }
+            };
+        } catch (error) {
+            console.error('HolidayService: Error fetching working-day calendar:', error);
+            return null;
+        }
+    }
+
+    /**
+     * Find the tasks whose due date moves when a date becomes (nonWorking=true) or stops being a non-working holiday.
+     * With apply=true the backend also writes the new due dates. An optional projectId applies that project's calendar.
+     */
+    static async analyzeHolidayImpact(date, nonWorking = true, apply = false, projectId = null) {
+        try {
+            const response = await fetch(`${API_BASE_URL}/holidays/impact`, {
+                method: 'POST',
+                headers: {
+                    'Content-Type': 'application/json',
+                },
+                body: JSON.stringify({ date, nonWorking, apply, projectId })
+            });
+
+            if (!response.ok) {
+                throw new Error(`Failed to analyze holiday impact: ${response.status}`);
+            }
+
+            return await response.json();
+        } catch (error) {
+            console.error('HolidayService: Error analyzing holiday impact:', error);
+            return null;
+        }
+    }
+
     /**
      * Check if a specific date is a holiday
      */
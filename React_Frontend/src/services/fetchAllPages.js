@@ -0,0 +1,20 @@
+import fetchPage from './fetchPage';
+
+/**
+ * Fetch every page of a cursor-paginated collection, for small lookup lists such as the epic, user
+ * and project dropdowns of the forms. Views that list a whole table page on demand with
+ * useCursorPages instead, so they never hold more rows than the user has asked for.
+ * Resolves to the items of all pages and throws when a page request fails.
+ */
+const fetchAllPages = async (url) => {
+    const items = [];
+    let cursor = null;
+    do {
+        const page = await fetchPage(url, cursor);
+        items.push(...page.items);
+        cursor = page.next;
+    } while (cursor);
+    return items;
+};
+
+export default fetchAllPages;
@@ -0,0 +1,20 @@
+/**
+ * Fetch one page of a cursor-paginated collection (/tasks, /tasks/filter, /epics, /projects, /users).
+ * The response is a JSON array holding the page; the cursor of the next page comes in the
+ * X-Next-Cursor header, which is absent on the last page.
+ * Resolves to { items, next } with next null on the last page, and throws when the request fails.
+ */
+const fetchPage = async (url, cursor = null, limit = null) => {
+    const params = new URLSearchParams();
+    if (cursor) params.append('cursor', cursor);
+    if (limit) params.append('limit', limit);
+    const query = params.toString();
+    const separator = url.includes('?') ? '&' : '?';
+    const response = await fetch(query ? `${url}${separator}${query}` : url);
+    if (!response.ok) {
+        throw new Error(`Failed to fetch ${url}: ${response.status}`);
+    }
+    return { items: await response.json(), next: response.headers.get('X-Next-Cursor') };
+};
+
+export default fetchPage;
@@ -0,0 +1,87 @@
+package com.ontik.gantt_project_v1.benchmarks;
+
+import com.ontik.gantt_project_v1.config.CalendarProperties;
+import com.ontik.gantt_project_v1.model.Holiday;
+import com.ontik.gantt_project_v1.service.CalendarRegistry;
+import com.ontik.gantt_project_v1.service.HolidayService;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shared setup: a HolidayService wired by hand to in-memory repositories, holiday sets and input dates
+ */
+final class BenchmarkFixtures {
+
+    static final int FIRST_YEAR = 2020;
+    static final int LAST_YEAR = 2050;
+
+    // Number of pre-generated inputs each benchmark cycles through
+    static final int INPUTS = 1024;
+
+    private BenchmarkFixtures() {
+    }
+
+    static HolidayService holidayService(HolidaySet holidaySet) {
+        CalendarRegistry registry = new CalendarRegistry(InMemoryRepositories.holidays(holidays(holidaySet)),
+                InMemoryRepositories.noAvailability(), new CalendarProperties());
+        HolidayService holidayService = new HolidayService();
+        inject(holidayService, "calendarRegistry", registry);
+        // Build the default calendar now so benchmarks measure lookups, not the first load
+        holidayService.getCalendar();
+        return holidayService;
+    }
+
+    static List<Holiday> holidays(HolidaySet holidaySet) {
+        List<Holiday> holidays = new ArrayList<>();
+        if (holidaySet == HolidaySet.SPARSE) {
+            int[][] monthDays = {{1, 1}, {1, 15}, {2, 19}, {5, 27}, {6, 19}, {7, 4}, {9, 2}, {10, 14}, {11, 11}, {12, 25}};
+            for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+                for (int[] monthDay : monthDays) {
+                    holidays.add(holiday(LocalDate.of(year, monthDay[0], monthDay[1]), false));
+                }
+            }
+        } else {
+            Random random = new Random(7);
+            for (LocalDate date = LocalDate.of(FIRST_YEAR, 1, 1); date.getYear() <= LAST_YEAR; date = date.plusDays(1)) {
+                if (random.nextInt(5) == 0) {
+                    holidays.add(holiday(date, random.nextInt(10) == 0));
+                }
+            }
+        }
+        return holidays;
+    }
+
+    /**
+     * Reproducible start dates spread over 2021-2045, leaving room for multi-year spans inside the holiday range
+     */
+    static LocalDate[] startDates(long seed) {
+        Random random = new Random(seed);
+        LocalDate first = LocalDate.of(2021, 1, 1);
+        int days = (int) (LocalDate.of(2046, 1, 1).toEpochDay() - first.toEpochDay());
+        LocalDate[] dates = new LocalDate[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            dates[i] = first.plusDays(random.nextInt(days));
+        }
+        return dates;
+    }
+
+    private static Holiday holiday(LocalDate date, boolean workingDay) {
+        return Holiday.builder()
+                .holidayDate(date)
+                .holidayName(date.getDayOfWeek() == DayOfWeek.MONDAY ? "Monday holiday" : "Holiday")
+                .isWorkingDay(workingDay)
+                .build();
+    }
+
+    private static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
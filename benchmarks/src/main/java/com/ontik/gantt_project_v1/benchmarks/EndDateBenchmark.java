@@ -0,0 +1,61 @@
+package com.ontik.gantt_project_v1.benchmarks;
+
+import com.ontik.gantt_project_v1.service.HolidayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HolidayService.calculateEndDate and validateEndDate for estimates from one day to two working years
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EndDateBenchmark {
+
+    @Param({"SPARSE", "DENSE"})
+    private HolidaySet holidaySet;
+
+    @Param({"1", "20", "500"})
+    private int workingDays;
+
+    private HolidayService holidayService;
+    private LocalDate[] startDates;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        holidayService = BenchmarkFixtures.holidayService(holidaySet);
+        startDates = BenchmarkFixtures.startDates(1);
+    }
+
+    @Benchmark
+    public LocalDate calculateEndDate() {
+        return holidayService.calculateEndDate(nextStartDate(), workingDays);
+    }
+
+    @Benchmark
+    public boolean validateEndDate() {
+        LocalDate startDate = nextStartDate();
+        return holidayService.validateEndDate(startDate, workingDays, startDate.plusDays(workingDays));
+    }
+
+    private LocalDate nextStartDate() {
+        cursor = (cursor + 1) & (BenchmarkFixtures.INPUTS - 1);
+        return startDates[cursor];
+    }
+}
@@ -0,0 +1,11 @@
+package com.ontik.gantt_project_v1.benchmarks;
+
+/**
+ * Holiday sets of different density, all spanning the 2020-2050 range the holidays table allows
+ */
+public enum HolidaySet {
+    // About ten fixed-date public holidays a year
+    SPARSE,
+    // A holiday on roughly one day in five, a tenth of them working holidays
+    DENSE
+}
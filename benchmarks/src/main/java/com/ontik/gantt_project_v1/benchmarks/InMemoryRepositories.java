@@ -0,0 +1,56 @@
+package com.ontik.gantt_project_v1.benchmarks;
+
+import com.ontik.gantt_project_v1.model.Holiday;
+import com.ontik.gantt_project_v1.repository.HolidayRepository;
+import com.ontik.gantt_project_v1.repository.UserAvailabilityRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * In-memory stand-ins for the repositories the calendar engine reads, so benchmarks measure
+ * the algorithms rather than JDBC. Only the methods the engine calls are implemented.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static HolidayRepository holidays(List<Holiday> holidays) {
+        return (HolidayRepository) Proxy.newProxyInstance(HolidayRepository.class.getClassLoader(),
+                new Class<?>[]{HolidayRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> List.copyOf(holidays);
+                    case "findByCountryCode" -> holidays.stream()
+                            .filter(h -> Objects.equals(h.getCountryCode(), args[0]))
+                            .toList();
+                    case "findHolidaysByDateRange" -> holidays.stream()
+                            .filter(h -> between(h.getHolidayDate(), (LocalDate) args[0], (LocalDate) args[1]))
+                            .toList();
+                    case "findByCountryCodeAndHolidayDateBetween" -> holidays.stream()
+                            .filter(h -> Objects.equals(h.getCountryCode(), args[0]))
+                            .filter(h -> between(h.getHolidayDate(), (LocalDate) args[1], (LocalDate) args[2]))
+                            .toList();
+                    case "toString" -> "InMemoryHolidayRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static UserAvailabilityRepository noAvailability() {
+        return (UserAvailabilityRepository) Proxy.newProxyInstance(UserAvailabilityRepository.class.getClassLoader(),
+                new Class<?>[]{UserAvailabilityRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUserIdOrderByStartDate", "findByUserIdIn" -> List.of();
+                    case "toString" -> "InMemoryUserAvailabilityRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static boolean between(LocalDate date, LocalDate start, LocalDate end) {
+        return !date.isBefore(start) && !date.isAfter(end);
+    }
+}
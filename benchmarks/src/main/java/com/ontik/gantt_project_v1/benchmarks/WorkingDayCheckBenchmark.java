@@ -0,0 +1,57 @@
+package com.ontik.gantt_project_v1.benchmarks;
+
+import com.ontik.gantt_project_v1.service.HolidayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-day lookups: HolidayService.isWorkingDay and getNextWorkingDay
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorkingDayCheckBenchmark {
+
+    @Param({"SPARSE", "DENSE"})
+    private HolidaySet holidaySet;
+
+    private HolidayService holidayService;
+    private LocalDate[] dates;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        holidayService = BenchmarkFixtures.holidayService(holidaySet);
+        dates = BenchmarkFixtures.startDates(3);
+    }
+
+    @Benchmark
+    public boolean isWorkingDay() {
+        return holidayService.isWorkingDay(nextDate());
+    }
+
+    @Benchmark
+    public LocalDate getNextWorkingDay() {
+        return holidayService.getNextWorkingDay(nextDate());
+    }
+
+    private LocalDate nextDate() {
+        cursor = (cursor + 1) & (BenchmarkFixtures.INPUTS - 1);
+        return dates[cursor];
+    }
+}
@@ -0,0 +1,53 @@
+package com.ontik.gantt_project_v1.benchmarks;
+
+import com.ontik.gantt_project_v1.service.HolidayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HolidayService.calculateWorkingDaysBetween over spans from a month to ten years
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorkingDaysBetweenBenchmark {
+
+    @Param({"SPARSE", "DENSE"})
+    private HolidaySet holidaySet;
+
+    // Calendar days between start and end
+    @Param({"30", "365", "3650"})
+    private int spanDays;
+
+    private HolidayService holidayService;
+    private LocalDate[] startDates;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        holidayService = BenchmarkFixtures.holidayService(holidaySet);
+        startDates = BenchmarkFixtures.startDates(2);
+    }
+
+    @Benchmark
+    public int calculateWorkingDaysBetween() {
+        cursor = (cursor + 1) & (BenchmarkFixtures.INPUTS - 1);
+        LocalDate startDate = startDates[cursor];
+        return holidayService.calculateWorkingDaysBetween(startDate, startDate.plusDays(spanDays));
+    }
+}
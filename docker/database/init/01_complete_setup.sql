@@ -20,6 +20,8 @@ CREATE TABLE projects (
     tags TEXT[],
     created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    -- Optimistic-lock version, incremented by every update
+    version BIGINT NOT NULL DEFAULT 0,
 
     CONSTRAINT chk_project_status CHECK (status IN ('Planning', 'Active', 'On Hold', 'Completed', 'Cancelled')),
     CONSTRAINT chk_project_priority CHECK (priority IN ('Low', 'Medium', 'High', 'Critical')),
@@ -108,7 +110,7 @@ CREATE TABLE milestones (
 -- ===========================================
 CREATE TABLE holidays (
     holiday_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
-    holiday_date DATE NOT NULL UNIQUE,
+    holiday_date DATE NOT NULL,
     holiday_name VARCHAR(255) NOT NULL,
     holiday_type VARCHAR(100) DEFAULT 'PUBLIC',
     is_working_day BOOLEAN DEFAULT FALSE,
@@ -117,10 +119,58 @@ CREATE TABLE holidays (
     created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
 
+    -- One entry per date and country, so regional calendars can share dates
+    CONSTRAINT uq_holidays_date_country UNIQUE (holiday_date, country_code),
     CONSTRAINT chk_holiday_type CHECK (holiday_type IN ('PUBLIC', 'RELIGIOUS', 'NATIONAL', 'COMPANY', 'REGIONAL')),
     CONSTRAINT chk_holiday_date CHECK (holiday_date >= DATE '2020-01-01' AND holiday_date <= DATE '2050-12-31')
 );
 
+-- ===========================================
+-- CALENDAR DAYS DIMENSION (Maintained from holidays)
+-- ===========================================
+-- One row per day from 2020 to 2050 (the range allowed for holidays) in the default calendar:
+-- the default work week minus every non-working holiday. working_day_ordinal counts the working days up to
+-- and including the date, so the working days between two dates is a subtraction of ordinals.
+CREATE TABLE calendar_days (
+    calendar_date DATE PRIMARY KEY,
+    is_working_day BOOLEAN NOT NULL,
+    working_day_ordinal INTEGER NOT NULL
+);
+
+CREATE INDEX idx_calendar_days_ordinal ON calendar_days(working_day_ordinal);
+
+-- Recompute the days from from_date onwards; earlier ordinals are unaffected by a change at from_date.
+-- work_week is a bitmask of the worked days, bit 0 = Monday ... bit 6 = Sunday (31 = Monday to Friday).
+-- Called by the application with gantt.calendar.default-work-week on startup and after holiday writes,
+-- and after bulk holiday inserts in these scripts.
+CREATE OR REPLACE PROCEDURE refresh_calendar_days(from_date DATE DEFAULT DATE '2020-01-01',
+                                                  work_week INTEGER DEFAULT 31)
+LANGUAGE plpgsql AS $$
+DECLARE
+    base_ordinal INTEGER;
+BEGIN
+    SELECT COALESCE(MAX(working_day_ordinal), 0) INTO base_ordinal
+    FROM calendar_days
+    WHERE calendar_date < GREATEST(from_date, DATE '2020-01-01');
+
+    INSERT INTO calendar_days (calendar_date, is_working_day, working_day_ordinal)
+    SELECT day, working, base_ordinal + SUM(CASE WHEN working THEN 1 ELSE 0 END) OVER (ORDER BY day)
+    FROM (
+        SELECT d::date AS day,
+               ((work_week >> (EXTRACT(ISODOW FROM d)::INTEGER - 1)) & 1) = 1 AND NOT EXISTS (
+                   SELECT 1 FROM holidays h
+                   WHERE h.holiday_date = d::date AND COALESCE(h.is_working_day, FALSE) = FALSE
+               ) AS working
+        FROM generate_series(GREATEST(from_date, DATE '2020-01-01'), DATE '2050-12-31', INTERVAL '1 day') AS d
+    ) days
+    ON CONFLICT (calendar_date) DO UPDATE
+        SET is_working_day = EXCLUDED.is_working_day,
+            working_day_ordinal = EXCLUDED.working_day_ordinal;
+END;
+$$;
+
+CALL refresh_calendar_days();
+
 -- ===========================================
 -- 5. CREATE EPICS TABLE (References projects, users, milestones, and self)
 -- ===========================================
@@ -140,6 +190,7 @@ CREATE TABLE epics (
     tags JSONB,
     created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    version BIGINT NOT NULL DEFAULT 0,
 
     CONSTRAINT fk_epic_project
         FOREIGN KEY (project_id)
@@ -202,10 +253,15 @@ CREATE TABLE tasks (
     status VARCHAR(50) NOT NULL DEFAULT 'To Do',
     assignee_id UUID,
     priority VARCHAR(50) NOT NULL DEFAULT 'Medium',
-    labels TEXT[],
+    labels JSONB,
     parent_task_id UUID,
     created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    version BIGINT NOT NULL DEFAULT 0,
+    -- Full-text document of /tasks/search: title weighted above description
+    search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED,
 
     -- Foreign key constraints (optional - can be added later)
     CONSTRAINT fk_task_epic
@@ -231,6 +287,32 @@ CREATE TABLE tasks (
     CONSTRAINT chk_task_dates CHECK (due_date IS NULL OR due_date >= start_date)
 );
 
+-- ===========================================
+-- USER AVAILABILITY TABLE (References users)
+-- ===========================================
+-- Leave ranges and weekly schedules, combined with the holiday calendar for tasks assigned to the user
+CREATE TABLE user_availability (
+    availability_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    availability_type VARCHAR(20) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE,
+    work_week VARCHAR(50),
+    description TEXT,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+
+    CONSTRAINT fk_user_availability_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(user_id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT chk_availability_type CHECK (availability_type IN ('LEAVE', 'SCHEDULE')),
+    CONSTRAINT chk_availability_dates CHECK (end_date IS NULL OR end_date >= start_date),
+    CONSTRAINT chk_availability_leave_end CHECK (availability_type <> 'LEAVE' OR end_date IS NOT NULL),
+    CONSTRAINT chk_availability_schedule CHECK (availability_type <> 'SCHEDULE' OR work_week IS NOT NULL)
+);
+
 -- ===========================================
 -- 7. ADD MISSING FOREIGN KEY CONSTRAINT TO PROJECTS
 -- ===========================================
@@ -248,6 +330,8 @@ ADD CONSTRAINT fk_project_manager
 CREATE INDEX idx_projects_status ON projects(status);
 CREATE INDEX idx_projects_start_date ON projects(start_date);
 CREATE INDEX idx_projects_project_manager ON projects(project_manager_id);
+-- Keyset pagination order of /projects
+CREATE INDEX idx_projects_name_id ON projects(project_name, project_id);
 
 -- Users indexes
 CREATE INDEX idx_users_username ON users(username);
@@ -256,6 +340,8 @@ CREATE INDEX idx_users_role ON users(role);
 CREATE INDEX idx_users_department ON users(department);
 CREATE INDEX idx_users_is_active ON users(is_active);
 CREATE INDEX idx_users_active_users ON users(username, email) WHERE is_active = TRUE;
+-- Keyset pagination order of /users
+CREATE INDEX idx_users_active_username_id ON users(username, user_id) WHERE is_active = TRUE;
 
 -- Milestones indexes
 CREATE INDEX idx_milestones_project_id ON milestones(project_id);
@@ -269,6 +355,8 @@ CREATE INDEX idx_epics_assigned_to ON epics(assigned_to);
 CREATE INDEX idx_epics_parent_epic_id ON epics(parent_epic_id);
 CREATE INDEX idx_epics_milestone_id ON epics(milestone_id);
 CREATE INDEX idx_epics_status ON epics(status);
+-- Keyset pagination order of /epics
+CREATE INDEX idx_epics_start_date_id ON epics(start_date, epic_id);
 
 -- Sprints indexes
 CREATE INDEX idx_sprints_project_id ON sprints(project_id);
@@ -281,12 +369,184 @@ CREATE INDEX idx_tasks_assignee_id ON tasks(assignee_id);
 CREATE INDEX idx_tasks_parent_task_id ON tasks(parent_task_id);
 CREATE INDEX idx_tasks_status ON tasks(status);
 CREATE INDEX idx_tasks_due_date ON tasks(due_date);
+-- Case-insensitive /tasks/filter predicates
+CREATE INDEX idx_tasks_lower_type ON tasks(LOWER(type));
+CREATE INDEX idx_tasks_lower_status ON tasks(LOWER(status));
+CREATE INDEX idx_tasks_lower_priority ON tasks(LOWER(priority));
+CREATE INDEX idx_tasks_updated_at ON tasks(updated_at);
+-- Keyset pagination order of /tasks
+CREATE INDEX idx_tasks_start_date_id ON tasks(start_date, task_id);
+-- Schedule window of each task, for finding the tasks a holiday change reschedules
+CREATE INDEX idx_tasks_schedule_range ON tasks USING GIST (daterange(start_date, due_date, '[]'));
+-- Full-text search of /tasks/search
+CREATE INDEX idx_tasks_search_vector ON tasks USING GIN (search_vector);
+-- Label containment (labels @> '[...]') of the task filter
+CREATE INDEX idx_tasks_labels ON tasks USING GIN (labels jsonb_path_ops);
+
+-- User availability indexes
+CREATE INDEX idx_user_availability_user_id ON user_availability(user_id);
 
 -- Holidays indexes
 CREATE INDEX idx_holidays_date ON holidays(holiday_date);
 CREATE INDEX idx_holidays_type ON holidays(holiday_type);
 CREATE INDEX idx_holidays_country ON holidays(country_code);
 
+-- ===========================================
+-- HIERARCHY CLOSURE TABLES (Maintained from tasks and epics)
+-- ===========================================
+-- One row per (ancestor, descendant) pair of the parent_task_id / parent_epic_id trees, including each
+-- row with itself at depth 0, so subtrees, ancestor chains and subtree deletes are single indexed lookups.
+-- Kept in step by the triggers below; a parent deleted with ON DELETE SET NULL re-roots its children
+-- through the same UPDATE trigger.
+CREATE TABLE task_closure (
+    ancestor_id UUID NOT NULL,
+    descendant_id UUID NOT NULL,
+    depth INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_task_closure_ancestor
+        FOREIGN KEY (ancestor_id)
+        REFERENCES tasks(task_id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_task_closure_descendant
+        FOREIGN KEY (descendant_id)
+        REFERENCES tasks(task_id)
+        ON DELETE CASCADE
+);
+
+CREATE TABLE epic_closure (
+    ancestor_id UUID NOT NULL,
+    descendant_id UUID NOT NULL,
+    depth INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_epic_closure_ancestor
+        FOREIGN KEY (ancestor_id)
+        REFERENCES epics(epic_id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_epic_closure_descendant
+        FOREIGN KEY (descendant_id)
+        REFERENCES epics(epic_id)
+        ON DELETE CASCADE
+);
+
+-- Ancestor chains are looked up by descendant
+CREATE INDEX idx_task_closure_descendant ON task_closure(descendant_id, depth);
+CREATE INDEX idx_epic_closure_descendant ON epic_closure(descendant_id, depth);
+
+CREATE OR REPLACE FUNCTION maintain_task_closure() RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO task_closure (ancestor_id, descendant_id, depth)
+        SELECT ancestor_id, NEW.task_id, depth + 1 FROM task_closure WHERE descendant_id = NEW.parent_task_id
+        UNION ALL
+        SELECT NEW.task_id, NEW.task_id, 0;
+        RETURN NEW;
+    END IF;
+
+    -- Parent changed: detach the subtree from its old ancestors, then attach it under the new parent
+    IF EXISTS (SELECT 1 FROM task_closure WHERE ancestor_id = NEW.task_id AND descendant_id = NEW.parent_task_id) THEN
+        RAISE EXCEPTION 'Task % cannot be moved under its own subtree', NEW.task_id;
+    END IF;
+
+    DELETE FROM task_closure c
+    USING task_closure sub, task_closure sup
+    WHERE sub.ancestor_id = NEW.task_id
+      AND sup.descendant_id = NEW.task_id AND sup.depth > 0
+      AND c.ancestor_id = sup.ancestor_id AND c.descendant_id = sub.descendant_id;
+
+    INSERT INTO task_closure (ancestor_id, descendant_id, depth)
+    SELECT sup.ancestor_id, sub.descendant_id, sup.depth + sub.depth + 1
+    FROM task_closure sup
+    CROSS JOIN task_closure sub
+    WHERE sup.descendant_id = NEW.parent_task_id AND sub.ancestor_id = NEW.task_id;
+    RETURN NEW;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION maintain_epic_closure() RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO epic_closure (ancestor_id, descendant_id, depth)
+        SELECT ancestor_id, NEW.epic_id, depth + 1 FROM epic_closure WHERE descendant_id = NEW.parent_epic_id
+        UNION ALL
+        SELECT NEW.epic_id, NEW.epic_id, 0;
+        RETURN NEW;
+    END IF;
+
+    -- Parent changed: detach the subtree from its old ancestors, then attach it under the new parent
+    IF EXISTS (SELECT 1 FROM epic_closure WHERE ancestor_id = NEW.epic_id AND descendant_id = NEW.parent_epic_id) THEN
+        RAISE EXCEPTION 'Epic % cannot be moved under its own subtree', NEW.epic_id;
+    END IF;
+
+    DELETE FROM epic_closure c
+    USING epic_closure sub, epic_closure sup
+    WHERE sub.ancestor_id = NEW.epic_id
+      AND sup.descendant_id = NEW.epic_id AND sup.depth > 0
+      AND c.ancestor_id = sup.ancestor_id AND c.descendant_id = sub.descendant_id;
+
+    INSERT INTO epic_closure (ancestor_id, descendant_id, depth)
+    SELECT sup.ancestor_id, sub.descendant_id, sup.depth + sub.depth + 1
+    FROM epic_closure sup
+    CROSS JOIN epic_closure sub
+    WHERE sup.descendant_id = NEW.parent_epic_id AND sub.ancestor_id = NEW.epic_id;
+    RETURN NEW;
+END;
+$$;
+
+CREATE TRIGGER trg_task_closure_insert
+    AFTER INSERT ON tasks
+    FOR EACH ROW EXECUTE FUNCTION maintain_task_closure();
+
+CREATE TRIGGER trg_task_closure_move
+    AFTER UPDATE OF parent_task_id ON tasks
+    FOR EACH ROW
+    WHEN (OLD.parent_task_id IS DISTINCT FROM NEW.parent_task_id)
+    EXECUTE FUNCTION maintain_task_closure();
+
+CREATE TRIGGER trg_epic_closure_insert
+    AFTER INSERT ON epics
+    FOR EACH ROW EXECUTE FUNCTION maintain_epic_closure();
+
+CREATE TRIGGER trg_epic_closure_move
+    AFTER UPDATE OF parent_epic_id ON epics
+    FOR EACH ROW
+    WHEN (OLD.parent_epic_id IS DISTINCT FROM NEW.parent_epic_id)
+    EXECUTE FUNCTION maintain_epic_closure();
+
+-- Rebuild both closure tables from the parent columns, for databases that had rows before the triggers
+CREATE OR REPLACE PROCEDURE rebuild_hierarchy_closures()
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    DELETE FROM task_closure;
+    INSERT INTO task_closure (ancestor_id, descendant_id, depth)
+    WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+        SELECT task_id, task_id, 0 FROM tasks
+        UNION ALL
+        SELECT p.ancestor_id, t.task_id, p.depth + 1
+        FROM paths p
+        JOIN tasks t ON t.parent_task_id = p.descendant_id
+    )
+    SELECT ancestor_id, descendant_id, depth FROM paths;
+
+    DELETE FROM epic_closure;
+    INSERT INTO epic_closure (ancestor_id, descendant_id, depth)
+    WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+        SELECT epic_id, epic_id, 0 FROM epics
+        UNION ALL
+        SELECT p.ancestor_id, e.epic_id, p.depth + 1
+        FROM paths p
+        JOIN epics e ON e.parent_epic_id = p.descendant_id
+    )
+    SELECT ancestor_id, descendant_id, depth FROM paths;
+END;
+$$;
+
+CALL rebuild_hierarchy_closures();
+
 -- ===========================================
 -- SETUP COMPLETE
 -- ===========================================
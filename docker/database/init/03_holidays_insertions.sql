@@ -60,6 +60,9 @@ INSERT INTO holidays (holiday_date, holiday_name, holiday_type, is_working_day,
 ('2026-12-24', 'Christmas Eve', 'COMPANY', TRUE, 'Christmas Eve - optional company holiday', 'USA'),
 ('2026-12-31', 'New Year''s Eve', 'COMPANY', TRUE, 'New Year''s Eve - optional company holiday', 'USA');
 
+-- Rebuild the working-day ordinals of calendar_days from the new holidays
+CALL refresh_calendar_days();
+
 -- ===========================================
 -- VERIFY INSERTIONS
 -- ===========================================